@@ -20,6 +20,8 @@ plugins {
     id("signing")
     `maven-publish`
     id("com.github.johnrengelman.shadow") version "8.1.1"
+    // JMH benchmarks of hot paths, sources in src/jmh/java. Run with `gradlew jmh`.
+    id("me.champeau.jmh") version "0.7.1"
     java
 }
 
@@ -61,6 +63,26 @@ dependencies {
 
     // Citizens API (runtime plugin dependency, not shaded).
     compileOnly(files("lib/Citizens-2.0.30-b2803.jar"))
+
+    // Headless simulation (src/test) and benchmarks (src/jmh) run without a server,
+    // so compileOnly APIs have to be on their runtime classpath. Spigot API is resolved from
+    // the spigot snapshots repository, bungeecord-chat is excluded below.
+    testImplementation("org.spigotmc:spigot-api:1.8.8-R0.1-SNAPSHOT")
+    testImplementation(fileTree("lib/minigamesbox") { include("*.jar") })
+    testImplementation("org.jetbrains:annotations:24.0.1")
+    testImplementation("com.google.guava:guava:17.0")
+    testImplementation("org.junit.jupiter:junit-jupiter:5.9.3")
+    // Mockito 4.x is the last line running on Java 8.
+    testImplementation("org.mockito:mockito-inline:4.11.0")
+    jmh("org.spigotmc:spigot-api:1.8.8-R0.1-SNAPSHOT")
+    jmh(fileTree("lib/minigamesbox") { include("*.jar") })
+    // v1_8_R3 goal selectors and attribute modifiers, with the libraries they load on the server.
+    jmh(files("lib/spigot/1.8.8-R0.1.jar"))
+    jmh("org.apache.commons:commons-lang3:3.3.2")
+    jmh("org.apache.logging.log4j:log4j-api:2.0-beta9")
+    jmh("org.jetbrains:annotations:24.0.1")
+    jmh("com.google.guava:guava:17.0")
+    jmh("org.mockito:mockito-inline:4.11.0")
 }
 
 // 1.8.8-only build: exclude 1.9+ implementation sources.
@@ -83,6 +105,20 @@ configurations {
     }
 }
 
+jmh {
+    jmhVersion.set("1.36")
+    // Bukkit stubs and plugin fixtures are shared with the simulation tests.
+    includeTests.set(true)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    // Run a subset with e.g. `gradlew jmh -Pjmh.includes=Spawner`
+    if (project.hasProperty("jmh.includes")) {
+        includes.set(listOf(project.property("jmh.includes").toString()))
+    }
+}
+
 group = "plugily.projects"
 version = "4.7.0"
 description = "VillageDefense"
@@ -106,6 +142,10 @@ tasks {
         dependsOn(shadowJar)
     }
 
+    test {
+        useJUnitPlatform()
+    }
+
     shadowJar {
         archiveClassifier.set("")
         relocate("plugily.projects.minigamesbox", "plugily.projects.villagedefense.minigamesbox")
@@ -0,0 +1,98 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena;
+
+import org.bukkit.Location;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Wolf;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.stub.BukkitStubs;
+import plugily.projects.villagedefense.stub.PluginFixtures;
+
+import java.util.Random;
+
+/**
+ * Measures arena entity bookkeeping: mob limit checks and bulk enemy removal.
+ */
+@State(Scope.Thread)
+public class ArenaBenchmark {
+
+  @Param({"10", "100", "500"})
+  public int entities;
+
+  private Arena arena;
+  private Player player;
+  private Random random;
+
+  @Setup
+  public void setup() {
+    Main plugin = PluginFixtures.plugin();
+    Mockito.when(plugin.getPermissionsManager().getPermissionCategoryValue(Mockito.anyString(), Mockito.any(Player.class)))
+        .thenReturn(entities + 1);
+    Mockito.when(plugin.getConfigPreferences().getOption("LIMIT_ENTITY_BUY_AFTER_DEATH")).thenReturn(true);
+    arena = PluginFixtures.arena(8);
+    random = new Random(PluginFixtures.SEED);
+    Location location = new Location(PluginFixtures.world(), 0, 64, 0);
+    player = BukkitStubs.player("Benchmark", location);
+    for(int i = 0; i < entities; i++) {
+      Wolf wolf = BukkitStubs.wolf(location);
+      //mix of alive and dead wolves like in a long game
+      if(i % 3 == 0) {
+        wolf.remove();
+      }
+      arena.addWolf(wolf);
+      arena.addIronGolem(BukkitStubs.ironGolem(location));
+    }
+  }
+
+  @Benchmark
+  public boolean canSpawnWolf() {
+    return arena.canSpawnMobForPlayer(player, EntityType.WOLF);
+  }
+
+  @Benchmark
+  public boolean canSpawnGolem() {
+    return arena.canSpawnMobForPlayer(player, EntityType.IRON_GOLEM);
+  }
+
+  @Benchmark
+  public void removeSpawnedEnemies(Blackhole blackhole) {
+    PluginFixtures.fillEnemies(arena, entities, random);
+    ArenaUtils.removeSpawnedEnemies(arena);
+    blackhole.consume(arena.getEnemies().size());
+  }
+
+  @Benchmark
+  public void removeHalfOfSpawnedEnemies(Blackhole blackhole) {
+    arena.removeAllEnemies();
+    PluginFixtures.fillEnemies(arena, entities, random);
+    ArenaUtils.removeSpawnedEnemies(arena, entities / 2, Double.MAX_VALUE);
+    blackhole.consume(arena.getEnemies().size());
+  }
+
+}
@@ -0,0 +1,127 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.arena;
+
+import org.bukkit.Location;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import plugily.projects.minigamesbox.classic.utils.serialization.LocationSerializer;
+import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.stub.PluginFixtures;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the layout part of arena registration for 40 arenas, reading spawn and door
+ * lists from the configuration and parsing them against loading the compiled layout files.
+ * Parsing of arenas.yml itself is the same for both and not measured.
+ */
+@State(Scope.Thread)
+public class ArenaLayoutCacheBenchmark {
+
+  private static final int ARENAS = 40;
+  private static final long SOURCE_KEY = 1;
+
+  @Param({"20", "100"})
+  public int points;
+
+  private ConfigurationSection section;
+  private ArenaLayoutCache cache;
+  private File directory;
+
+  @Setup
+  public void setup() throws IOException {
+    Main plugin = PluginFixtures.plugin();
+    directory = Files.createTempDirectory("layout-cache").toFile();
+    Mockito.when(plugin.getDataFolder()).thenReturn(directory);
+    cache = new ArenaLayoutCache(plugin);
+    section = new YamlConfiguration().createSection("instances");
+    for(int arena = 0; arena < ARENAS; arena++) {
+      String id = "arena" + arena;
+      ArenaLayoutCache.Layout layout = new ArenaLayoutCache.Layout();
+      List<String> zombieSpawns = new ArrayList<>();
+      List<String> villagerSpawns = new ArrayList<>();
+      for(int i = 0; i < points; i++) {
+        Location location = new Location(PluginFixtures.world(), arena * 200 + i + 0.5, 64, i * 3 + 0.5, i, 0);
+        zombieSpawns.add(serialize(location));
+        villagerSpawns.add(serialize(location));
+        layout.getZombieSpawns().add(location);
+        layout.getVillagerSpawns().add(location);
+        section.set(id + ".doors." + i + ".location", serialize(location));
+        section.set(id + ".doors." + i + ".byte", i % 4);
+        layout.getDoors().put(location, (byte) (i % 4));
+      }
+      section.set(id + ".zombiespawns", zombieSpawns);
+      section.set(id + ".villagerspawns", villagerSpawns);
+      cache.save(id, SOURCE_KEY, layout);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    File[] files = new File(directory, "cache" + File.separator + "arenas").listFiles();
+    if(files != null) {
+      for(File file : files) {
+        file.delete();
+      }
+    }
+  }
+
+  @Benchmark
+  public void parseConfiguration(Blackhole blackhole) {
+    for(int arena = 0; arena < ARENAS; arena++) {
+      String id = "arena" + arena;
+      for(String string : section.getStringList(id + ".zombiespawns")) {
+        blackhole.consume(LocationSerializer.getLocation(string));
+      }
+      for(String string : section.getStringList(id + ".villagerspawns")) {
+        blackhole.consume(LocationSerializer.getLocation(string));
+      }
+      ConfigurationSection doors = section.getConfigurationSection(id + ".doors");
+      for(String door : doors.getKeys(false)) {
+        blackhole.consume(LocationSerializer.getLocation(doors.getString(door + ".location")));
+        blackhole.consume((byte) doors.getInt(door + ".byte"));
+      }
+    }
+  }
+
+  @Benchmark
+  public void loadCache(Blackhole blackhole) {
+    for(int arena = 0; arena < ARENAS; arena++) {
+      blackhole.consume(cache.load("arena" + arena, SOURCE_KEY));
+    }
+  }
+
+  private static String serialize(Location location) {
+    return "benchmark," + location.getX() + "," + location.getY() + "," + location.getZ() + "," + location.getYaw() + "," + location.getPitch();
+  }
+
+}
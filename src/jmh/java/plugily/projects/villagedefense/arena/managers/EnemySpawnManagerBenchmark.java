@@ -0,0 +1,69 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena.managers;
+
+import org.bukkit.entity.Creature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.stub.BukkitStubs;
+import plugily.projects.villagedefense.stub.PluginFixtures;
+
+import java.util.Random;
+
+/**
+ * Measures a full revolution of the glitch check wheel (60 arena seconds of ticks),
+ * every enemy is checked once. Enemies are moved between revolutions so the benchmark
+ * measures the steady state checks instead of removing every enemy as glitched.
+ */
+@State(Scope.Thread)
+public class EnemySpawnManagerBenchmark {
+
+  private static final int GLITCH_CHECK_TICKS = 60 * 20;
+
+  @Param({"50", "200", "1000"})
+  public int enemies;
+
+  private Arena arena;
+  private EnemySpawnManager spawnManager;
+
+  @Setup
+  public void setup() {
+    arena = PluginFixtures.arena(8);
+    PluginFixtures.fillEnemies(arena, enemies, new Random(PluginFixtures.SEED));
+    spawnManager = arena.getEnemySpawnManager();
+  }
+
+  @Benchmark
+  public void spawnGlitchCheck(Blackhole blackhole) {
+    for(Creature creature : arena.getEnemies()) {
+      BukkitStubs.move(creature, 2, 0);
+    }
+    for(int tick = 0; tick < GLITCH_CHECK_TICKS; tick++) {
+      spawnManager.spawnGlitchCheck();
+    }
+    blackhole.consume(spawnManager.getGlitchCheckedEnemies());
+  }
+
+}
@@ -0,0 +1,92 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena.managers.enemy.spawner;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.managers.spawner.WaveSpawnPlan;
+import plugily.projects.villagedefense.stub.PluginFixtures;
+
+import java.util.Random;
+
+/**
+ * Measures one spawn round over every registered spawner, as run once per arena second,
+ * against compiling a wave spawn plan and spawning its first cycles.
+ */
+@State(Scope.Thread)
+public class EnemySpawnerRegistryLegacyBenchmark {
+
+  @Param({"1", "10", "30"})
+  public int wave;
+
+  @Param({"0", "50"})
+  public int aliveEnemies;
+
+  private Arena arena;
+  private EnemySpawnerRegistryLegacy registry;
+  private Random random;
+
+  @Setup
+  public void setup() {
+    arena = PluginFixtures.arena(8);
+    arena.setWave(wave);
+    registry = new EnemySpawnerRegistryLegacy(PluginFixtures.plugin(), PluginFixtures.creatures());
+    random = new Random(PluginFixtures.SEED);
+  }
+
+  @Benchmark
+  public void spawnEnemies(Blackhole blackhole) {
+    if(arena.getEnemies().size() != aliveEnemies) {
+      arena.removeAllEnemies();
+      PluginFixtures.fillEnemies(arena, aliveEnemies, random);
+    }
+    arena.setArenaOption("ZOMBIES_TO_SPAWN", wave * 4);
+    registry.spawnEnemies(random, arena);
+    drainSpawnQueue();
+    blackhole.consume(arena.getEnemies().size());
+  }
+
+  @Benchmark
+  public void spawnFromPlan(Blackhole blackhole) {
+    if(arena.getEnemies().size() != aliveEnemies) {
+      arena.removeAllEnemies();
+      PluginFixtures.fillEnemies(arena, aliveEnemies, random);
+    }
+    arena.setArenaOption("ZOMBIES_TO_SPAWN", wave * 4);
+    //opening cycle, the second cycle compiles the window of the following phase period
+    WaveSpawnPlan plan = registry.compileSpawnPlan(arena, PluginFixtures.SEED);
+    plan.spawnNextCycle();
+    plan.spawnNextCycle();
+    drainSpawnQueue();
+    blackhole.consume(plan.size());
+  }
+
+  private void drainSpawnQueue() {
+    while(arena.getSpawnQueue().spawnNext()) {
+      //spawn queued enemies so every round measures entity creation too
+    }
+  }
+
+}
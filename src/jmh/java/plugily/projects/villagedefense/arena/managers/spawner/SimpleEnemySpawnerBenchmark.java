@@ -0,0 +1,69 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena.managers.spawner;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.managers.enemy.spawner.EnemySpawnerRegistryLegacy;
+import plugily.projects.villagedefense.stub.PluginFixtures;
+
+import java.util.Random;
+
+/**
+ * Measures the phase, wave and rate decisions of {@link SimpleEnemySpawner#spawn(Random, Arena, int)}.
+ * Spawned stub enemies are removed after every call to keep the arena in the same state.
+ */
+@State(Scope.Thread)
+public class SimpleEnemySpawnerBenchmark {
+
+  @Param({"FastZombie", "BabyZombie", "HardZombie", "PlayerBuster"})
+  public String spawnerName;
+
+  @Param({"1", "10", "30"})
+  public int wave;
+
+  private Arena arena;
+  private SimpleEnemySpawner spawner;
+  private Random random;
+
+  @Setup
+  public void setup() {
+    arena = PluginFixtures.arena(8);
+    arena.setWave(wave);
+    spawner = (SimpleEnemySpawner) new EnemySpawnerRegistryLegacy(PluginFixtures.plugin(), PluginFixtures.creatures()).getSpawnerByName(spawnerName)
+        .orElseThrow(() -> new IllegalStateException("Unknown spawner " + spawnerName));
+    random = new Random(PluginFixtures.SEED);
+  }
+
+  @Benchmark
+  public void spawn(Blackhole blackhole) {
+    arena.setArenaOption("ZOMBIES_TO_SPAWN", wave * 4);
+    arena.setArenaOption("ZOMBIE_SPAWN_COUNTER", (arena.getArenaOption("ZOMBIE_SPAWN_COUNTER") + 1) % 20);
+    spawner.spawn(random, arena, wave);
+    blackhole.consume(arena.getEnemies().size());
+    arena.removeAllEnemies();
+  }
+
+}
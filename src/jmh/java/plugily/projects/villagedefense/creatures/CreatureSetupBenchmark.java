@@ -0,0 +1,91 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.creatures;
+
+import net.minecraft.server.v1_8_R3.AttributeModifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Measures per spawn attribute modifier setup of a creature, before (modifiers allocated
+ * per creature) and after (shared follow range modifier, pooled damage and speed modifiers).
+ * Pathfinder goals hold their entity and are created per spawn either way, they are left out.
+ */
+@State(Scope.Thread)
+public class CreatureSetupBenchmark {
+
+  private static final UUID FOLLOW_RANGE = UUID.fromString("206a89dc-ae78-4c4d-b42c-3b31db3f5a7e");
+  private static final UUID ATTACK_DAMAGE = UUID.fromString("206a89dc-ae78-4c4d-b42c-3b31db3f5a7d");
+  private static final UUID MOVEMENT_SPEED = UUID.fromString("206a89dc-ae78-4c4d-b42c-3b31db3f5a7c");
+  private static final AttributeModifier FOLLOW_RANGE_MODIFIER = new AttributeModifier(FOLLOW_RANGE, "follow range multiplier", 200.0D, 1);
+
+  @Param({"1", "5"})
+  public int tiers;
+
+  private ModifierPool<AttributeModifier> damageModifiers;
+  private ModifierPool<AttributeModifier> speedModifiers;
+  private int tier;
+
+  @Setup
+  public void setup() {
+    damageModifiers = new ModifierPool<>(value -> new AttributeModifier(ATTACK_DAMAGE, "attack damage multiplier", value, 1));
+    speedModifiers = new ModifierPool<>(value -> new AttributeModifier(MOVEMENT_SPEED, "movement speed multiplier", value, 1));
+  }
+
+  @Benchmark
+  public void spawnAllocated(Blackhole blackhole) {
+    nextTier();
+    List<AttributeModifier> modifiers = new ArrayList<>(3);
+    modifiers.add(new AttributeModifier(FOLLOW_RANGE, "follow range multiplier", 200.0D, 1));
+    modifiers.add(new AttributeModifier(ATTACK_DAMAGE, "attack damage multiplier", damage(), 1));
+    modifiers.add(new AttributeModifier(MOVEMENT_SPEED, "movement speed multiplier", speed(), 1));
+    blackhole.consume(modifiers);
+  }
+
+  @Benchmark
+  public void spawnPooled(Blackhole blackhole) {
+    nextTier();
+    List<AttributeModifier> modifiers = new ArrayList<>(3);
+    modifiers.add(FOLLOW_RANGE_MODIFIER);
+    modifiers.add(damageModifiers.get(damage()));
+    modifiers.add(speedModifiers.get(speed()));
+    blackhole.consume(modifiers);
+  }
+
+  private void nextTier() {
+    tier = (tier + 1) % tiers;
+  }
+
+  private double damage() {
+    return 2.0 + (tier * 3);
+  }
+
+  private double speed() {
+    return 0.25 + (tier * 0.05);
+  }
+
+}
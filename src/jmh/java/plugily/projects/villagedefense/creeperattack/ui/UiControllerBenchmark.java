@@ -0,0 +1,87 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.creeperattack.ui;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.stub.BukkitStubs;
+import plugily.projects.villagedefense.stub.PluginFixtures;
+import plugily.projects.villagedefense.creeperattack.arena.ArenaContext;
+import plugily.projects.villagedefense.creeperattack.config.ConfigService;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures placeholder formatting of the default Creeper Attack scoreboard lines.
+ */
+@State(Scope.Thread)
+public class UiControllerBenchmark {
+
+  private static final List<String> LINES = Arrays.asList(
+      "&7━━━━━━━━━━━━━━",
+      "&fWave: &a%wave%/%maxwave%",
+      "",
+      "&fTrader HP:",
+      "%trader_hp_bar%",
+      "&c%trader_hp%&7/&c%trader_maxhp%",
+      "",
+      "&fCoins: &e%coins%",
+      "&fKills: &a%kills%",
+      "",
+      "&fCreepers left: &c%creepers%",
+      "&7━━━━━━━━━━━━━━");
+
+  private UiController uiController;
+  private Player player;
+  private Arena arena;
+  private ArenaContext context;
+
+  @Setup
+  public void setup() {
+    uiController = new UiController(PluginFixtures.plugin(), Mockito.mock(ConfigService.class));
+    player = BukkitStubs.player("Benchmark", new Location(PluginFixtures.world(), 0, 64, 0));
+    arena = Mockito.mock(Arena.class);
+    Mockito.when(arena.getPlayers()).thenReturn(Collections.singletonList(player));
+    context = new ArenaContext("benchmark");
+    context.setWaveMax(20);
+    context.setWaveIndex(7);
+    context.setTraderMaxHp(200);
+    context.setTraderCurrentHp(137);
+    context.setPlayerCoins(player.getUniqueId(), 1250);
+    uiController.incrementKills(player.getUniqueId());
+  }
+
+  @Benchmark
+  public void formatScoreboard(Blackhole blackhole) {
+    for(int i = 0; i < LINES.size(); i++) {
+      blackhole.consume(uiController.formatLine(LINES.get(i), player, arena, context));
+    }
+  }
+
+}
@@ -31,7 +31,12 @@ import plugily.projects.villagedefense.arena.Arena;
 import plugily.projects.villagedefense.arena.ArenaEvents;
 import plugily.projects.villagedefense.arena.ArenaManager;
 import plugily.projects.villagedefense.arena.ArenaRegistry;
+import plugily.projects.villagedefense.arena.ArenaTickScheduler;
 import plugily.projects.villagedefense.arena.ArenaUtils;
+import plugily.projects.villagedefense.arena.EntityLifecycleBus;
+import plugily.projects.villagedefense.arena.EntityOwnershipRegistry;
+import plugily.projects.villagedefense.arena.managers.SpawnQueueDrainer;
+import plugily.projects.villagedefense.arena.managers.SpawnThrottle;
 import plugily.projects.villagedefense.arena.managers.enemy.spawner.EnemySpawnerRegistryLegacy;
 import plugily.projects.villagedefense.boot.AdditionalValueInitializer;
 import plugily.projects.villagedefense.boot.MessageInitializer;
@@ -41,11 +46,14 @@ import plugily.projects.villagedefense.creatures.CreatureUtils;
 import plugily.projects.villagedefense.creatures.DoorBreakListener;
 import plugily.projects.villagedefense.creeperattack.CreeperAttackMode;
 import plugily.projects.villagedefense.events.PluginEvents;
+import plugily.projects.villagedefense.handlers.effect.EffectDispatcher;
 import plugily.projects.villagedefense.handlers.powerup.PowerupHandler;
 import plugily.projects.villagedefense.handlers.setup.SetupCategoryManager;
 import plugily.projects.villagedefense.handlers.upgrade.EntityUpgradeMenu;
 import plugily.projects.villagedefense.handlers.upgrade.upgrades.Upgrade;
 import plugily.projects.villagedefense.handlers.upgrade.upgrades.UpgradeBuilder;
+import plugily.projects.villagedefense.metrics.MetricsRegistry;
+import plugily.projects.villagedefense.metrics.PrometheusExporter;
 import plugily.projects.villagedefense.kits.free.KnightKit;
 import plugily.projects.villagedefense.kits.free.LightTankKit;
 import plugily.projects.villagedefense.kits.level.ArcherKit;
@@ -82,6 +90,12 @@ public class Main extends PluginMain {
   private FileConfiguration entityUpgradesConfig;
   private EnemySpawnerRegistryLegacy enemySpawnerRegistry;
   private ArenaRegistry arenaRegistry;
+  private ArenaTickScheduler arenaTickScheduler;
+  private EffectDispatcher effectDispatcher;
+  private SpawnThrottle spawnThrottle;
+  private EntityLifecycleBus entityLifecycleBus;
+  private EntityOwnershipRegistry entityOwnershipRegistry;
+  private MetricsRegistry metricsRegistry;
   private ArenaManager arenaManager;
   private ArgumentsRegistry argumentsRegistry;
   private CreeperAttackMode creeperAttackMode;
@@ -104,12 +118,20 @@ public class Main extends PluginMain {
   public void initializePluginClasses() {
     addFileName("powerups");
     addFileName("creatures");
+    entityLifecycleBus = new EntityLifecycleBus();
+    entityOwnershipRegistry = new EntityOwnershipRegistry(entityLifecycleBus);
+    metricsRegistry = new MetricsRegistry(this);
     Arena.init(this);
     ArenaUtils.init(this);
     new ArenaEvents(this);
     arenaManager = new ArenaManager(this);
     arenaRegistry = new ArenaRegistry(this);
     arenaRegistry.registerArenas();
+    arenaTickScheduler = new ArenaTickScheduler(this);
+    arenaManager.registerTickJobs(arenaTickScheduler);
+    effectDispatcher = new EffectDispatcher(this);
+    spawnThrottle = new SpawnThrottle(this);
+    new SpawnQueueDrainer(this);
     getSignManager().loadSigns();
     getSignManager().updateSigns();
     argumentsRegistry = new ArgumentsRegistry(this);
@@ -126,6 +148,9 @@ public class Main extends PluginMain {
     new PowerupHandler(this);
     new PluginEvents(this);
     creeperAttackMode = new CreeperAttackMode(this);
+    if(getConfig().getBoolean("Performance.Metrics-Export.Enabled", false)) {
+      new PrometheusExporter(this);
+    }
     addPluginMetrics();
   }
 
@@ -165,6 +190,34 @@ public class Main extends PluginMain {
     return enemySpawnerRegistry;
   }
 
+  public EntityOwnershipRegistry getEntityOwnershipRegistry() {
+    return entityOwnershipRegistry;
+  }
+
+  public EntityLifecycleBus getEntityLifecycleBus() {
+    return entityLifecycleBus;
+  }
+
+  public MetricsRegistry getMetricsRegistry() {
+    return metricsRegistry;
+  }
+
+  public ArenaTickScheduler getArenaTickScheduler() {
+    return arenaTickScheduler;
+  }
+
+  public EffectDispatcher getEffectDispatcher() {
+    return effectDispatcher;
+  }
+
+  public SpawnThrottle getSpawnThrottle() {
+    return spawnThrottle;
+  }
+
+  public CreeperAttackMode getCreeperAttackMode() {
+    return creeperAttackMode;
+  }
+
   @Override
   public ArenaRegistry getArenaRegistry() {
     return arenaRegistry;
@@ -33,9 +33,12 @@ import plugily.projects.minigamesbox.classic.arena.PluginArena;
 import plugily.projects.minigamesbox.classic.handlers.language.MessageBuilder;
 import plugily.projects.minigamesbox.classic.utils.version.ServerVersion;
 import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.arena.managers.ArenaSpatialIndex;
 import plugily.projects.villagedefense.arena.managers.EnemySpawnManager;
 import plugily.projects.villagedefense.arena.managers.ScoreboardManager;
 import plugily.projects.villagedefense.arena.managers.ShopManager;
+import plugily.projects.villagedefense.arena.managers.SpawnPointSelector;
+import plugily.projects.villagedefense.arena.managers.SpawnQueue;
 import plugily.projects.villagedefense.arena.managers.maprestorer.MapRestorerManager;
 import plugily.projects.villagedefense.arena.managers.maprestorer.MapRestorerManagerLegacy;
 import plugily.projects.villagedefense.arena.states.EndingState;
@@ -45,11 +48,15 @@ import plugily.projects.villagedefense.arena.states.StartingState;
 import plugily.projects.villagedefense.creatures.CreatureUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
+import java.util.function.IntSupplier;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -61,18 +68,30 @@ import java.util.stream.Collectors;
 public class Arena extends PluginArena {
 
   private static Main plugin;
+  private static final Map<IArenaState, String> STATE_TIMER_NAMES = new HashMap<>();
   private final List<Creature> enemies = new ArrayList<>();
   private final List<Wolf> wolves = new ArrayList<>();
   private final List<Villager> villagers = new ArrayList<>();
   private final List<IronGolem> ironGolems = new ArrayList<>();
   private final List<Item> droppedFleshes = new ArrayList<>();
   private final List<Entity> spawnedEntities = new ArrayList<>();
+  private final List<Creature> enemiesView = Collections.unmodifiableList(enemies);
+  private final List<Wolf> wolvesView = Collections.unmodifiableList(wolves);
+  private final List<Villager> villagersView = Collections.unmodifiableList(villagers);
+  private final List<IronGolem> ironGolemsView = Collections.unmodifiableList(ironGolems);
+  //entity id -> role, mirrors the lists above for constant time membership checks
+  private final Map<Integer, EntityRole> entityRoles = new HashMap<>();
   private MapRestorerManager mapRestorerManager;
+  //caches registered in the lifecycle bus, removed again when arena is unregistered
+  private final Map<String, IntSupplier> lifecycleCaches = new HashMap<>();
 
   private final Map<SpawnPoint, List<Location>> spawnPoints = new EnumMap<>(SpawnPoint.class);
 
   private ShopManager shopManager;
   private EnemySpawnManager enemySpawnManager;
+  private final ArenaSpatialIndex spatialIndex;
+  private final SpawnQueue spawnQueue;
+  private final SpawnPointSelector spawnPointSelector;
   // TODO(1.8.8): advanced target manager removed; consider adding legacy implementation if needed.
 
   private boolean fighting = false;
@@ -82,12 +101,18 @@ public class Arena extends PluginArena {
     setPluginValues();
     shopManager = new ShopManager(this);
     enemySpawnManager = new EnemySpawnManager(this);
+    spatialIndex = new ArenaSpatialIndex(this);
+    spawnQueue = new SpawnQueue(this);
+    spawnPointSelector = new SpawnPointSelector(this);
+    registerCache(id + ".entity-roles", entityRoles::size);
+    registerCache(id + ".spawn-queue", spawnQueue::size);
     if(ServerVersion.Version.isCurrentEqualOrLower(ServerVersion.Version.v1_16)) {
       mapRestorerManager = new MapRestorerManagerLegacy(this);
     } else {
       mapRestorerManager = new MapRestorerManager(this);
     }
     setMapRestorerManager(mapRestorerManager);
+    registerCache(id + ".block-journal", () -> mapRestorerManager.getBlockJournal().size());
     setScoreboardManager(new ScoreboardManager(this));
 
     addGameStateHandler(IArenaState.ENDING, new EndingState());
@@ -96,6 +121,23 @@ public class Arena extends PluginArena {
     addGameStateHandler(IArenaState.STARTING, new StartingState());
   }
 
+  private void registerCache(String name, IntSupplier size) {
+    lifecycleCaches.put(name, size);
+    plugin.getEntityLifecycleBus().registerCache(name, size);
+  }
+
+  /**
+   * Removes lifecycle bus subscribers and caches of this arena,
+   * called by the registry when the arena is unregistered or arenas are reloaded.
+   */
+  public void unregisterLifecycle() {
+    for(Map.Entry<String, IntSupplier> cache : lifecycleCaches.entrySet()) {
+      plugin.getEntityLifecycleBus().unregisterCache(cache.getKey(), cache.getValue());
+    }
+    lifecycleCaches.clear();
+    enemySpawnManager.unregister();
+  }
+
   public void reloadShopManager() {
     shopManager = new ShopManager(this);
   }
@@ -109,6 +151,28 @@ public class Arena extends PluginArena {
     return plugin;
   }
 
+  @Override
+  public void run() {
+    IArenaState state = getArenaState();
+    long start = System.nanoTime();
+    super.run();
+    String timerName = STATE_TIMER_NAMES.computeIfAbsent(state, key -> "state." + key.toString().toLowerCase());
+    plugin.getMetricsRegistry().record(timerName, this, System.nanoTime() - start);
+  }
+
+  @Override
+  public void setArenaState(@NotNull IArenaState arenaState) {
+    super.setArenaState(arenaState);
+    plugin.getArenaRegistry().updateInGameState(this);
+  }
+
+  @Override
+  public void setArenaState(@NotNull IArenaState arenaState, boolean forceArenaState) {
+    super.setArenaState(arenaState, forceArenaState);
+    //state change may be cancelled, view follows the state the arena ended up in
+    plugin.getArenaRegistry().updateInGameState(this);
+  }
+
   private void setPluginValues() {
     for(SpawnPoint point : SpawnPoint.values()) {
       spawnPoints.put(point, new ArrayList<>());
@@ -123,6 +187,32 @@ public class Arena extends PluginArena {
     return enemySpawnManager;
   }
 
+  /**
+   * @return enemies of this arena waiting to be spawned
+   */
+  public SpawnQueue getSpawnQueue() {
+    return spawnQueue;
+  }
+
+  /**
+   * Get grid of arena creatures used for nearby lookups.
+   * Prefer it over world entity scans when only arena creatures matter.
+   *
+   * @return spatial index of this arena
+   */
+  public ArenaSpatialIndex getSpatialIndex() {
+    return spatialIndex;
+  }
+
+  /**
+   * Get weighted zombie spawn point picker, it prefers points with less enemies around.
+   *
+   * @return spawn point selector of this arena
+   */
+  public SpawnPointSelector getSpawnPointSelector() {
+    return spawnPointSelector;
+  }
+
   // Target manager removed in 1.8-only build.
 
   public void clearVillagers() {
@@ -165,15 +255,104 @@ public class Arena extends PluginArena {
    * Get list of already spawned enemies.
    * This will only return alive enemies not total enemies in current wave.
    *
-   * @return list of spawned enemies in arena
+   * @return read-only view of spawned enemies in arena
    */
   @NotNull
   public List<Creature> getEnemies() {
-    return enemies;
+    return enemiesView;
+  }
+
+  public void addEnemy(Creature enemy) {
+    enemies.add(enemy);
+    track(enemy, EntityRole.ENEMY);
+    enemySpawnManager.trackEnemy(enemy);
+    plugin.getMetricsRegistry().count("entities.spawned", this, 1);
   }
 
   public void removeEnemy(Creature enemy) {
-    enemies.remove(enemy);
+    if(untrack(enemy, EntityRole.ENEMY)) {
+      enemies.remove(enemy);
+      plugin.getMetricsRegistry().count("entities.removed", this, 1);
+    }
+  }
+
+  /**
+   * Removes given enemies from the arena tracking in a single pass.
+   * Entities themselves are not removed from the world.
+   *
+   * @param toRemove enemies to stop tracking
+   */
+  public void removeEnemies(Collection<? extends Creature> toRemove) {
+    if(toRemove.isEmpty()) {
+      return;
+    }
+    int removed = 0;
+    for(Creature creature : toRemove) {
+      if(untrack(creature, EntityRole.ENEMY)) {
+        removed++;
+      }
+    }
+    enemies.removeIf(creature -> !isEnemy(creature));
+    plugin.getMetricsRegistry().count("entities.removed", this, removed);
+  }
+
+  /**
+   * Removes all enemies from the world and clears the tracking.
+   * Enemies waiting in the spawn queue are dropped.
+   */
+  public void removeAllEnemies() {
+    spawnQueue.clear();
+    enemySpawnManager.clearGlitchChecks();
+    for(Creature creature : enemies) {
+      creature.remove();
+      untrack(creature);
+    }
+    plugin.getMetricsRegistry().count("entities.removed", this, enemies.size());
+    enemies.clear();
+  }
+
+  /**
+   * Get role of entity tracked by this arena.
+   *
+   * @param entity entity to check
+   * @return role of the entity or null if entity is not tracked by this arena
+   */
+  public EntityRole getEntityRole(Entity entity) {
+    return entity == null ? null : entityRoles.get(entity.getEntityId());
+  }
+
+  public boolean isEnemy(Entity entity) {
+    return getEntityRole(entity) == EntityRole.ENEMY;
+  }
+
+  public boolean isVillager(Entity entity) {
+    return getEntityRole(entity) == EntityRole.VILLAGER;
+  }
+
+  public boolean isIronGolem(Entity entity) {
+    return getEntityRole(entity) == EntityRole.GOLEM;
+  }
+
+  public boolean isWolf(Entity entity) {
+    return getEntityRole(entity) == EntityRole.WOLF;
+  }
+
+  private void track(Entity entity, EntityRole role) {
+    entityRoles.put(entity.getEntityId(), role);
+    plugin.getEntityOwnershipRegistry().register(entity, this, role);
+  }
+
+  private boolean untrack(Entity entity, EntityRole role) {
+    if(!entityRoles.remove(entity.getEntityId(), role)) {
+      return false;
+    }
+    plugin.getEntityOwnershipRegistry().unregister(entity);
+    return true;
+  }
+
+  private void untrack(Entity entity) {
+    entityRoles.remove(entity.getEntityId());
+    plugin.getEntityOwnershipRegistry().unregister(entity);
   }
 
   @NotNull
@@ -194,6 +373,7 @@ public class Arena extends PluginArena {
     List<Location> zombies = getZombieSpawns();
     zombies.add(location);
     spawnPoints.put(SpawnPoint.ZOMBIE, zombies);
+    spawnPointSelector.invalidate();
     plugin.getDebugger().debug("Arena {0} ZombieSpawns {1}", getId(), getZombieSpawns());
   }
 
@@ -211,7 +391,17 @@ public class Arena extends PluginArena {
   }
 
   public int getZombiesLeft() {
-    return getArenaOption("ZOMBIES_TO_SPAWN") + enemies.size();
+    return getArenaOption("ZOMBIES_TO_SPAWN") + (spawnQueue.size() + enemies.size()) * getHordeFactor();
+  }
+
+  /**
+   * Get amount of zombies one spawned enemy stands for in the current wave.
+   *
+   * @return horde factor, 1 unless compressed horde is active
+   * @see ArenaManager#startWave(Arena)
+   */
+  public int getHordeFactor() {
+    return Math.max(1, getArenaOption("HORDE_FACTOR"));
   }
 
   public int getWave() {
@@ -263,6 +453,7 @@ public class Arena extends PluginArena {
   protected void addWolf(Wolf wolf) {
     wolves.add(wolf);
     spawnedEntities.add(wolf);
+    track(wolf, EntityRole.WOLF);
   }
 
   public boolean canSpawnMobForPlayer(Player player, EntityType type) {
@@ -329,31 +520,31 @@ public class Arena extends PluginArena {
   /**
    * Get alive wolves.
    *
-   * @return alive wolves in game
+   * @return read-only view of alive wolves in game
    */
   @NotNull
   public List<Wolf> getWolves() {
-    return wolves;
+    return wolvesView;
   }
 
   /**
    * Get alive iron golems.
    *
-   * @return alive iron golems in game
+   * @return read-only view of alive iron golems in game
    */
   @NotNull
   public List<IronGolem> getIronGolems() {
-    return ironGolems;
+    return ironGolemsView;
   }
 
   /**
    * Get alive villagers.
    *
-   * @return alive villagers in game
+   * @return read-only view of alive villagers in game
    */
   @NotNull
   public List<Villager> getVillagers() {
-    return villagers;
+    return villagersView;
   }
 
   public boolean checkLevelUpRottenFlesh() {
@@ -376,12 +567,26 @@ public class Arena extends PluginArena {
 
   protected void addVillager(Villager villager) {
     villagers.add(villager);
+    track(villager, EntityRole.VILLAGER);
   }
 
   public void removeVillager(Villager villager) {
     villager.remove();
     villager.setHealth(0);
-    villagers.remove(villager);
+    if(untrack(villager, EntityRole.VILLAGER)) {
+      villagers.remove(villager);
+    }
+  }
+
+  /**
+   * Removes all villagers from the world and clears the tracking.
+   */
+  public void removeAllVillagers() {
+    for(Villager villager : villagers) {
+      villager.remove();
+      untrack(villager);
+    }
+    villagers.clear();
   }
 
   @Override
@@ -394,24 +599,57 @@ public class Arena extends PluginArena {
     return spawnPoints.getOrDefault(SpawnPoint.ZOMBIE, new ArrayList<>());
   }
 
+  /**
+   * Picks zombie spawn location, crowded locations are picked less often.
+   *
+   * @param random random to pick with
+   * @return zombie spawn location
+   * @see SpawnPointSelector
+   */
   public final Location getRandomZombieSpawnLocation(Random random) {
-    List<Location> spawns = getZombieSpawns();
-    return spawns.get(spawns.size() == 1 ? 0 : random.nextInt(spawns.size()));
+    return spawnPointSelector.next(random);
   }
 
   protected void addIronGolem(IronGolem ironGolem) {
     ironGolems.add(ironGolem);
     spawnedEntities.add(ironGolem);
+    track(ironGolem, EntityRole.GOLEM);
   }
 
   public void removeIronGolem(IronGolem ironGolem) {
     ironGolem.remove();
-    ironGolems.remove(ironGolem);
+    if(untrack(ironGolem, EntityRole.GOLEM)) {
+      ironGolems.remove(ironGolem);
+    }
+  }
+
+  /**
+   * Removes all iron golems from the world and clears the tracking.
+   */
+  public void removeAllIronGolems() {
+    for(IronGolem ironGolem : ironGolems) {
+      ironGolem.remove();
+      untrack(ironGolem);
+    }
+    ironGolems.clear();
   }
 
   public void removeWolf(Wolf wolf) {
     wolf.remove();
-    wolves.remove(wolf);
+    if(untrack(wolf, EntityRole.WOLF)) {
+      wolves.remove(wolf);
+    }
+  }
+
+  /**
+   * Removes all wolves from the world and clears the tracking.
+   */
+  public void removeAllWolves() {
+    for(Wolf wolf : wolves) {
+      wolf.remove();
+      untrack(wolf);
+    }
+    wolves.clear();
   }
 
   public enum SpawnPoint {
@@ -21,11 +21,14 @@ package plugily.projects.villagedefense.arena;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Creature;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.IronGolem;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
 import org.bukkit.entity.Villager;
 import org.bukkit.entity.Wolf;
 import org.bukkit.event.EventHandler;
@@ -33,6 +36,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.entity.ItemSpawnEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
@@ -60,7 +64,7 @@ public class ArenaEvents extends PluginArenaEvents {
   public ArenaEvents(Main plugin) {
     super(plugin);
     this.plugin = plugin;
-    plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    plugin.getMetricsRegistry().registerEvents(this);
   }
 
   //override WorldGuard build deny flag where villagers cannot be damaged
@@ -70,11 +74,9 @@ public class ArenaEvents extends PluginArenaEvents {
       return;
     }
 
-    for(Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-      if(arena.getVillagers().contains(e.getEntity()) && arena.getEnemies().contains(e.getDamager())) {
-        e.setCancelled(false);
-        break;
-      }
+    Arena arena = plugin.getEntityOwnershipRegistry().getArena(e.getEntity(), EntityRole.VILLAGER);
+    if(arena != null && arena.isEnemy(e.getDamager())) {
+      e.setCancelled(false);
     }
   }
 
@@ -87,20 +89,21 @@ public class ArenaEvents extends PluginArenaEvents {
     if(e.getDamage() >= ((Creature) e.getEntity()).getHealth()) {
 
       //trick to get non player killer of zombie
-      for(Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-        if(arena.getEnemies().contains(e.getEntity())) {
-          org.bukkit.entity.AnimalTamer owner = ((Wolf) e.getDamager()).getOwner();
+      Arena arena = plugin.getEntityOwnershipRegistry().getArena(e.getEntity(), EntityRole.ENEMY);
+      if(arena == null) {
+        return;
+      }
+      org.bukkit.entity.AnimalTamer owner = ((Wolf) e.getDamager()).getOwner();
 
-          if(owner instanceof Player) { //prevent offline player cast error
-            Player player = (Player) owner;
+      if(owner instanceof Player) { //prevent offline player cast error
+        Player player = (Player) owner;
 
-            if(plugin.getArenaRegistry().getArena(player) != null) {
-              plugin.getUserManager().addStat(player, plugin.getStatsStorage().getStatisticType("KILLS"));
-              plugin.getUserManager().addExperience(player, 2 * arena.getArenaOption("ZOMBIE_DIFFICULTY_MULTIPLIER"));
-            }
+        if(plugin.getArenaRegistry().getArena(player) != null) {
+          int hordeFactor = arena.getHordeFactor();
+          for(int i = 0; i < hordeFactor; i++) {
+            plugin.getUserManager().addStat(player, plugin.getStatsStorage().getStatisticType("KILLS"));
           }
-
-          break;
+          plugin.getUserManager().addExperience(player, 2 * arena.getArenaOption("ZOMBIE_DIFFICULTY_MULTIPLIER") * hordeFactor);
         }
       }
     }
@@ -132,47 +135,64 @@ public class ArenaEvents extends PluginArenaEvents {
     if(event.getEntityType() != EntityType.IRON_GOLEM && event.getEntityType() != EntityType.WOLF)
       return;
 
-    for(Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-      switch(event.getEntityType()) {
-        case IRON_GOLEM:
-          if(!arena.getIronGolems().contains(event.getEntity())) {
-            continue;
-          }
+    EntityOwnershipRegistry.Ownership ownership = plugin.getEntityOwnershipRegistry().getOwnership(event.getEntity());
+    if(ownership == null) {
+      return;
+    }
+    Arena arena = ownership.getArena();
+    switch(ownership.getRole()) {
+      case GOLEM:
+        IronGolem ironGolem = (IronGolem) event.getEntity();
+
+        if(ironGolem.getHealth() <= event.getDamage()) {
+          event.setCancelled(true);
+          event.setDamage(0);
+          arena.removeIronGolem(ironGolem);
+        }
+        return;
+      case WOLF:
+        Wolf wolf = (Wolf) event.getEntity();
 
-          IronGolem ironGolem = (IronGolem) event.getEntity();
+        if(wolf.getHealth() <= event.getDamage()) {
+          event.setCancelled(true);
+          event.setDamage(0);
 
-          if(ironGolem.getHealth() <= event.getDamage()) {
-            event.setCancelled(true);
-            event.setDamage(0);
-            arena.removeIronGolem(ironGolem);
-          }
-          return;
-        case WOLF:
-          if(!arena.getWolves().contains(event.getEntity())) {
-            continue;
-          }
-
-          Wolf wolf = (Wolf) event.getEntity();
+          java.util.UUID ownerUUID = (wolf.getOwner() != null) ? wolf.getOwner().getUniqueId() : null;
 
-          if(wolf.getHealth() <= event.getDamage()) {
-            event.setCancelled(true);
-            event.setDamage(0);
+          if(ownerUUID != null) {
+            Player playerOwner = plugin.getServer().getPlayer(ownerUUID);
 
-            java.util.UUID ownerUUID = (wolf.getOwner() != null) ? wolf.getOwner().getUniqueId() : null;
+            if(playerOwner != null)
+              new MessageBuilder("IN_GAME_MESSAGES_VILLAGE_WAVE_ENTITIES_WOLF_DEATH").asKey().player(playerOwner).sendPlayer();
+          }
 
-            if(ownerUUID != null) {
-              Player playerOwner = plugin.getServer().getPlayer(ownerUUID);
+          arena.removeWolf(wolf);
+        }
+        return;
+      default:
+        return;
+    }
+  }
 
-              if(playerOwner != null)
-                new MessageBuilder("IN_GAME_MESSAGES_VILLAGE_WAVE_ENTITIES_WOLF_DEATH").asKey().player(playerOwner).sendPlayer();
-            }
+  //compressed horde enemy hits as hard as all zombies it stands for
+  @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+  public void onHordeEnemyAttack(EntityDamageByEntityEvent event) {
+    Entity damager = event.getDamager();
+    if(damager instanceof Projectile && ((Projectile) damager).getShooter() instanceof Entity) {
+      damager = (Entity) ((Projectile) damager).getShooter();
+    }
+    Arena arena = plugin.getEntityOwnershipRegistry().getArena(damager, EntityRole.ENEMY);
+    if(arena != null && arena.getHordeFactor() > 1) {
+      event.setDamage(event.getDamage() * arena.getHordeFactor());
+    }
+  }
 
-            arena.removeWolf(wolf);
-          }
-          return;
-        default:
-          return;
-      }
+  //runs before role handlers untrack the entity, so subscribers still see the owning arena
+  @EventHandler(priority = EventPriority.LOWEST)
+  public void onOwnedEntityDeath(EntityDeathEvent event) {
+    EntityOwnershipRegistry.Ownership ownership = plugin.getEntityOwnershipRegistry().getOwnership(event.getEntity());
+    if(ownership != null) {
+      plugin.getEntityLifecycleBus().fire(event.getEntity(), ownership.getArena(), EntityLifecycleBus.Phase.DEATH);
     }
   }
 
@@ -182,34 +202,74 @@ public class ArenaEvents extends PluginArenaEvents {
     if(!(entity instanceof Creature)) {
       return;
     }
-    for(Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-      if(event.getEntityType() == EntityType.VILLAGER) {
-        if(!arena.getVillagers().contains(entity)) {
-          continue;
-        }
+    EntityOwnershipRegistry.Ownership ownership = plugin.getEntityOwnershipRegistry().getOwnership(entity);
+    if(ownership == null) {
+      return;
+    }
+    Arena arena = ownership.getArena();
+    switch(ownership.getRole()) {
+      case VILLAGER:
         arena.getStartLocation().getWorld().strikeLightningEffect(entity.getLocation());
         arena.removeVillager((Villager) entity);
         plugin.getRewardsHandler().performReward(null, arena, plugin.getRewardsHandler().getRewardType("VILLAGER_DEATH"));
         plugin.getHolidayManager().applyHolidayDeathEffects(entity);
         new MessageBuilder("IN_GAME_MESSAGES_VILLAGE_VILLAGER_DIED").asKey().arena(arena).sendArena();
-      } else {
-        if(!arena.getEnemies().contains(entity)) {
-          continue;
-        }
+        break;
+      case ENEMY:
+        //compressed horde enemy is killed as all zombies it stands for
+        int hordeFactor = arena.getHordeFactor();
         arena.removeEnemy((Creature) entity);
-        arena.changeArenaOptionBy("TOTAL_KILLED_ZOMBIES", 1);
+        arena.changeArenaOptionBy("TOTAL_KILLED_ZOMBIES", hordeFactor);
+        //orbs are gained by picking up the dropped experience
+        event.setDroppedExp(event.getDroppedExp() * hordeFactor);
 
         Player killer = entity.getKiller();
         Arena killerArena = plugin.getArenaRegistry().getArena(killer);
 
         if(killerArena != null) {
-          plugin.getUserManager().addStat(killer, plugin.getStatsStorage().getStatisticType("KILLS"));
-          plugin.getUserManager().addExperience(killer, 2 * arena.getArenaOption("ZOMBIE_DIFFICULTY_MULTIPLIER"));
-          plugin.getRewardsHandler().performReward(killer, plugin.getRewardsHandler().getRewardType("ZOMBIE_KILL"));
+          for(int i = 0; i < hordeFactor; i++) {
+            plugin.getUserManager().addStat(killer, plugin.getStatsStorage().getStatisticType("KILLS"));
+            plugin.getRewardsHandler().performReward(killer, plugin.getRewardsHandler().getRewardType("ZOMBIE_KILL"));
+          }
+          plugin.getUserManager().addExperience(killer, 2 * arena.getArenaOption("ZOMBIE_DIFFICULTY_MULTIPLIER") * hordeFactor);
           plugin.getPowerupRegistry().spawnPowerup(entity.getLocation(), killerArena);
         }
-      }
-      break;
+        break;
+      default:
+        break;
+    }
+  }
+
+  //golems and wolves which died without passing onEntityDamage e.g. void or plugin kill
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onSupportEntityDeath(EntityDeathEvent event) {
+    EntityOwnershipRegistry.Ownership ownership = plugin.getEntityOwnershipRegistry().getOwnership(event.getEntity());
+    if(ownership == null) {
+      return;
+    }
+    if(ownership.getRole() == EntityRole.GOLEM) {
+      ownership.getArena().removeIronGolem((IronGolem) event.getEntity());
+    } else if(ownership.getRole() == EntityRole.WOLF) {
+      ownership.getArena().removeWolf((Wolf) event.getEntity());
+    }
+  }
+
+  //buster TNT is owned by the arena of its buster, cancelled explosions still have to leave the registry
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onArenaExplosion(EntityExplodeEvent event) {
+    EntityOwnershipRegistry.Ownership ownership = plugin.getEntityOwnershipRegistry().getOwnership(event.getEntity());
+    if(ownership == null) {
+      return;
+    }
+    if(ownership.getRole() == EntityRole.EXPLOSIVE) {
+      plugin.getEntityOwnershipRegistry().unregister(event.getEntity());
+    }
+    Arena arena = ownership.getArena();
+    if(event.isCancelled() || arena.getArenaState() != IArenaState.IN_GAME) {
+      return;
+    }
+    for(Block block : event.blockList()) {
+      arena.getMapRestorerManager().getBlockJournal().record(block);
     }
   }
 
@@ -0,0 +1,264 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.Nullable;
+import plugily.projects.villagedefense.Main;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * Compiled arena layouts (zombie spawns, villager spawns and doors) stored per arena
+ * in the cache/arenas directory of the plugin folder.
+ * <p>
+ * A layout file holds a header (magic, format version and key of the arenas.yml
+ * file it was compiled from), a world name table, the packed locations
+ * and door data, followed by a CRC32 of everything before it. Files are read
+ * at once and only used when version, key and checksum all match, then spawn and
+ * door lists of the arena are not read from the configuration at all. Otherwise
+ * the arena is parsed from the configuration and the file is rewritten.
+ */
+public class ArenaLayoutCache {
+
+  private static final int MAGIC = 0x5644_4C43;
+  private static final int VERSION = 2;
+  private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+  private static final long FNV_PRIME = 0x100000001B3L;
+
+  private final Main plugin;
+  private final File directory;
+
+  public ArenaLayoutCache(Main plugin) {
+    this.plugin = plugin;
+    this.directory = new File(plugin.getDataFolder(), "cache" + File.separator + "arenas");
+  }
+
+  /**
+   * Key of the arena configuration file layouts are compiled from. Any save of the file
+   * changes its modification time, so a matching key means no arena list has to be read.
+   *
+   * @param source arena configuration file
+   * @return 64 bit FNV-1a hash of modification time and length of the file, 0 if it does not exist
+   */
+  public static long sourceKey(File source) {
+    if(!source.isFile()) {
+      return 0;
+    }
+    long hash = FNV_OFFSET;
+    hash = hash(hash, source.lastModified());
+    return hash(hash, source.length());
+  }
+
+  private static long hash(long hash, long value) {
+    for(int i = 0; i < Long.BYTES; i++) {
+      hash = (hash ^ ((value >>> (i * 8)) & 0xFF)) * FNV_PRIME;
+    }
+    return hash;
+  }
+
+  /**
+   * Loads the compiled layout of the arena.
+   *
+   * @param id         arena id
+   * @param sourceHash key of the current arena configuration file
+   * @return layout or null if there is no valid layout for the configuration or one of its worlds is not loaded
+   */
+  @Nullable
+  public Layout load(String id, long sourceHash) {
+    File file = getFile(id);
+    if(!file.isFile()) {
+      return null;
+    }
+    try {
+      //read into the heap, a mapped file stays locked on Windows until the buffer is collected
+      byte[] data = Files.readAllBytes(file.toPath());
+      ByteBuffer buffer = ByteBuffer.wrap(data);
+      if(buffer.remaining() < 20 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != sourceHash) {
+        return null;
+      }
+      int contentLength = data.length - 4;
+      CRC32 crc = new CRC32();
+      crc.update(data, 0, contentLength);
+      if((int) crc.getValue() != buffer.getInt(contentLength)) {
+        plugin.getDebugger().debug(Level.WARNING, "Arena layout cache of {0} is corrupted, loading arena from configuration", id);
+        return null;
+      }
+      World[] worlds = new World[buffer.getShort()];
+      for(int i = 0; i < worlds.length; i++) {
+        byte[] name = new byte[buffer.getShort()];
+        buffer.get(name);
+        worlds[i] = Bukkit.getWorld(new String(name, StandardCharsets.UTF_8));
+        if(worlds[i] == null) {
+          return null;
+        }
+      }
+      Layout layout = new Layout();
+      int zombieSpawns = buffer.getInt();
+      int villagerSpawns = buffer.getInt();
+      int doors = buffer.getInt();
+      for(int i = 0; i < zombieSpawns; i++) {
+        layout.zombieSpawns.add(readLocation(buffer, worlds));
+      }
+      for(int i = 0; i < villagerSpawns; i++) {
+        layout.villagerSpawns.add(readLocation(buffer, worlds));
+      }
+      for(int i = 0; i < doors; i++) {
+        layout.doors.put(readLocation(buffer, worlds), buffer.get());
+      }
+      return layout;
+    } catch(IOException | RuntimeException exception) {
+      plugin.getDebugger().debug(Level.WARNING, "Cannot read arena layout cache of {0} message {1}", id, exception.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Compiles the layout of the arena into its cache file.
+   *
+   * @param id         arena id
+   * @param sourceHash key of the arena configuration file the layout was parsed from
+   * @param layout     parsed layout
+   */
+  public void save(String id, long sourceHash, Layout layout) {
+    List<World> worlds = new ArrayList<>();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try(DataOutputStream output = new DataOutputStream(bytes)) {
+      collectWorlds(layout.zombieSpawns, worlds);
+      collectWorlds(layout.villagerSpawns, worlds);
+      collectWorlds(layout.doors.keySet(), worlds);
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.writeLong(sourceHash);
+      output.writeShort(worlds.size());
+      for(World world : worlds) {
+        byte[] name = world.getName().getBytes(StandardCharsets.UTF_8);
+        output.writeShort(name.length);
+        output.write(name);
+      }
+      output.writeInt(layout.zombieSpawns.size());
+      output.writeInt(layout.villagerSpawns.size());
+      output.writeInt(layout.doors.size());
+      for(Location location : layout.zombieSpawns) {
+        writeLocation(output, location, worlds);
+      }
+      for(Location location : layout.villagerSpawns) {
+        writeLocation(output, location, worlds);
+      }
+      for(Map.Entry<Location, Byte> door : layout.doors.entrySet()) {
+        writeLocation(output, door.getKey(), worlds);
+        output.writeByte(door.getValue());
+      }
+      CRC32 crc = new CRC32();
+      crc.update(bytes.toByteArray());
+      output.writeInt((int) crc.getValue());
+    } catch(IOException | RuntimeException exception) {
+      plugin.getDebugger().debug(Level.WARNING, "Cannot compile arena layout cache of {0} message {1}", id, exception.getMessage());
+      return;
+    }
+    try {
+      write(getFile(id), bytes.toByteArray());
+    } catch(IOException exception) {
+      plugin.getDebugger().debug(Level.WARNING, "Cannot write arena layout cache of {0} message {1}", id, exception.getMessage());
+    }
+  }
+
+  private File getFile(String id) {
+    return new File(directory, id + ".bin");
+  }
+
+  private void write(File file, byte[] content) throws IOException {
+    if(!directory.exists() && !directory.mkdirs()) {
+      throw new IOException("Cannot create directory " + directory.getPath());
+    }
+    File temp = new File(directory, file.getName() + ".tmp");
+    Files.write(temp.toPath(), content);
+    try {
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch(AtomicMoveNotSupportedException exception) {
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static void collectWorlds(Iterable<Location> locations, List<World> worlds) {
+    for(Location location : locations) {
+      if(location.getWorld() == null) {
+        throw new IllegalArgumentException("Location " + location + " has no world");
+      }
+      if(!worlds.contains(location.getWorld())) {
+        worlds.add(location.getWorld());
+      }
+    }
+  }
+
+  private static void writeLocation(DataOutputStream output, Location location, List<World> worlds) throws IOException {
+    output.writeShort(worlds.indexOf(location.getWorld()));
+    output.writeDouble(location.getX());
+    output.writeDouble(location.getY());
+    output.writeDouble(location.getZ());
+    output.writeFloat(location.getYaw());
+    output.writeFloat(location.getPitch());
+  }
+
+  private static Location readLocation(ByteBuffer buffer, World[] worlds) {
+    World world = worlds[buffer.getShort()];
+    return new Location(world, buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getFloat(), buffer.getFloat());
+  }
+
+  /**
+   * Zombie spawns, villager spawns and doors of an arena in configuration order.
+   */
+  public static final class Layout {
+
+    private final List<Location> zombieSpawns = new ArrayList<>();
+    private final List<Location> villagerSpawns = new ArrayList<>();
+    private final Map<Location, Byte> doors = new LinkedHashMap<>();
+
+    public List<Location> getZombieSpawns() {
+      return zombieSpawns;
+    }
+
+    public List<Location> getVillagerSpawns() {
+      return villagerSpawns;
+    }
+
+    public Map<Location, Byte> getDoors() {
+      return doors;
+    }
+
+  }
+
+}
@@ -50,6 +50,16 @@ public class ArenaManager extends PluginArenaManager {
     this.plugin = plugin;
   }
 
+  /**
+   * Registers periodic in game arena jobs, every arena runs them in its own tick phase.
+   *
+   * @param scheduler scheduler to register jobs in
+   */
+  public void registerTickJobs(ArenaTickScheduler scheduler) {
+    scheduler.scheduleForInGameArenas("glitch-check", 1, arena -> arena.getEnemySpawnManager().spawnGlitchCheck());
+    scheduler.scheduleForInGameArenas("enemy-spawn", 20, arena -> arena.getEnemySpawnManager().processSpawnRequest());
+  }
+
   @Override
   public void additionalSpectatorSettings(Player player, IPluginArena arena) {
     super.additionalSpectatorSettings(player, arena);
@@ -65,6 +75,9 @@ public class ArenaManager extends PluginArenaManager {
           .forEach(IronGolem::remove);
     }
     super.leaveAttempt(player, arena);
+    if(plugin.getCreeperAttackMode() != null) {
+      plugin.getCreeperAttackMode().getArenaManager().handlePlayerLeave(player);
+    }
   }
 
   @Override
@@ -115,7 +128,7 @@ public class ArenaManager extends PluginArenaManager {
     }
 
     arena.setTimer(plugin.getConfig().getInt("Time-Manager.Cooldown-Before-Next-Wave", 25));
-    arena.getEnemySpawnManager().getEnemyCheckerLocations().clear();
+    arena.getEnemySpawnManager().resetGlitchChecks();
     arena.setWave(wave + 1);
 
     Bukkit.getPluginManager().callEvent(new VillageWaveEndEvent(arena, arena.getWave()));
@@ -155,7 +168,7 @@ public class ArenaManager extends PluginArenaManager {
    */
   public void startWave(@NotNull Arena arena) {
     plugin.getDebugger().debug("[{0}] Wave start event called", arena.getId());
-    long start = System.currentTimeMillis();
+    long start = System.nanoTime();
 
     int wave = arena.getWave();
 
@@ -164,6 +177,16 @@ public class ArenaManager extends PluginArenaManager {
     int zombiesAmount = (int) Math.ceil((arena.getPlayers().size() * 0.5) * (wave * wave) / 2);
     int maxzombies = plugin.getConfig().getInt("Limit.Spawn.Creatures", 75);
 
+    int hordeFactor = 1;
+    if(zombiesAmount > maxzombies && plugin.getConfig().getBoolean("Performance.Compressed-Horde.Enabled", false)) {
+      //each enemy stands for several zombies, the entity count stays under the limit
+      int maxFactor = Math.max(1, plugin.getConfig().getInt("Performance.Compressed-Horde.Max-Factor", 8));
+      hordeFactor = Math.min(maxFactor, (int) Math.ceil((double) zombiesAmount / maxzombies));
+      plugin.getDebugger().debug("[{0}] Compressing horde of wave {1}, one enemy stands for {2} zombies", arena.getId(), wave, hordeFactor);
+    }
+    arena.setArenaOption("HORDE_FACTOR", hordeFactor);
+    maxzombies *= hordeFactor;
+
     if(zombiesAmount > maxzombies) {
       int multiplier = (int) Math.ceil((zombiesAmount - (double) maxzombies) / plugin.getConfig().getInt("Creatures.Multiplier-Divider", 18));
 
@@ -176,7 +199,10 @@ public class ArenaManager extends PluginArenaManager {
 
       zombiesAmount = maxzombies;
     }
+    //whole enemies only, otherwise the rest of the wave could never be spawned
+    zombiesAmount -= zombiesAmount % hordeFactor;
 
+    //spawn plans are paced by the spawn throttle, the idle applies to spawning without a plan
     int zombieIdle = (int) Math.floor((double) wave / 15);
 
     arena.setArenaOption("ZOMBIES_TO_SPAWN", zombiesAmount);
@@ -186,6 +212,10 @@ public class ArenaManager extends PluginArenaManager {
       plugin.getDebugger().debug("[{0}] Spawn idle process initiated to prevent server overload! Value: {1}", arena.getId(), zombieIdle);
     }
 
+    long seed = plugin.getRandom().nextLong();
+    arena.getEnemySpawnManager().compileSpawnPlan(seed);
+    plugin.getDebugger().debug("[{0}] Compiled spawn plan of wave {1} with seed {2}", arena.getId(), wave, Long.toString(seed));
+
     if(plugin.getConfigPreferences().getOption("RESPAWN_AFTER_WAVE")) {
       ArenaUtils.bringDeathPlayersBack(arena);
     }
@@ -202,7 +232,9 @@ public class ArenaManager extends PluginArenaManager {
       new MessageBuilder("IN_GAME_MESSAGES_VILLAGE_WAVE_STARTED").asKey().arena(arena).integer(wave).player(player).sendPlayer();
     }
 
-    plugin.getDebugger().debug("[{0}] Wave start event finished took {1}ms", arena.getId(), System.currentTimeMillis() - start);
+    long took = System.nanoTime() - start;
+    plugin.getMetricsRegistry().record("wave-start", arena, took);
+    plugin.getDebugger().debug("[{0}] Wave start event finished took {1}ms", arena.getId(), took / 1_000_000);
   }
 
 }
@@ -19,10 +19,12 @@
 package plugily.projects.villagedefense.arena;
 
 import org.bukkit.Difficulty;
+import org.bukkit.Location;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import plugily.projects.minigamesbox.api.arena.IArenaState;
 import plugily.projects.minigamesbox.api.arena.IPluginArena;
 import plugily.projects.minigamesbox.classic.arena.PluginArena;
 import plugily.projects.minigamesbox.classic.arena.PluginArenaRegistry;
@@ -30,8 +32,12 @@ import plugily.projects.minigamesbox.classic.handlers.language.MessageBuilder;
 import plugily.projects.minigamesbox.classic.utils.serialization.LocationSerializer;
 import plugily.projects.villagedefense.Main;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Created by Tom on 27/07/2014.
@@ -39,10 +45,49 @@ import java.util.List;
 public class ArenaRegistry extends PluginArenaRegistry {
 
   private final Main plugin;
+  private final ArenaLayoutCache layoutCache;
+  //copy-on-write snapshots, rebuilt only when arenas or their in game state change
+  private volatile List<Arena> arenaSnapshot = Collections.emptyList();
+  private volatile List<Arena> inGameArenas = Collections.emptyList();
+  private volatile Map<Arena, Integer> arenaIndexes = Collections.emptyMap();
+  private volatile boolean snapshotDirty = true;
+  private int cachedLayouts;
 
   public ArenaRegistry(Main plugin) {
     super(plugin);
     this.plugin = plugin;
+    this.layoutCache = new ArenaLayoutCache(plugin);
+  }
+
+  @Override
+  public void registerArenas() {
+    //previous instances are dropped on reload, release what they registered in the lifecycle bus
+    for(Arena arena : getPluginArenas()) {
+      arena.unregisterLifecycle();
+    }
+    cachedLayouts = 0;
+    long start = System.nanoTime();
+    super.registerArenas();
+    long nanos = System.nanoTime() - start;
+    snapshotDirty = true;
+    plugin.getMetricsRegistry().record("arena-registration", null, nanos);
+    plugin.getDebugger().debug("Registered {0} arenas in {1}ms, {2} layouts loaded from cache",
+        getPluginArenas().size(), nanos / 1_000_000, cachedLayouts);
+  }
+
+  @Override
+  public void registerArena(@NotNull IPluginArena arena) {
+    super.registerArena(arena);
+    snapshotDirty = true;
+  }
+
+  @Override
+  public void unregisterArena(@NotNull IPluginArena arena) {
+    super.unregisterArena(arena);
+    snapshotDirty = true;
+    if(arena instanceof Arena) {
+      ((Arena) arena).unregisterLifecycle();
+    }
   }
 
 
@@ -61,41 +106,74 @@ public class ArenaRegistry extends PluginArenaRegistry {
       return false;
     }
 
+    //file key is taken per arena, setup may save arenas.yml between registrations
+    long layoutSourceKey = ArenaLayoutCache.sourceKey(new File(plugin.getDataFolder(), "arenas.yml"));
+    boolean useLayoutCache = layoutSourceKey != 0 && plugin.getConfig().getBoolean("Performance.Arena-Layout-Cache", true);
+    ArenaLayoutCache.Layout layout = useLayoutCache ? layoutCache.load(id, layoutSourceKey) : null;
+    if(layout == null) {
+      layout = parseLayout(section, arena, id);
+      if(layout == null) {
+        return false;
+      }
+      if(useLayoutCache) {
+        layoutCache.save(id, layoutSourceKey, layout);
+      }
+    } else {
+      cachedLayouts++;
+      plugin.getDebugger().debug("Arena {0} layout loaded from cache", id);
+    }
+
+    for(Location location : layout.getZombieSpawns()) {
+      ((Arena) arena).addZombieSpawn(location);
+    }
+    //optional weights in the same order as zombie spawns
+    List<Double> zombieSpawnWeights = section.getDoubleList(id + ".zombiespawnweights");
+    for(int i = 0; i < zombieSpawnWeights.size() && i < layout.getZombieSpawns().size(); i++) {
+      ((Arena) arena).getSpawnPointSelector().setWeight(i, zombieSpawnWeights.get(i));
+    }
+    for(Location location : layout.getVillagerSpawns()) {
+      ((Arena) arena).addVillagerSpawn(location);
+    }
+    for(Map.Entry<Location, Byte> door : layout.getDoors().entrySet()) {
+      ((Arena) arena).getMapRestorerManager().addDoor(door.getKey(), door.getValue());
+    }
+
+    if(arena.getStartLocation().getWorld().getDifficulty() == Difficulty.PEACEFUL) {
+      plugin.getDebugger().sendConsoleMsg(new MessageBuilder("VALIDATOR_INVALID_ARENA_CONFIGURATION").asKey().value("THERE IS A WRONG " +
+          "DIFFICULTY -> SET IT TO ANOTHER ONE THAN PEACEFUL - WE SET IT TO EASY").arena(arena).build());
+      arena.getStartLocation().getWorld().setDifficulty(Difficulty.EASY);
+    }
+    return true;
+  }
+
+  @Nullable
+  private ArenaLayoutCache.Layout parseLayout(ConfigurationSection section, PluginArena arena, String id) {
     List<String> zombieSection = section.getStringList(id + ".zombiespawns");
     if(zombieSection.isEmpty()) {
       plugin.getDebugger().sendConsoleMsg(new MessageBuilder("VALIDATOR_INVALID_ARENA_CONFIGURATION").asKey().value("ZOMBIE SPAWNS").arena(arena).build());
-      return false;
-    } else {
-      for(String string : zombieSection) {
-        ((Arena) arena).addZombieSpawn(LocationSerializer.getLocation(string));
-      }
+      return null;
     }
 
     List<String> villagerSection = section.getStringList(id + ".villagerspawns");
     if(villagerSection.isEmpty()) {
       plugin.getDebugger().sendConsoleMsg(new MessageBuilder("VALIDATOR_INVALID_ARENA_CONFIGURATION").asKey().value("VILLAGER SPAWNS").arena(arena).build());
-      return false;
-    } else {
-      for(String string : villagerSection) {
-        ((Arena) arena).addVillagerSpawn(LocationSerializer.getLocation(string));
-      }
+      return null;
     }
 
+    ArenaLayoutCache.Layout layout = new ArenaLayoutCache.Layout();
+    for(String string : zombieSection) {
+      layout.getZombieSpawns().add(LocationSerializer.getLocation(string));
+    }
+    for(String string : villagerSection) {
+      layout.getVillagerSpawns().add(LocationSerializer.getLocation(string));
+    }
     ConfigurationSection doorSection = section.getConfigurationSection(id + ".doors");
     if(doorSection != null) {
       for(String string : doorSection.getKeys(false)) {
-        ((Arena) arena).getMapRestorerManager().addDoor(LocationSerializer.getLocation(doorSection.getString(string + ".location")),
-            (byte) doorSection.getInt(string + ".byte"));
+        layout.getDoors().put(LocationSerializer.getLocation(doorSection.getString(string + ".location")), (byte) doorSection.getInt(string + ".byte"));
       }
     }
-
-
-    if(arena.getStartLocation().getWorld().getDifficulty() == Difficulty.PEACEFUL) {
-      plugin.getDebugger().sendConsoleMsg(new MessageBuilder("VALIDATOR_INVALID_ARENA_CONFIGURATION").asKey().value("THERE IS A WRONG " +
-          "DIFFICULTY -> SET IT TO ANOTHER ONE THAN PEACEFUL - WE SET IT TO EASY").arena(arena).build());
-      arena.getStartLocation().getWorld().setDifficulty(Difficulty.EASY);
-    }
-    return true;
+    return layout;
   }
 
   @Override
@@ -116,13 +194,85 @@ public class ArenaRegistry extends PluginArenaRegistry {
     return null;
   }
 
+  /**
+   * Get all registered Village Defense arenas.
+   * Returned list is an immutable snapshot which is rebuilt only
+   * when arenas are registered, removed or reloaded, do not modify it.
+   *
+   * @return immutable list of registered arenas
+   */
   public @NotNull List<Arena> getPluginArenas() {
-    List<Arena> arenas = new ArrayList<>();
-    for(IPluginArena pluginArena : super.getArenas()) {
+    if(snapshotDirty) {
+      rebuildArenaSnapshot();
+    }
+    return arenaSnapshot;
+  }
+
+  /**
+   * Get arenas which are currently in IN_GAME state.
+   * View is updated by the arena on every state change.
+   *
+   * @return immutable list of arenas in game
+   * @see #updateInGameState(Arena)
+   */
+  public @NotNull List<Arena> inGameArenas() {
+    return inGameArenas;
+  }
+
+  /**
+   * Updates in game view for given arena, called whenever arena state changes.
+   * The view is only rebuilt when arena membership actually changes.
+   *
+   * @param arena arena which state handler was called
+   */
+  public void updateInGameState(Arena arena) {
+    boolean inGame = arena.getArenaState() == IArenaState.IN_GAME;
+    if(inGame == inGameArenas.contains(arena)) {
+      return;
+    }
+    List<Arena> arenas = new ArrayList<>(inGameArenas);
+    if(inGame) {
+      arenas.add(arena);
+    } else {
+      arenas.remove(arena);
+    }
+    inGameArenas = Collections.unmodifiableList(arenas);
+  }
+
+  /**
+   * Get stable index of the arena in registration order, used to spread
+   * arena jobs across tick phases.
+   *
+   * @param arena arena to look up
+   * @return index of the arena or -1 if it is not registered
+   * @see ArenaTickScheduler
+   */
+  public int getArenaIndex(Arena arena) {
+    if(snapshotDirty) {
+      rebuildArenaSnapshot();
+    }
+    Integer index = arenaIndexes.get(arena);
+    return index == null ? -1 : index;
+  }
+
+  private void rebuildArenaSnapshot() {
+    snapshotDirty = false;
+    List<IPluginArena> pluginArenas = super.getArenas();
+    List<Arena> arenas = new ArrayList<>(pluginArenas.size());
+    for(IPluginArena pluginArena : pluginArenas) {
       if(pluginArena instanceof Arena) {
         arenas.add((Arena) pluginArena);
       }
     }
-    return arenas;
+    Map<Arena, Integer> indexes = new IdentityHashMap<>(arenas.size());
+    for(int i = 0; i < arenas.size(); i++) {
+      indexes.put(arenas.get(i), i);
+    }
+    arenaSnapshot = Collections.unmodifiableList(arenas);
+    arenaIndexes = indexes;
+
+    List<Arena> inGame = new ArrayList<>(inGameArenas);
+    inGame.retainAll(arenas);
+    inGameArenas = Collections.unmodifiableList(inGame);
   }
 }
@@ -0,0 +1,243 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.arena;
+
+import org.bukkit.scheduler.BukkitRunnable;
+import plugily.projects.villagedefense.Main;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Single tick driver for every periodic per-arena job.
+ * <p>
+ * Arenas are spread across tick phases, arena with registry index i runs a job
+ * with period N on ticks where tick mod N equals i mod N so arenas do not all
+ * fire on the same tick. Due jobs are executed until the per tick budget
+ * (Performance.Tick-Budget-Ms) is exhausted, remaining work is carried over
+ * to the next tick before any newly due job.
+ */
+public class ArenaTickScheduler extends BukkitRunnable {
+
+  private final Main plugin;
+  private final long budgetNanos;
+  private final List<Job> jobs = new ArrayList<>();
+  private final List<Job> pendingJobs = new ArrayList<>();
+  private final ArrayDeque<Task> dueTasks = new ArrayDeque<>();
+  private long currentTick;
+  private int nextJobId;
+  private int carriedOver;
+
+  public ArenaTickScheduler(Main plugin) {
+    this.plugin = plugin;
+    this.budgetNanos = Math.max(1, plugin.getConfig().getInt("Performance.Tick-Budget-Ms", 10)) * 1_000_000L;
+    runTaskTimer(plugin, 1, 1);
+  }
+
+  /**
+   * Schedules a job for a single arena.
+   *
+   * @param name   name of the job used for debugging
+   * @param arena  arena the job belongs to, its index decides tick phase
+   * @param period period in ticks
+   * @param task   job to run
+   * @return job handle which must be cancelled when not needed anymore
+   */
+  public Job schedule(String name, Arena arena, long period, Runnable task) {
+    return addJob(new Job(nextJobId++, name, period, arena, task, null));
+  }
+
+  /**
+   * Schedules a job run separately for every arena in IN_GAME state.
+   * Each arena is called in its own tick phase.
+   *
+   * @param name   name of the job used for debugging
+   * @param period period in ticks
+   * @param task   job to run for each arena in game
+   * @return job handle
+   * @see ArenaRegistry#inGameArenas()
+   */
+  public Job scheduleForInGameArenas(String name, long period, Consumer<Arena> task) {
+    return addJob(new Job(nextJobId++, name, period, null, null, task));
+  }
+
+  private Job addJob(Job job) {
+    pendingJobs.add(job);
+    return job;
+  }
+
+  @Override
+  public void run() {
+    currentTick++;
+    if(!pendingJobs.isEmpty()) {
+      jobs.addAll(pendingJobs);
+      pendingJobs.clear();
+    }
+    Iterator<Job> iterator = jobs.iterator();
+    while(iterator.hasNext()) {
+      Job job = iterator.next();
+      if(job.cancelled) {
+        iterator.remove();
+        continue;
+      }
+      job.collectDue(this);
+    }
+    carriedOver = 0;
+    long deadline = System.nanoTime() + budgetNanos;
+    boolean first = true;
+    while(!dueTasks.isEmpty()) {
+      if(!first && System.nanoTime() >= deadline) {
+        carriedOver = dueTasks.size();
+        break;
+      }
+      first = false;
+      Task task = dueTasks.poll();
+      task.queued = false;
+      if(task.job.cancelled) {
+        continue;
+      }
+      long taskStart = System.nanoTime();
+      try {
+        task.run();
+      } catch(Exception exception) {
+        plugin.getLogger().log(Level.WARNING, "Arena tick job " + task.job.name + " failed", exception);
+      }
+      plugin.getMetricsRegistry().record(task.job.name, task.arena, System.nanoTime() - taskStart);
+    }
+    if(carriedOver > 0) {
+      plugin.getMetricsRegistry().counter("scheduler.carried-over").add(carriedOver);
+    }
+  }
+
+  private boolean isDue(Arena arena, long period) {
+    if(period <= 1) {
+      return true;
+    }
+    int index = plugin.getArenaRegistry().getArenaIndex(arena);
+    return currentTick % period == Math.max(index, 0) % period;
+  }
+
+  private void enqueue(Task task) {
+    //task still waiting from previous tick, do not run it twice
+    if(task.queued) {
+      return;
+    }
+    task.queued = true;
+    dueTasks.add(task);
+  }
+
+  public long getCurrentTick() {
+    return currentTick;
+  }
+
+  /**
+   * @return amount of tasks which did not fit into the budget of last tick
+   */
+  public int getCarriedOver() {
+    return carriedOver;
+  }
+
+  public int getJobsAmount() {
+    return jobs.size() + pendingJobs.size();
+  }
+
+  public static final class Job {
+
+    private final int id;
+    private final String name;
+    private final long period;
+    private final Task singleTask;
+    private final Consumer<Arena> arenaTask;
+    private final Map<Arena, Task> arenaTasks;
+    private volatile boolean cancelled;
+
+    private Job(int id, String name, long period, Arena arena, Runnable task, Consumer<Arena> arenaTask) {
+      this.id = id;
+      this.name = name;
+      this.period = Math.max(1, period);
+      this.arenaTask = arenaTask;
+      this.singleTask = arena == null ? null : new Task(this, arena, task);
+      this.arenaTasks = arenaTask == null ? null : new IdentityHashMap<>();
+    }
+
+    private void collectDue(ArenaTickScheduler scheduler) {
+      if(singleTask != null) {
+        if(scheduler.isDue(singleTask.arena, period)) {
+          scheduler.enqueue(singleTask);
+        }
+        return;
+      }
+      List<Arena> arenas = scheduler.plugin.getArenaRegistry().inGameArenas();
+      if(arenaTasks.size() > arenas.size()) {
+        arenaTasks.keySet().retainAll(arenas);
+      }
+      for(int i = 0; i < arenas.size(); i++) {
+        Arena arena = arenas.get(i);
+        if(scheduler.isDue(arena, period)) {
+          scheduler.enqueue(arenaTasks.computeIfAbsent(arena, key -> new Task(this, key, null)));
+        }
+      }
+    }
+
+    public void cancel() {
+      cancelled = true;
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+  private static final class Task {
+
+    private final Job job;
+    private final Arena arena;
+    private final Runnable runnable;
+    private boolean queued;
+
+    private Task(Job job, Arena arena, Runnable runnable) {
+      this.job = job;
+      this.arena = arena;
+      this.runnable = runnable;
+    }
+
+    private void run() {
+      if(runnable != null) {
+        runnable.run();
+      } else {
+        job.arenaTask.accept(arena);
+      }
+    }
+  }
+
+}
@@ -28,6 +28,7 @@ import plugily.projects.minigamesbox.classic.handlers.language.MessageBuilder;
 import plugily.projects.minigamesbox.api.user.IUser;
 import plugily.projects.minigamesbox.classic.utils.version.VersionUtils;
 import plugily.projects.villagedefense.api.event.player.VillagePlayerRespawnEvent;
+import plugily.projects.villagedefense.handlers.effect.EffectDispatcher;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -96,14 +97,12 @@ public class ArenaUtils extends PluginArenaUtils {
         toRemove.remove(0);
       }
     }
-    arena.getEnemies().removeAll(toRemove);
+    arena.removeEnemies(toRemove);
 
-    boolean eachThree = toRemove.size() > 70;
-    for(int i = 0; i < toRemove.size(); i++) {
-      Creature creature = toRemove.get(i);
-      if(!eachThree || (i % 3) == 0) {
-        VersionUtils.sendParticles("LAVA", arena.getPlayers(), creature.getLocation(), 20);
-      }
+    //effects are coalesced per block and limited by the dispatcher budgets
+    EffectDispatcher effectDispatcher = arena.getPlugin().getEffectDispatcher();
+    for(Creature creature : toRemove) {
+      effectDispatcher.particle("LAVA", arena, creature.getLocation(), 20);
       creature.remove();
     }
   }
@@ -0,0 +1,135 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena;
+
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Single place where per entity state learns about entity spawn, death and removal.
+ * <p>
+ * Every cache keeping data per entity subscribes here and frees the data on
+ * {@link Phase#DEATH} or {@link Phase#REMOVE}, so nothing has to wait for a wave end
+ * or a game stop to be cleaned. Subscribers are keyed, subscribing again with
+ * the same key replaces the previous subscriber e.g. after an arena reload.
+ * Caches also register their size here to be listed by /vda debug memory.
+ */
+public class EntityLifecycleBus {
+
+  private final Map<String, Subscriber> subscribers = new LinkedHashMap<>();
+  private final Map<String, IntSupplier> caches = new TreeMap<>();
+  private Subscriber[] snapshot = new Subscriber[0];
+
+  public void subscribe(String key, Subscriber subscriber) {
+    subscribers.put(key, subscriber);
+    snapshot = subscribers.values().toArray(new Subscriber[0]);
+  }
+
+  public void unsubscribe(String key) {
+    if(subscribers.remove(key) != null) {
+      snapshot = subscribers.values().toArray(new Subscriber[0]);
+    }
+  }
+
+  /**
+   * Removes the subscriber only if it is still the one registered under the key,
+   * so an old instance does not remove the subscriber of its replacement.
+   *
+   * @param key        key the subscriber was registered with
+   * @param subscriber subscriber to remove
+   */
+  public void unsubscribe(String key, Subscriber subscriber) {
+    if(subscribers.remove(key, subscriber)) {
+      snapshot = subscribers.values().toArray(new Subscriber[0]);
+    }
+  }
+
+  /**
+   * Notifies every subscriber about the lifecycle change of the entity.
+   *
+   * @param entity entity which changed
+   * @param arena  arena owning the entity or null if it is not owned by any arena
+   * @param phase  lifecycle phase the entity entered
+   */
+  public void fire(Entity entity, @Nullable Arena arena, Phase phase) {
+    Subscriber[] current = snapshot;
+    for(Subscriber subscriber : current) {
+      subscriber.onLifecycle(entity, arena, phase);
+    }
+  }
+
+  /**
+   * Registers size of a per entity cache to be reported by /vda debug memory.
+   *
+   * @param name name of the cache, registering same name again replaces it
+   * @param size supplier of the current amount of entries
+   */
+  public void registerCache(String name, IntSupplier size) {
+    caches.put(name, size);
+  }
+
+  public void unregisterCache(String name) {
+    caches.remove(name);
+  }
+
+  /**
+   * Removes the cache only if it is still the one registered under the name.
+   *
+   * @param name name the cache was registered with
+   * @param size size supplier of the cache to remove
+   * @see #unsubscribe(String, Subscriber)
+   */
+  public void unregisterCache(String name, IntSupplier size) {
+    caches.remove(name, size);
+  }
+
+  /**
+   * @return current size of every registered cache sorted by cache name
+   */
+  public Map<String, Integer> getCacheSizes() {
+    Map<String, Integer> sizes = new LinkedHashMap<>();
+    for(Map.Entry<String, IntSupplier> entry : caches.entrySet()) {
+      sizes.put(entry.getKey(), entry.getValue().getAsInt());
+    }
+    return Collections.unmodifiableMap(sizes);
+  }
+
+  public int getSubscribersAmount() {
+    return snapshot.length;
+  }
+
+  public enum Phase {
+    SPAWN, DEATH, REMOVE
+  }
+
+  @FunctionalInterface
+  public interface Subscriber {
+
+    void onLifecycle(Entity entity, @Nullable Arena arena, Phase phase);
+
+  }
+
+}
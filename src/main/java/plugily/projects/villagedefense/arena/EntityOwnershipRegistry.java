@@ -0,0 +1,150 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.arena;
+
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reverse lookup from entity to the arena owning it.
+ * <p>
+ * Listeners resolve ownership with a single hash lookup instead of
+ * looping over every arena and testing membership of its entity lists.
+ * Entries are keyed by entity id which is unique for the server lifetime.
+ * First registration of an entity fires {@link EntityLifecycleBus.Phase#SPAWN}
+ * and its removal fires {@link EntityLifecycleBus.Phase#REMOVE} on the lifecycle bus.
+ */
+public class EntityOwnershipRegistry {
+
+  private final Map<Integer, Ownership> owners = new HashMap<>();
+  private final EntityLifecycleBus lifecycleBus;
+
+  public EntityOwnershipRegistry() {
+    this(new EntityLifecycleBus());
+  }
+
+  public EntityOwnershipRegistry(EntityLifecycleBus lifecycleBus) {
+    this.lifecycleBus = lifecycleBus;
+    lifecycleBus.registerCache("entity-ownership", owners::size);
+  }
+
+  public void register(Entity entity, Arena arena, EntityRole role) {
+    if(owners.put(entity.getEntityId(), new Ownership(entity, arena, role)) == null) {
+      lifecycleBus.fire(entity, arena, EntityLifecycleBus.Phase.SPAWN);
+    }
+  }
+
+  public void unregister(Entity entity) {
+    Ownership ownership = owners.remove(entity.getEntityId());
+    if(ownership != null) {
+      lifecycleBus.fire(entity, ownership.arena, EntityLifecycleBus.Phase.REMOVE);
+    }
+  }
+
+  /**
+   * Drops every entry owned by given arena, used on arena restart.
+   *
+   * @param arena arena to clear
+   */
+  public void unregisterAll(Arena arena) {
+    List<Ownership> removed = new ArrayList<>();
+    Iterator<Ownership> iterator = owners.values().iterator();
+    while(iterator.hasNext()) {
+      Ownership ownership = iterator.next();
+      if(ownership.arena == arena) {
+        iterator.remove();
+        removed.add(ownership);
+      }
+    }
+    //fired after the pass so subscribers may query the registry
+    for(Ownership ownership : removed) {
+      lifecycleBus.fire(ownership.entity, arena, EntityLifecycleBus.Phase.REMOVE);
+    }
+  }
+
+  @Nullable
+  public Ownership getOwnership(@Nullable Entity entity) {
+    return entity == null ? null : owners.get(entity.getEntityId());
+  }
+
+  @Nullable
+  public Arena getArena(@Nullable Entity entity) {
+    Ownership ownership = getOwnership(entity);
+    return ownership == null ? null : ownership.arena;
+  }
+
+  /**
+   * Get arena owning the entity in given role.
+   *
+   * @param entity entity to look up
+   * @param role   expected role
+   * @return owning arena or null if entity is not tracked with that role
+   */
+  @Nullable
+  public Arena getArena(@Nullable Entity entity, EntityRole role) {
+    Ownership ownership = getOwnership(entity);
+    return ownership == null || ownership.role != role ? null : ownership.arena;
+  }
+
+  @Nullable
+  public EntityRole getRole(@Nullable Entity entity) {
+    Ownership ownership = getOwnership(entity);
+    return ownership == null ? null : ownership.role;
+  }
+
+  public int size() {
+    return owners.size();
+  }
+
+  public EntityLifecycleBus getLifecycleBus() {
+    return lifecycleBus;
+  }
+
+  public static final class Ownership {
+
+    private final Entity entity;
+    private final Arena arena;
+    private final EntityRole role;
+
+    private Ownership(Entity entity, Arena arena, EntityRole role) {
+      this.entity = entity;
+      this.arena = arena;
+      this.role = role;
+    }
+
+    public Entity getEntity() {
+      return entity;
+    }
+
+    public Arena getArena() {
+      return arena;
+    }
+
+    public EntityRole getRole() {
+      return role;
+    }
+  }
+
+}
@@ -0,0 +1,31 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.arena;
+
+/**
+ * Role of an entity tracked by an arena.
+ * CA_CREEPER and TRADER are used by the Creeper Attack mode only,
+ * EXPLOSIVE marks TNT primed by busters until it explodes.
+ *
+ * @see Arena#getEntityRole(org.bukkit.entity.Entity)
+ * @see EntityOwnershipRegistry
+ */
+public enum EntityRole {
+  ENEMY, VILLAGER, GOLEM, WOLF, CA_CREEPER, TRADER, EXPLOSIVE
+}
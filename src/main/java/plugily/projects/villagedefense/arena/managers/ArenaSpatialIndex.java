@@ -0,0 +1,240 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.arena.managers;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.LivingEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.EntityRole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid over the creatures tracked by an arena (enemies, villagers, golems and wolves).
+ * <p>
+ * Cells are only built over the x/z plane, each entity is stored as a sortable
+ * long (cell key in the upper 48 bits, entity slot in the lower 16 bits) so a cell
+ * lookup is a binary search followed by a linear run. The grid is rebuilt lazily
+ * at most once per server tick from the tracked arena lists.
+ */
+public class ArenaSpatialIndex {
+
+  private static final long REFRESH_INTERVAL_NANOS = 50_000_000L;
+  private static final int SLOT_BITS = 16;
+  private static final int MAX_ENTITIES = 1 << SLOT_BITS;
+  private static final long CELL_COORD_MASK = 0xFFFFFFL;
+
+  private final Arena arena;
+  private final double cellSize;
+  private final Location scratch = new Location(null, 0, 0, 0);
+
+  private LivingEntity[] entities = new LivingEntity[64];
+  private EntityRole[] roles = new EntityRole[64];
+  private double[] xs = new double[64];
+  private double[] ys = new double[64];
+  private double[] zs = new double[64];
+  private long[] sorted = new long[64];
+  private int size;
+  private World world;
+  private long lastRefresh;
+  private boolean built;
+
+  public ArenaSpatialIndex(Arena arena) {
+    this.arena = arena;
+    this.cellSize = Math.max(1, arena.getPlugin().getConfig().getInt("Performance.Spatial-Index-Cell-Size", 4));
+  }
+
+  /**
+   * Rebuilds the grid from the tracked arena lists.
+   */
+  public void refresh() {
+    int previousSize = size;
+    size = 0;
+    world = arena.getStartLocation() == null ? null : arena.getStartLocation().getWorld();
+    addAll(arena.getEnemies(), EntityRole.ENEMY);
+    addAll(arena.getVillagers(), EntityRole.VILLAGER);
+    addAll(arena.getIronGolems(), EntityRole.GOLEM);
+    addAll(arena.getWolves(), EntityRole.WOLF);
+    if(previousSize > size) {
+      //release references to removed entities
+      Arrays.fill(entities, size, previousSize, null);
+    }
+    Arrays.sort(sorted, 0, size);
+    lastRefresh = System.nanoTime();
+    built = true;
+  }
+
+  /**
+   * Marks grid as outdated, next query will rebuild it.
+   */
+  public void invalidate() {
+    built = false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get arena entities in a sphere around the center.
+   *
+   * @param center center of the sphere
+   * @param radius radius of the sphere
+   * @param role   role entities must have or null for every tracked entity
+   * @return arena owned entities inside the sphere
+   */
+  @NotNull
+  public List<LivingEntity> getNearby(Location center, double radius, @Nullable EntityRole role) {
+    List<LivingEntity> result = new ArrayList<>();
+    query(center, radius, radius, radius, radius * radius, role, result);
+    return result;
+  }
+
+  /**
+   * Get arena entities inside an axis aligned box around the center.
+   *
+   * @param center center of the box
+   * @param dx     half size of the box on x axis
+   * @param dy     half size of the box on y axis
+   * @param dz     half size of the box on z axis
+   * @param role   role entities must have or null for every tracked entity
+   * @return arena owned entities inside the box
+   */
+  @NotNull
+  public List<LivingEntity> getWithin(Location center, double dx, double dy, double dz, @Nullable EntityRole role) {
+    List<LivingEntity> result = new ArrayList<>();
+    query(center, dx, dy, dz, -1, role, result);
+    return result;
+  }
+
+  /**
+   * Counts arena entities in a sphere around the center without collecting them.
+   *
+   * @param center center of the sphere
+   * @param radius radius of the sphere
+   * @param role   role entities must have or null for every tracked entity
+   * @return amount of arena owned entities inside the sphere
+   */
+  public int countNearby(Location center, double radius, @Nullable EntityRole role) {
+    return query(center, radius, radius, radius, radius * radius, role, null);
+  }
+
+  private int query(Location center, double dx, double dy, double dz, double radiusSquared, @Nullable EntityRole role, @Nullable List<LivingEntity> result) {
+    if(!built || System.nanoTime() - lastRefresh >= REFRESH_INTERVAL_NANOS) {
+      refresh();
+    }
+    if(size == 0 || (world != null && center.getWorld() != world)) {
+      return 0;
+    }
+    int found = 0;
+    double x = center.getX(), y = center.getY(), z = center.getZ();
+    int minCellX = cell(x - dx), maxCellX = cell(x + dx);
+    int minCellZ = cell(z - dz), maxCellZ = cell(z + dz);
+    for(int cellX = minCellX; cellX <= maxCellX; cellX++) {
+      for(int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+        long key = cellKey(cellX, cellZ);
+        for(int i = lowerBound(key << SLOT_BITS); i < size && (sorted[i] >>> SLOT_BITS) == key; i++) {
+          int slot = (int) (sorted[i] & (MAX_ENTITIES - 1));
+          if(role != null && roles[slot] != role) {
+            continue;
+          }
+          double offX = xs[slot] - x, offY = ys[slot] - y, offZ = zs[slot] - z;
+          if(radiusSquared >= 0) {
+            if(offX * offX + offY * offY + offZ * offZ > radiusSquared) {
+              continue;
+            }
+          } else if(Math.abs(offX) > dx || Math.abs(offY) > dy || Math.abs(offZ) > dz) {
+            continue;
+          }
+          LivingEntity entity = entities[slot];
+          //entity could die or be removed from the arena since last refresh
+          if(entity.isDead() || arena.getEntityRole(entity) != roles[slot]) {
+            continue;
+          }
+          found++;
+          if(result != null) {
+            result.add(entity);
+          }
+        }
+      }
+    }
+    return found;
+  }
+
+  private void addAll(List<? extends LivingEntity> list, EntityRole role) {
+    for(int i = 0; i < list.size(); i++) {
+      LivingEntity entity = list.get(i);
+      if(entity.isDead() || size >= MAX_ENTITIES) {
+        continue;
+      }
+      Location location = entity.getLocation(scratch);
+      if(world != null && location.getWorld() != world) {
+        continue;
+      }
+      ensureCapacity(size + 1);
+      entities[size] = entity;
+      roles[size] = role;
+      xs[size] = location.getX();
+      ys[size] = location.getY();
+      zs[size] = location.getZ();
+      sorted[size] = (cellKey(cell(location.getX()), cell(location.getZ())) << SLOT_BITS) | size;
+      size++;
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if(capacity <= entities.length) {
+      return;
+    }
+    int newCapacity = Math.min(MAX_ENTITIES, entities.length * 2);
+    entities = Arrays.copyOf(entities, newCapacity);
+    roles = Arrays.copyOf(roles, newCapacity);
+    xs = Arrays.copyOf(xs, newCapacity);
+    ys = Arrays.copyOf(ys, newCapacity);
+    zs = Arrays.copyOf(zs, newCapacity);
+    sorted = Arrays.copyOf(sorted, newCapacity);
+  }
+
+  private int lowerBound(long value) {
+    int low = 0, high = size;
+    while(low < high) {
+      int mid = (low + high) >>> 1;
+      if(sorted[mid] < value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private int cell(double coordinate) {
+    return (int) Math.floor(coordinate / cellSize);
+  }
+
+  private static long cellKey(int cellX, int cellZ) {
+    return ((cellX & CELL_COORD_MASK) << 24) | (cellZ & CELL_COORD_MASK);
+  }
+
+}
@@ -0,0 +1,157 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena.managers;
+
+import java.util.Arrays;
+
+/**
+ * Health of the arena doors indexed by door id of the {@link DoorIndex}.
+ * <p>
+ * Attackers are accumulated per door during a tick and applied in one pass,
+ * a door is only reported as changed when its crack stage changes or it breaks.
+ */
+public final class DoorHealth {
+
+  public static final int CRACK_STAGES = 10;
+
+  private final int maxHealth;
+  private final int[] health;
+  private final byte[] stages;
+  private final int[] attackers;
+  private final int[] attacked;
+  private int attackedCount;
+
+  public DoorHealth(int doors, int maxHealth) {
+    this.maxHealth = Math.max(1, maxHealth);
+    this.health = new int[doors];
+    this.stages = new byte[doors];
+    this.attackers = new int[doors];
+    this.attacked = new int[doors];
+    repairAll();
+  }
+
+  /**
+   * Counts an attacker of the door for the current tick.
+   *
+   * @param door door id
+   */
+  public void addAttacker(int door) {
+    if(attackers[door]++ == 0) {
+      attacked[attackedCount++] = door;
+    }
+  }
+
+  /**
+   * @return amount of doors which have attackers in the current tick
+   */
+  public int getAttackedCount() {
+    return attackedCount;
+  }
+
+  /**
+   * @param index index between 0 and {@link #getAttackedCount()}
+   * @return door id
+   */
+  public int getAttacked(int index) {
+    return attacked[index];
+  }
+
+  public int getAttackers(int door) {
+    return attackers[door];
+  }
+
+  /**
+   * Forgets attackers of the current tick.
+   */
+  public void clearAttackers() {
+    for(int i = 0; i < attackedCount; i++) {
+      attackers[attacked[i]] = 0;
+    }
+    attackedCount = 0;
+  }
+
+  /**
+   * Takes health of the door.
+   *
+   * @param door   door id
+   * @param amount health to take
+   * @return true if the door broke by this damage
+   */
+  public boolean damage(int door, int amount) {
+    if(health[door] <= 0) {
+      return false;
+    }
+    health[door] -= amount;
+    return health[door] <= 0;
+  }
+
+  /**
+   * Stores current crack stage of the door.
+   *
+   * @param door door id
+   * @return true if crack stage changed since last call
+   */
+  public boolean updateStage(int door) {
+    int stage = getStage(door);
+    if(stages[door] == stage) {
+      return false;
+    }
+    stages[door] = (byte) stage;
+    return true;
+  }
+
+  /**
+   * @return crack stage from 0 to 9 or -1 if the door is undamaged or broken
+   */
+  public int getStage(int door) {
+    if(health[door] <= 0 || health[door] >= maxHealth) {
+      return -1;
+    }
+    return (int) ((long) (maxHealth - health[door]) * CRACK_STAGES / maxHealth);
+  }
+
+  public int getHealth(int door) {
+    return health[door];
+  }
+
+  public boolean isBroken(int door) {
+    return health[door] <= 0;
+  }
+
+  public void breakDoor(int door) {
+    health[door] = 0;
+    stages[door] = -1;
+  }
+
+  public void repair(int door) {
+    health[door] = maxHealth;
+    stages[door] = -1;
+  }
+
+  public void repairAll() {
+    Arrays.fill(health, maxHealth);
+    Arrays.fill(stages, (byte) -1);
+  }
+
+  public int size() {
+    return health.length;
+  }
+
+}
@@ -0,0 +1,182 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena.managers;
+
+import org.bukkit.Location;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Index over the door blocks registered for an arena.
+ * <p>
+ * Every door block gets an id in registration order. Block positions are packed
+ * into longs and stored in an open addressing hash table for exact lookups, a coarse
+ * x/z grid (cell key in the upper 48 bits, door id in the lower 16 bits of a sorted long)
+ * answers which doors are around a position without touching any block.
+ */
+public final class DoorIndex {
+
+  private static final int ID_BITS = 16;
+  public static final int MAX_DOORS = 1 << ID_BITS;
+  private static final int CELL_SHIFT = 3;
+  private static final long EMPTY = Long.MIN_VALUE;
+  private static final long CELL_COORD_MASK = 0xFFFFFFL;
+
+  private final int[] xs;
+  private final int[] ys;
+  private final int[] zs;
+  private final long[] keys;
+  private final int[] ids;
+  private final long[] cells;
+
+  /**
+   * @param doors door block locations in registration order, only the first 65536 are indexed
+   */
+  public DoorIndex(Collection<Location> doors) {
+    int size = Math.min(doors.size(), MAX_DOORS);
+    xs = new int[size];
+    ys = new int[size];
+    zs = new int[size];
+    cells = new long[size];
+    int capacity = Integer.highestOneBit(Math.max(4, size * 2) - 1) << 1;
+    keys = new long[capacity];
+    ids = new int[capacity];
+    Arrays.fill(keys, EMPTY);
+    int id = 0;
+    for(Location door : doors) {
+      if(id == size) {
+        break;
+      }
+      xs[id] = door.getBlockX();
+      ys[id] = door.getBlockY();
+      zs[id] = door.getBlockZ();
+      insert(pack(xs[id], ys[id], zs[id]), id);
+      cells[id] = (cellKey(xs[id] >> CELL_SHIFT, zs[id] >> CELL_SHIFT) << ID_BITS) | id;
+      id++;
+    }
+    Arrays.sort(cells);
+  }
+
+  /**
+   * @return id of the door at given block or -1 if there is no registered door
+   */
+  public int getDoor(int x, int y, int z) {
+    long key = pack(x, y, z);
+    int mask = keys.length - 1;
+    for(int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+      if(keys[slot] == key) {
+        return ids[slot];
+      }
+      if(keys[slot] == EMPTY) {
+        return -1;
+      }
+    }
+  }
+
+  /**
+   * Collects doors in the cube of given radius around the block.
+   *
+   * @param x      block x
+   * @param y      block y
+   * @param z      block z
+   * @param radius cube radius in blocks
+   * @param result array the door ids are written to, doors over its length are not collected
+   * @return amount of collected doors
+   */
+  public int getDoorsAround(int x, int y, int z, int radius, int[] result) {
+    int found = 0;
+    if(cells.length == 0) {
+      return 0;
+    }
+    for(int cellX = (x - radius) >> CELL_SHIFT; cellX <= (x + radius) >> CELL_SHIFT; cellX++) {
+      for(int cellZ = (z - radius) >> CELL_SHIFT; cellZ <= (z + radius) >> CELL_SHIFT; cellZ++) {
+        long cell = cellKey(cellX, cellZ);
+        for(int i = lowerBound(cell << ID_BITS); i < cells.length && (cells[i] >>> ID_BITS) == cell; i++) {
+          int id = (int) (cells[i] & (MAX_DOORS - 1));
+          if(Math.abs(xs[id] - x) > radius || Math.abs(ys[id] - y) > radius || Math.abs(zs[id] - z) > radius) {
+            continue;
+          }
+          if(found == result.length) {
+            return found;
+          }
+          result[found++] = id;
+        }
+      }
+    }
+    return found;
+  }
+
+  public int getX(int door) {
+    return xs[door];
+  }
+
+  public int getY(int door) {
+    return ys[door];
+  }
+
+  public int getZ(int door) {
+    return zs[door];
+  }
+
+  public int size() {
+    return xs.length;
+  }
+
+  private void insert(long key, int id) {
+    int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    while(keys[slot] != EMPTY && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    ids[slot] = id;
+  }
+
+  private int lowerBound(long value) {
+    int low = 0, high = cells.length;
+    while(low < high) {
+      int mid = (low + high) >>> 1;
+      if(cells[mid] < value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Packs block position into 26 bits x, 12 bits y and 26 bits z.
+   */
+  public static long pack(int x, int y, int z) {
+    return ((long) (x & 0x3FFFFFF) << 38) | ((long) (y & 0xFFF) << 26) | (z & 0x3FFFFFF);
+  }
+
+  private static long cellKey(int cellX, int cellZ) {
+    return ((cellX & CELL_COORD_MASK) << 24) | (cellZ & CELL_COORD_MASK);
+  }
+
+  private static int hash(long key) {
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+}
@@ -19,16 +19,17 @@
 package plugily.projects.villagedefense.arena.managers;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
+import java.util.function.IntSupplier;
 import org.bukkit.Location;
 import org.bukkit.entity.Creature;
 import org.bukkit.entity.Villager;
+import org.jetbrains.annotations.Nullable;
 import plugily.projects.minigamesbox.classic.utils.version.VersionUtils;
 import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.EntityLifecycleBus;
+import plugily.projects.villagedefense.arena.managers.spawner.WaveSpawnPlan;
 
 /**
  * @author Plajer
@@ -36,13 +37,47 @@ import plugily.projects.villagedefense.arena.Arena;
  * Created at 06.01.2019
  */
 public class EnemySpawnManager {
+  //ticks between two glitch checks of an enemy
+  private static final int GLITCH_CHECK_TICKS = 60 * 20;
   private final Arena arena;
   private int localIdleProcess = 0;
-  private final List<Creature> glitchedEnemies = new ArrayList<>();
-  private final Map<Creature, Location> enemyCheckerLocations = new HashMap<>();
+  private boolean spawnRequested = false;
+  private WaveSpawnPlan spawnPlan;
+  private double cycleCredits;
+  private double skippedCycles;
+  //hashed timing wheel, enemy is checked when the cursor reaches the slot it was spawned in
+  @SuppressWarnings("unchecked")
+  private final List<Creature>[] glitchWheel = new List[GLITCH_CHECK_TICKS];
+  private final EntityPositionMap enemyPositions = new EntityPositionMap();
+  private final Location scratch = new Location(null, 0, 0, 0);
+  private int wheelCursor;
+  private final EntityLifecycleBus.Subscriber glitchSubscriber;
+  private final IntSupplier positionsCache = enemyPositions::size;
+  private final IntSupplier wheelCache = this::getGlitchWheelEntries;
 
   public EnemySpawnManager(Arena arena) {
     this.arena = arena;
+    this.glitchSubscriber = (entity, owner, phase) -> {
+      if(owner == arena && phase != EntityLifecycleBus.Phase.SPAWN) {
+        enemyPositions.remove(entity.getEntityId());
+      }
+    };
+    EntityLifecycleBus lifecycleBus = arena.getPlugin().getEntityLifecycleBus();
+    //keyed by arena id so a reloaded arena replaces the subscriber of its previous instance
+    lifecycleBus.subscribe("glitch-check:" + arena.getId(), glitchSubscriber);
+    lifecycleBus.registerCache(arena.getId() + ".glitch-positions", positionsCache);
+    lifecycleBus.registerCache(arena.getId() + ".glitch-wheel", wheelCache);
+  }
+
+  /**
+   * Removes the lifecycle subscriber and caches of this manager,
+   * called when the arena is removed from the registry.
+   */
+  public void unregister() {
+    EntityLifecycleBus lifecycleBus = arena.getPlugin().getEntityLifecycleBus();
+    lifecycleBus.unsubscribe("glitch-check:" + arena.getId(), glitchSubscriber);
+    lifecycleBus.unregisterCache(arena.getId() + ".glitch-positions", positionsCache);
+    lifecycleBus.unregisterCache(arena.getId() + ".glitch-wheel", wheelCache);
   }
 
   public void applyIdle(int idle) {
@@ -50,65 +85,223 @@ public class EnemySpawnManager {
   }
 
   /**
-   * Increments ZOMBIE_GLITCH_CHECKER value and attempts to check
-   * whether any enemies are glitched on spawn point when
-   * ZOMBIE_GLITCH_CHECKER value is higher or equal than 60
+   * Starts glitch checks of the enemy, it is checked every 60 seconds from now on.
+   *
+   * @param creature enemy spawned in the arena
+   */
+  public void trackEnemy(Creature creature) {
+    if(enemyPositions.find(creature.getEntityId()) >= 0) {
+      return;
+    }
+    Location location = creature.getLocation(scratch);
+    enemyPositions.put(creature.getEntityId(), location.getX(), location.getY(), location.getZ());
+    //slot visited last, the enemy is visited again after a full revolution
+    int slot = wheelCursor == 0 ? GLITCH_CHECK_TICKS - 1 : wheelCursor - 1;
+    List<Creature> bucket = glitchWheel[slot];
+    if(bucket == null) {
+      bucket = glitchWheel[slot] = new ArrayList<>();
+    }
+    bucket.add(creature);
+  }
+
+  /**
+   * Checks enemies which were spawned exactly a multiple of 60 seconds ago,
+   * called every tick so the checks of all enemies are spread over 60 seconds.
+   * Enemy which did not move by more than a block since its last check is teleported
+   * to a spawn point, if it is still stuck on its next check it is removed.
    * <p>
-   * Glitch checker also clean ups dead enemies and villagers from the arena
+   * Glitch checker also clean ups dead enemies and every 60 seconds dead villagers from the arena
    */
   public void spawnGlitchCheck() {
-    arena.changeArenaOptionBy("ZOMBIE_GLITCH_CHECKER", 1);
-    if(arena.getArenaOption("ZOMBIE_GLITCH_CHECKER") >= 60) {
-      Iterator<Villager> villagerIterator = arena.getVillagers().iterator();
-      while(villagerIterator.hasNext()) {
-        Villager villager = villagerIterator.next();
+    int slot = wheelCursor;
+    wheelCursor = slot + 1 == GLITCH_CHECK_TICKS ? 0 : slot + 1;
+    if(slot == 0) {
+      for(Villager villager : new ArrayList<>(arena.getVillagers())) {
         if(villager.isDead()) {
-          villagerIterator.remove();
           arena.removeVillager(villager);
         }
       }
-      arena.setArenaOption("ZOMBIE_GLITCH_CHECKER", 0);
-
-      Iterator<Creature> creatureIterator = arena.getEnemies().iterator();
-      while(creatureIterator.hasNext()) {
-        Creature creature = creatureIterator.next();
-        if(creature.isDead()) {
-          creatureIterator.remove();
-          arena.removeEnemy(creature);
-          continue;
-        }
-        if(glitchedEnemies.contains(creature) && creature.getLocation().distance(enemyCheckerLocations.get(creature)) <= 1) {
-          creatureIterator.remove();
-          arena.removeEnemy(creature);
-          enemyCheckerLocations.remove(creature);
-          creature.remove();
-        }
+    }
+    List<Creature> bucket = glitchWheel[slot];
+    if(bucket == null || bucket.isEmpty()) {
+      return;
+    }
+    int kept = 0;
+    for(int i = 0; i < bucket.size(); i++) {
+      Creature creature = bucket.get(i);
+      if(checkEnemy(creature)) {
+        bucket.set(kept++, creature);
+      }
+    }
+    bucket.subList(kept, bucket.size()).clear();
+  }
 
-        Location checkerLoc = enemyCheckerLocations.get(creature);
-        if(checkerLoc == null) {
-          enemyCheckerLocations.put(creature, creature.getLocation());
-        } else if(creature.getLocation().distance(checkerLoc) <= 1) {
-          VersionUtils.teleport(creature, arena.getRandomZombieSpawnLocation(arena.getPlugin().getRandom()));
-          enemyCheckerLocations.put(creature, creature.getLocation());
-          glitchedEnemies.add(creature);
-        }
+  /**
+   * @return false if the enemy does not need further checks
+   */
+  private boolean checkEnemy(Creature creature) {
+    int id = creature.getEntityId();
+    if(!arena.isEnemy(creature)) {
+      enemyPositions.remove(id);
+      return false;
+    }
+    if(creature.isDead()) {
+      arena.removeEnemy(creature);
+      enemyPositions.remove(id);
+      return false;
+    }
+    Location location = creature.getLocation(scratch);
+    int entry = enemyPositions.find(id);
+    if(entry < 0) {
+      enemyPositions.put(id, location.getX(), location.getY(), location.getZ());
+      return true;
+    }
+    double offX = location.getX() - enemyPositions.getX(entry);
+    double offY = location.getY() - enemyPositions.getY(entry);
+    double offZ = location.getZ() - enemyPositions.getZ(entry);
+    if(offX * offX + offY * offY + offZ * offZ > 1) {
+      enemyPositions.put(id, location.getX(), location.getY(), location.getZ());
+      return true;
+    }
+    if(enemyPositions.isGlitched(entry)) {
+      arena.removeEnemy(creature);
+      enemyPositions.remove(id);
+      creature.remove();
+      return false;
+    }
+    Location spawn = arena.getRandomZombieSpawnLocation(arena.getPlugin().getRandom());
+    VersionUtils.teleport(creature, spawn);
+    entry = enemyPositions.put(id, spawn.getX(), spawn.getY(), spawn.getZ());
+    enemyPositions.setGlitched(entry, true);
+    return true;
+  }
+
+  /**
+   * Forgets last checked positions, next check of every enemy only records its position.
+   */
+  public void resetGlitchChecks() {
+    enemyPositions.clear();
+  }
+
+  /**
+   * Stops glitch checks of every enemy.
+   */
+  public void clearGlitchChecks() {
+    enemyPositions.clear();
+    for(List<Creature> bucket : glitchWheel) {
+      if(bucket != null) {
+        bucket.clear();
       }
     }
   }
 
-  public Map<Creature, Location> getEnemyCheckerLocations() {
-    return enemyCheckerLocations;
+  /**
+   * @return amount of enemies with a recorded glitch check position
+   */
+  public int getGlitchCheckedEnemies() {
+    return enemyPositions.size();
+  }
+
+  /**
+   * Removed enemies stay in the wheel until their slot is visited again,
+   * so this can exceed the amount of enemies by the removals of the last 60 seconds.
+   *
+   * @return amount of enemy references held by the glitch check wheel
+   */
+  public int getGlitchWheelEntries() {
+    int entries = 0;
+    for(List<Creature> bucket : glitchWheel) {
+      if(bucket != null) {
+        entries += bucket.size();
+      }
+    }
+    return entries;
   }
 
   /**
    * Spawns some enemies in arena.
    * <p>
    * Variety and amount of enemies depends
-   * on random value and current wave
+   * on current wave, enemies are taken from the wave spawn plan
+   * or directly from the spawners if there is no plan.
+   * Spawn plan cadence and batch size are driven by the spawn throttle,
+   * spawning without a plan or throttle keeps the wave based idle.
+   *
+   * @see #compileSpawnPlan(long)
+   * @see SpawnThrottle
    */
   public void spawnEnemies() {
-    if(checkForIdle()) {
+    SpawnThrottle throttle = arena.getPlugin().getSpawnThrottle();
+    //throttle paces spawn plans, the wave based idle stays for everything else
+    if((spawnPlan == null || !throttle.isEnabled()) && !checkForIdle()) {
+      return;
+    }
+    if(spawnPlan == null) {
       arena.getPlugin().getEnemySpawnerRegistry().spawnEnemies(arena.getPlugin().getRandom(), arena);
+      return;
+    }
+    double cadence = throttle.getCadence();
+    if(cadence < 1) {
+      skippedCycles += 1 - cadence;
+    } else if(cadence > 1) {
+      //faster cadence only makes up cycles skipped earlier in the wave
+      double catchUp = Math.min(cadence - 1, skippedCycles);
+      skippedCycles -= catchUp;
+      cadence = 1 + catchUp;
+    }
+    //credits below 1 skip the cycle
+    cycleCredits = Math.min(cycleCredits + cadence, Math.max(1, cadence));
+    while(cycleCredits >= 1) {
+      spawnPlan.nextCycle();
+      cycleCredits--;
+    }
+    spawnPlan.spawnDue(throttle.getBatchSize());
+    if(spawnPlan.isExhausted() && arena.getArenaOption("ZOMBIES_TO_SPAWN") > 0) {
+      //plan cannot place the rest of the wave, spawners are evaluated every cycle like without a plan
+      arena.getPlugin().getDebugger().debug("[{0}] Spawn plan exhausted with {1} enemies left, spawning per cycle", arena.getId(), arena.getArenaOption("ZOMBIES_TO_SPAWN"));
+      spawnPlan = null;
+    }
+  }
+
+  /**
+   * Compiles spawn plan of the current wave, called on wave start
+   * after ZOMBIES_TO_SPAWN was set.
+   *
+   * @param seed seed of the plan, same seed and arena state give the same spawns per cycle,
+   *             spawn points may differ as they depend on crowding when spawned
+   */
+  public void compileSpawnPlan(long seed) {
+    spawnPlan = arena.getPlugin().getEnemySpawnerRegistry().compileSpawnPlan(arena, seed);
+    //opening cycle is always spawned on the first call
+    cycleCredits = 1;
+    skippedCycles = 0;
+  }
+
+  @Nullable
+  public WaveSpawnPlan getSpawnPlan() {
+    return spawnPlan;
+  }
+
+  /**
+   * Requests enemy spawn, actual spawning is done by the arena tick scheduler
+   * in the arena tick phase.
+   *
+   * @see #processSpawnRequest()
+   */
+  public void requestSpawn() {
+    spawnRequested = true;
+  }
+
+  /**
+   * Spawns enemies if spawn was requested since last call.
+   */
+  public void processSpawnRequest() {
+    if(!spawnRequested) {
+      return;
+    }
+    spawnRequested = false;
+    if(arena.isFighting() && arena.getArenaOption("ZOMBIES_TO_SPAWN") > 0) {
+      spawnEnemies();
     }
   }
 
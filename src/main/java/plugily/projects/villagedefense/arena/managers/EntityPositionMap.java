@@ -0,0 +1,172 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.arena.managers;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from entity id to the last checked position of the entity
+ * and a glitched flag. Keys and values are stored in parallel primitive arrays
+ * with linear probing, so lookups neither box the id nor hash the entity.
+ */
+public final class EntityPositionMap {
+
+  private static final int EMPTY = Integer.MIN_VALUE;
+  private static final float MAX_LOAD = 0.5f;
+
+  private int[] keys;
+  private double[] xs;
+  private double[] ys;
+  private double[] zs;
+  private boolean[] glitched;
+  private int size;
+
+  public EntityPositionMap() {
+    allocate(64);
+  }
+
+  /**
+   * @param id entity id
+   * @return slot of the entity or -1 if it is not in the map
+   */
+  public int find(int id) {
+    int mask = keys.length - 1;
+    for(int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+      int key = keys[slot];
+      if(key == id) {
+        return slot;
+      }
+      if(key == EMPTY) {
+        return -1;
+      }
+    }
+  }
+
+  /**
+   * Stores position of the entity and resets its glitched flag.
+   *
+   * @return slot of the entity
+   */
+  public int put(int id, double x, double y, double z) {
+    if(size + 1 > keys.length * MAX_LOAD) {
+      rehash(keys.length * 2);
+    }
+    int mask = keys.length - 1;
+    int slot = hash(id) & mask;
+    while(keys[slot] != EMPTY && keys[slot] != id) {
+      slot = (slot + 1) & mask;
+    }
+    if(keys[slot] == EMPTY) {
+      keys[slot] = id;
+      size++;
+    }
+    xs[slot] = x;
+    ys[slot] = y;
+    zs[slot] = z;
+    glitched[slot] = false;
+    return slot;
+  }
+
+  public boolean remove(int id) {
+    int slot = find(id);
+    if(slot < 0) {
+      return false;
+    }
+    //backward shift deletion keeps probe chains intact without tombstones
+    int mask = keys.length - 1;
+    int hole = slot;
+    for(int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+      int home = hash(keys[next]) & mask;
+      //entry can move into the hole only if its home slot is not between hole and next
+      if(((next - home) & mask) >= ((next - hole) & mask)) {
+        move(next, hole);
+        hole = next;
+      }
+    }
+    keys[hole] = EMPTY;
+    size--;
+    return true;
+  }
+
+  public double getX(int slot) {
+    return xs[slot];
+  }
+
+  public double getY(int slot) {
+    return ys[slot];
+  }
+
+  public double getZ(int slot) {
+    return zs[slot];
+  }
+
+  public boolean isGlitched(int slot) {
+    return glitched[slot];
+  }
+
+  public void setGlitched(int slot, boolean value) {
+    glitched[slot] = value;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, EMPTY);
+    size = 0;
+  }
+
+  private void move(int from, int to) {
+    keys[to] = keys[from];
+    xs[to] = xs[from];
+    ys[to] = ys[from];
+    zs[to] = zs[from];
+    glitched[to] = glitched[from];
+  }
+
+  private void rehash(int capacity) {
+    int[] oldKeys = keys;
+    double[] oldXs = xs, oldYs = ys, oldZs = zs;
+    boolean[] oldGlitched = glitched;
+    allocate(capacity);
+    size = 0;
+    for(int i = 0; i < oldKeys.length; i++) {
+      if(oldKeys[i] != EMPTY) {
+        int slot = put(oldKeys[i], oldXs[i], oldYs[i], oldZs[i]);
+        glitched[slot] = oldGlitched[i];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    Arrays.fill(keys, EMPTY);
+    xs = new double[capacity];
+    ys = new double[capacity];
+    zs = new double[capacity];
+    glitched = new boolean[capacity];
+  }
+
+  private static int hash(int id) {
+    int hash = id * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+}
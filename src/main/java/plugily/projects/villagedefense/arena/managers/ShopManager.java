@@ -54,6 +54,7 @@ public class ShopManager {
   private final FileConfiguration config;
   private final Arena arena;
   private NormalFastInv gui;
+  private boolean shopLoaded;
   private Consumer<Player> openMenuConsumer;
 
   public ShopManager(Arena arena) {
@@ -64,27 +65,37 @@ public class ShopManager {
     defaultGolemItemName = new MessageBuilder("IN_GAME_MESSAGES_VILLAGE_SHOP_GOLEM_ITEM", false).asKey().build();
     defaultWolfItemName = new MessageBuilder("IN_GAME_MESSAGES_VILLAGE_SHOP_WOLF_ITEM", false).asKey().build();
 
-    if(config.isSet("instances." + arena.getId() + ".shop")) {
-      registerShop();
-    }
     openMenuConsumer = player -> {
       if(plugin.getArenaRegistry().getArena(player) == null) {
         return;
       }
-      if(gui == null) {
+      if(getShop() == null) {
         new MessageBuilder("IN_GAME_MESSAGES_VILLAGE_SHOP_NOT_DEFINED").asKey().player(player).sendPlayer();
         return;
       }
-      gui.open(player);
+      getShop().open(player);
     };
   }
 
+  /**
+   * Shop is read from its chest on first use, not when the arena loads,
+   * so arena registration does not load the chunk of the chest.
+   *
+   * @return shop menu or null if the arena has no valid shop
+   */
   public NormalFastInv getShop() {
+    if(!shopLoaded) {
+      shopLoaded = true;
+      if(config.isSet("instances." + arena.getId() + ".shop")) {
+        registerShop();
+      }
+    }
     return gui;
   }
 
   public void setShop(NormalFastInv gui) {
     this.gui = gui;
+    shopLoaded = true;
   }
 
   public void setOpenMenuConsumer(@NotNull Consumer<Player> openMenuConsumer) {
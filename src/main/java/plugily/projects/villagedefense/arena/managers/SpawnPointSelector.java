@@ -0,0 +1,173 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.arena.managers;
+
+import org.bukkit.Location;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.EntityRole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Weighted zombie spawn point selection.
+ * <p>
+ * Weight of a spawn point is its configured weight divided by one plus the amount
+ * of enemies around it (looked up in the {@link ArenaSpatialIndex}), so crowded points
+ * are picked less often. Weights are turned into a Walker alias table rebuilt at most
+ * once per server tick, picking a point is constant time.
+ * <p>
+ * A pick depends on enemy positions and on when the table was last rebuilt, the same random
+ * bits only give the same point if congestion awareness is disabled and points use configured weights.
+ */
+public class SpawnPointSelector {
+
+  private static final long REFRESH_INTERVAL_NANOS = 50_000_000L;
+  private static final double SAMPLE_SCALE = 1.0 / (1L << 31);
+
+  private final Arena arena;
+  private final boolean congestionAware;
+  private final double crowdRadius;
+
+  private double[] weights = new double[0];
+  private double[] probabilities = new double[0];
+  private int[] aliases = new int[0];
+  private int[] small = new int[0];
+  private int[] large = new int[0];
+  private int points;
+  private long lastRefresh;
+  private boolean built;
+
+  public SpawnPointSelector(Arena arena) {
+    this.arena = arena;
+    this.congestionAware = arena.getPlugin().getConfig().getBoolean("Performance.Spawn-Points.Congestion-Aware", true);
+    this.crowdRadius = Math.max(1, arena.getPlugin().getConfig().getDouble("Performance.Spawn-Points.Crowd-Radius", 4));
+  }
+
+  /**
+   * Sets configured weight of the spawn point, points without weight have weight 1.
+   *
+   * @param point  index of the point in {@link Arena#getZombieSpawns()}
+   * @param weight weight of the point, 0 disables the point unless all points are disabled
+   */
+  public void setWeight(int point, double weight) {
+    if(point >= weights.length) {
+      int previous = weights.length;
+      weights = Arrays.copyOf(weights, point + 1);
+      Arrays.fill(weights, previous, weights.length, 1);
+    }
+    weights[point] = Math.max(0, weight);
+    invalidate();
+  }
+
+  public double getWeight(int point) {
+    return point < weights.length ? weights[point] : 1;
+  }
+
+  /**
+   * Marks table as outdated, next pick will rebuild it.
+   */
+  public void invalidate() {
+    built = false;
+  }
+
+  /**
+   * @param random random to pick with
+   * @return picked zombie spawn location
+   */
+  public Location next(Random random) {
+    return arena.getZombieSpawns().get(nextIndex(random.nextInt()));
+  }
+
+  /**
+   * Picks spawn point index from 31 random bits, lets precompiled random
+   * draws be resolved against the current table, not the one at compile time.
+   *
+   * @param bits random bits, the sign bit is ignored
+   * @return index of the picked point in {@link Arena#getZombieSpawns()}
+   */
+  public int nextIndex(int bits) {
+    List<Location> spawns = arena.getZombieSpawns();
+    if(spawns.size() <= 1) {
+      return 0;
+    }
+    if(!built || points != spawns.size() || System.nanoTime() - lastRefresh >= REFRESH_INTERVAL_NANOS) {
+      rebuild(spawns);
+    }
+    double scaled = (bits & Integer.MAX_VALUE) * SAMPLE_SCALE * points;
+    int column = Math.min((int) scaled, points - 1);
+    return scaled - column < probabilities[column] ? column : aliases[column];
+  }
+
+  private void rebuild(List<Location> spawns) {
+    points = spawns.size();
+    if(probabilities.length < points) {
+      probabilities = new double[points];
+      aliases = new int[points];
+      small = new int[points];
+      large = new int[points];
+    }
+    double total = 0;
+    for(int i = 0; i < points; i++) {
+      double weight = getWeight(i);
+      if(congestionAware && weight > 0) {
+        weight /= 1 + arena.getSpatialIndex().countNearby(spawns.get(i), crowdRadius, EntityRole.ENEMY);
+      }
+      probabilities[i] = weight;
+      total += weight;
+    }
+    if(total <= 0) {
+      Arrays.fill(probabilities, 0, points, 1);
+      total = points;
+    }
+    //Vose's alias method, probabilities are scaled so the average column is 1
+    int smallSize = 0, largeSize = 0;
+    for(int i = 0; i < points; i++) {
+      probabilities[i] = probabilities[i] * points / total;
+      aliases[i] = i;
+      if(probabilities[i] < 1) {
+        small[smallSize++] = i;
+      } else {
+        large[largeSize++] = i;
+      }
+    }
+    while(smallSize > 0 && largeSize > 0) {
+      int less = small[--smallSize];
+      int more = large[--largeSize];
+      aliases[less] = more;
+      probabilities[more] += probabilities[less] - 1;
+      if(probabilities[more] < 1) {
+        small[smallSize++] = more;
+      } else {
+        large[largeSize++] = more;
+      }
+    }
+    //leftovers differ from 1 only by rounding errors
+    while(largeSize > 0) {
+      probabilities[large[--largeSize]] = 1;
+    }
+    while(smallSize > 0) {
+      probabilities[small[--smallSize]] = 1;
+    }
+    lastRefresh = System.nanoTime();
+    built = true;
+  }
+
+}
@@ -0,0 +1,94 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena.managers;
+
+import org.bukkit.Location;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.managers.spawner.SimpleEnemySpawner;
+
+import java.util.ArrayDeque;
+
+/**
+ * Enemies of an arena waiting to be spawned.
+ * <p>
+ * Spawners only push requests here, entities are created by the {@link SpawnQueueDrainer}
+ * so spawn heavy phases are spread across ticks. Queued enemies were already taken
+ * from ZOMBIES_TO_SPAWN and are counted as zombies left of the arena.
+ */
+public class SpawnQueue {
+
+  private final Arena arena;
+  private final ArrayDeque<Request> requests = new ArrayDeque<>();
+
+  public SpawnQueue(Arena arena) {
+    this.arena = arena;
+  }
+
+  /**
+   * Queues enemy spawn.
+   *
+   * @param spawner  spawner creating the enemy
+   * @param location spawn location, must not be modified afterwards
+   */
+  public void add(SimpleEnemySpawner spawner, Location location) {
+    requests.add(new Request(spawner, location));
+  }
+
+  /**
+   * Spawns the oldest queued enemy.
+   *
+   * @return false if the queue was empty
+   */
+  public boolean spawnNext() {
+    Request request = requests.poll();
+    if(request == null) {
+      return false;
+    }
+    request.spawner.spawnNow(request.location, arena);
+    return true;
+  }
+
+  public int size() {
+    return requests.size();
+  }
+
+  public boolean isEmpty() {
+    return requests.isEmpty();
+  }
+
+  /**
+   * Drops all queued enemies without spawning them.
+   */
+  public void clear() {
+    requests.clear();
+  }
+
+  private static final class Request {
+
+    private final SimpleEnemySpawner spawner;
+    private final Location location;
+
+    private Request(SimpleEnemySpawner spawner, Location location) {
+      this.spawner = spawner;
+      this.location = location;
+    }
+  }
+
+}
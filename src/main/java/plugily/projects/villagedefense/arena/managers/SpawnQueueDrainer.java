@@ -0,0 +1,73 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena.managers;
+
+import org.bukkit.scheduler.BukkitRunnable;
+import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.arena.Arena;
+
+import java.util.List;
+
+/**
+ * Single task spawning queued enemies of all in game arenas.
+ * <p>
+ * At most Performance.Spawn-Queue.Max-Entities-Per-Tick enemies are created per tick,
+ * arenas take turns one enemy at a time and the first arena rotates every tick.
+ */
+public class SpawnQueueDrainer extends BukkitRunnable {
+
+  private final Main plugin;
+  private final int maxEntitiesPerTick;
+  private int firstArena;
+
+  public SpawnQueueDrainer(Main plugin) {
+    this.plugin = plugin;
+    this.maxEntitiesPerTick = Math.max(1, plugin.getConfig().getInt("Performance.Spawn-Queue.Max-Entities-Per-Tick", 8));
+    runTaskTimer(plugin, 1, 1);
+  }
+
+  @Override
+  public void run() {
+    List<Arena> arenas = plugin.getArenaRegistry().inGameArenas();
+    int size = arenas.size();
+    if(size == 0) {
+      return;
+    }
+    long start = System.nanoTime();
+    //rotate the arena served first, kept below size so it never overflows
+    int first = firstArena % size;
+    firstArena = first + 1;
+    int spawned = 0;
+    boolean progress = true;
+    while(progress && spawned < maxEntitiesPerTick) {
+      progress = false;
+      for(int i = 0; i < size && spawned < maxEntitiesPerTick; i++) {
+        if(arenas.get((first + i) % size).getSpawnQueue().spawnNext()) {
+          spawned++;
+          progress = true;
+        }
+      }
+    }
+    if(spawned > 0) {
+      plugin.getMetricsRegistry().record("spawn-queue", null, System.nanoTime() - start);
+    }
+  }
+
+}
@@ -0,0 +1,201 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena.managers;
+
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+import plugily.projects.minigamesbox.classic.utils.version.ServerVersion;
+import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.arena.Arena;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Feedback controller of enemy spawning shared by all arenas.
+ * <p>
+ * Load is the highest ratio of measured tick duration to target tick duration,
+ * tracked enemies of all arenas to their limit and living entities of the busiest
+ * arena world to its limit. The spawn factor follows 1 / load smoothly, it drops fast
+ * when the server gets loaded and ramps up slowly, above 1 spawning catches up
+ * with cycles skipped earlier in the wave.
+ * Spawn cadence (spawn plan cycles per spawn call) and batch size (enemies per spawn
+ * call) are taken from the factor.
+ */
+public class SpawnThrottle extends BukkitRunnable {
+
+  private static final int SAMPLE_PERIOD = 20;
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+  private static final double RAMP_DOWN = 0.5;
+  private static final double RAMP_UP = 0.2;
+  //MinecraftServer field with durations of the last 100 ticks in nanoseconds on 1.8.8
+  private static final String TICK_TIMES_FIELD = "h";
+
+  private final Main plugin;
+  private final boolean enabled;
+  private final double targetMspt;
+  private final int maxEnemies;
+  private final int maxWorldEntities;
+  private final double minFactor;
+  private final double maxFactor;
+  private final int batchSize;
+  private final long[] serverTickTimes;
+  private long lastTick;
+  private double tickIntervalMspt = 50;
+  private int ticks;
+  private double mspt;
+  private double load;
+  private double factor = 1;
+
+  public SpawnThrottle(Main plugin) {
+    this.plugin = plugin;
+    this.enabled = plugin.getConfig().getBoolean("Performance.Spawn-Throttle.Enabled", true);
+    this.targetMspt = Math.max(1, plugin.getConfig().getDouble("Performance.Spawn-Throttle.Target-Mspt", 40));
+    this.maxEnemies = Math.max(1, plugin.getConfig().getInt("Performance.Spawn-Throttle.Max-Enemies", 400));
+    this.maxWorldEntities = Math.max(1, plugin.getConfig().getInt("Performance.Spawn-Throttle.Max-World-Entities", 600));
+    this.minFactor = Math.max(0.01, plugin.getConfig().getDouble("Performance.Spawn-Throttle.Min-Factor", 0.1));
+    this.maxFactor = Math.max(1, plugin.getConfig().getDouble("Performance.Spawn-Throttle.Max-Factor", 1));
+    this.batchSize = Math.max(1, plugin.getConfig().getInt("Performance.Spawn-Throttle.Batch-Size", 30));
+    this.serverTickTimes = enabled ? findServerTickTimes() : null;
+    if(enabled) {
+      runTaskTimer(plugin, 1, 1);
+    }
+  }
+
+  @Override
+  public void run() {
+    if(plugin.getArenaRegistry().inGameArenas().isEmpty()) {
+      //nothing is spawned, interval is measured again from the next in game tick
+      lastTick = 0;
+      return;
+    }
+    long now = System.nanoTime();
+    if(lastTick != 0) {
+      //fallback when server tick times are not accessible
+      tickIntervalMspt += ((now - lastTick) / NANOS_PER_MILLI - tickIntervalMspt) * 0.05;
+    }
+    lastTick = now;
+    if(++ticks % SAMPLE_PERIOD == 0) {
+      update();
+    }
+  }
+
+  private void update() {
+    //tick interval never goes below 50ms, it is compared against a target of at least 50ms
+    double target = targetMspt;
+    if(serverTickTimes == null) {
+      mspt = tickIntervalMspt;
+      target = Math.max(50, targetMspt);
+    } else {
+      mspt = averageServerTickTime();
+    }
+    List<Arena> arenas = plugin.getArenaRegistry().inGameArenas();
+    int enemies = 0;
+    Set<World> worlds = Collections.newSetFromMap(new IdentityHashMap<>());
+    for(Arena arena : arenas) {
+      enemies += arena.getEnemies().size();
+      if(arena.getStartLocation() != null && arena.getStartLocation().getWorld() != null) {
+        worlds.add(arena.getStartLocation().getWorld());
+      }
+    }
+    int worldEntities = 0;
+    for(World world : worlds) {
+      worldEntities = Math.max(worldEntities, world.getLivingEntities().size());
+    }
+    load = Math.max(mspt / target, Math.max(enemies / (double) maxEnemies, worldEntities / (double) maxWorldEntities));
+
+    double desired = load <= 0 ? maxFactor : Math.max(minFactor, Math.min(maxFactor, 1 / load));
+    double previous = factor;
+    factor += (desired - factor) * (desired < factor ? RAMP_DOWN : RAMP_UP);
+    if(Math.abs(factor - previous) >= 0.1) {
+      plugin.getDebugger().debug("[Spawn throttle] Factor {0} (load {1}, mspt {2}, enemies {3}, world entities {4})",
+          String.format("%.2f", factor), String.format("%.2f", load), String.format("%.1f", mspt), enemies, worldEntities);
+    }
+  }
+
+  private double averageServerTickTime() {
+    long total = 0;
+    for(long tickTime : serverTickTimes) {
+      total += tickTime;
+    }
+    return total / (double) serverTickTimes.length / NANOS_PER_MILLI;
+  }
+
+  private long[] findServerTickTimes() {
+    //field names are obfuscated per version, other versions use the tick interval
+    if(!ServerVersion.Version.isCurrentEqualOrLower(ServerVersion.Version.v1_8_8)) {
+      return null;
+    }
+    try {
+      Object server = plugin.getServer().getClass().getMethod("getServer").invoke(plugin.getServer());
+      Class<?> minecraftServer = Class.forName("net.minecraft.server.v1_8_R3.MinecraftServer");
+      Field field = minecraftServer.getDeclaredField(TICK_TIMES_FIELD);
+      if(field.getType() != long[].class) {
+        throw new NoSuchFieldException(TICK_TIMES_FIELD + " is not long[]");
+      }
+      field.setAccessible(true);
+      long[] tickTimes = (long[]) field.get(server);
+      if(tickTimes != null && tickTimes.length == 100) {
+        return tickTimes;
+      }
+      plugin.getDebugger().debug("[Spawn throttle] Unexpected server tick times, using tick interval instead");
+    } catch(ReflectiveOperationException | RuntimeException exception) {
+      plugin.getDebugger().debug("[Spawn throttle] Server tick times not accessible, using tick interval instead: {0}", exception.getMessage());
+    }
+    return null;
+  }
+
+  /**
+   * @return true if spawn plans are driven by the throttle, spawning without a plan keeps the wave based idle
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return spawn plan cycles per spawn call, below 1 cycles are skipped
+   */
+  public double getCadence() {
+    return enabled ? factor : 1;
+  }
+
+  /**
+   * @return maximum amount of enemies spawned per spawn call
+   */
+  public int getBatchSize() {
+    return enabled ? Math.max(1, (int) Math.round(batchSize * Math.min(1, factor))) : Integer.MAX_VALUE;
+  }
+
+  public double getFactor() {
+    return factor;
+  }
+
+  public double getLoad() {
+    return load;
+  }
+
+  public double getMspt() {
+    return mspt;
+  }
+
+}
@@ -19,10 +19,17 @@
 
 package plugily.projects.villagedefense.arena.managers.enemy.spawner;
 
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+import plugily.projects.minigamesbox.classic.utils.configuration.ConfigUtils;
 import plugily.projects.minigamesbox.classic.utils.version.ServerVersion;
 import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.arena.Arena;
 import plugily.projects.villagedefense.arena.managers.spawner.EnemySpawner;
+import plugily.projects.villagedefense.arena.managers.spawner.RuleEnemySpawner;
+import plugily.projects.villagedefense.arena.managers.spawner.SimpleEnemySpawner;
+import plugily.projects.villagedefense.arena.managers.spawner.SpawnRules;
+import plugily.projects.villagedefense.arena.managers.spawner.WaveSpawnPlan;
 import plugily.projects.villagedefense.creatures.v1_8_R3.spawner.BabyZombieSpawner;
 import plugily.projects.villagedefense.creatures.v1_8_R3.spawner.FastZombieSpawner;
 import plugily.projects.villagedefense.creatures.v1_8_R3.spawner.GolemBusterSpawner;
@@ -35,9 +42,11 @@ import plugily.projects.villagedefense.creatures.v1_8_R3.spawner.VillagerBusterS
 import plugily.projects.villagedefense.creatures.v1_8_R3.spawner.VillagerSlayerSpawner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
@@ -51,11 +60,21 @@ public class EnemySpawnerRegistryLegacy {
   // TODO(1.8.8): rideable creatures are 1.9+ feature; legacy build does not support them.
   final Set<Object> rideableCreatures = new HashSet<>();
   final Main plugin;
+  private EnemySpawner[] enemySpawners = new EnemySpawner[0];
 
   public EnemySpawnerRegistryLegacy(Main plugin) {
+    this(plugin, ConfigUtils.getConfig(plugin, "creatures").getConfigurationSection("Creatures.Content"));
+  }
+
+  /**
+   * @param plugin    the plugin
+   * @param creatures the Creatures.Content section of creatures.yml, null to use built in spawn rules only
+   */
+  public EnemySpawnerRegistryLegacy(Main plugin, @Nullable ConfigurationSection creatures) {
     this.plugin = plugin;
     registerCreatures();
     registerRideableCreatures();
+    applySpawnRules(creatures);
   }
 
   public void registerRideableCreatures() {
@@ -80,6 +99,55 @@ public class EnemySpawnerRegistryLegacy {
     }
   }
 
+  /**
+   * Unregisters spawners of creatures disabled in creatures.yml, the creature key is the
+   * spawner name in upper snake case. When Creatures.Content-Spawn-Rules is enabled the built in
+   * spawn decisions and wave range of a spawner are replaced by the rates and wave section
+   * of its creature, spawners without rates keep their built in decisions.
+   *
+   * @param creatures the Creatures.Content section of creatures.yml
+   */
+  public void applySpawnRules(@Nullable ConfigurationSection creatures) {
+    if(creatures == null) {
+      return;
+    }
+    boolean contentRules = plugin.getConfig().getBoolean("Creatures.Content-Spawn-Rules", false);
+    for(EnemySpawner enemySpawner : new ArrayList<>(enemySpawnerSet)) {
+      if(!(enemySpawner instanceof SimpleEnemySpawner)) {
+        continue;
+      }
+      String key = getCreatureKey(enemySpawner.getName());
+      ConfigurationSection creature = creatures.getConfigurationSection(key);
+      if(creature == null) {
+        continue;
+      }
+      if(!creature.getBoolean("enabled", true)) {
+        enemySpawnerSet.remove(enemySpawner);
+        plugin.getDebugger().debug("Disabled enemy spawner {0} by creatures.yml", enemySpawner.getName());
+        continue;
+      }
+      if(!contentRules) {
+        continue;
+      }
+      SpawnRules rules = SpawnRules.compile(creature.getConfigurationSection("rates"));
+      if(rules == null) {
+        continue;
+      }
+      SimpleEnemySpawner spawner = enemySpawner instanceof RuleEnemySpawner ? ((RuleEnemySpawner) enemySpawner).getSpawner() : (SimpleEnemySpawner) enemySpawner;
+      enemySpawnerSet.remove(enemySpawner);
+      enemySpawnerSet.add(new RuleEnemySpawner(spawner, rules, creature.getInt("wave.min", 0), creature.getInt("wave.max", 0)));
+      plugin.getDebugger().debug("Compiled spawn rules of {0} from creatures.yml {1}", enemySpawner.getName(), key);
+    }
+  }
+
+  private static String getCreatureKey(String spawnerName) {
+    if("KnockbackResistantZombie".equals(spawnerName)) {
+      //spawns the tanker zombie entity
+      return "TANKER_ZOMBIE";
+    }
+    return spawnerName.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ENGLISH);
+  }
+
   /**
    * Spawn the enemies at the arena
    *
@@ -87,23 +155,74 @@ public class EnemySpawnerRegistryLegacy {
    * @param arena  the arena
    */
   public void spawnEnemies(Random random, Arena arena) {
-    int spawn = arena.getWave();
-    int zombiesLimit = plugin.getConfig().getInt("Limit.Spawn.Creatures", 75);
-    if(zombiesLimit < spawn) {
-      spawn = (int) Math.ceil(zombiesLimit / 2.0);
-    }
+    long start = System.nanoTime();
+    int spawn = getSpawnAmount(arena);
     String zombieSpawnCounterOption = "ZOMBIE_SPAWN_COUNTER";
     arena.changeArenaOptionBy(zombieSpawnCounterOption, 1);
     if(arena.getArenaOption(zombieSpawnCounterOption) == 20) {
       arena.setArenaOption(zombieSpawnCounterOption, 0);
     }
 
-    List<EnemySpawner> enemySpawners = new ArrayList<>(enemySpawnerSet);
-    Collections.shuffle(enemySpawners);
+    List<EnemySpawner> enemySpawners = Arrays.asList(getEnemySpawners().clone());
+    Collections.shuffle(enemySpawners, random);
     for(EnemySpawner enemySpawner : enemySpawners) {
-      plugin.getDebugger().debug("Trying enemy spawn for " + enemySpawner.getName());
+      plugin.getDebugger().debug("Trying enemy spawn for {0}", enemySpawner.getName());
       enemySpawner.spawn(random, arena, spawn);
     }
+    plugin.getMetricsRegistry().record("spawner-registry", arena, System.nanoTime() - start);
+  }
+
+  /**
+   * Get the raw amount of enemies each spawner is suggested to spawn per spawn cycle
+   *
+   * @param arena the arena
+   * @return the raw spawn amount
+   */
+  public int getSpawnAmount(Arena arena) {
+    int spawn = arena.getWave();
+    int zombiesLimit = plugin.getConfig().getInt("Limit.Spawn.Creatures", 75);
+    if(zombiesLimit < spawn) {
+      spawn = (int) Math.ceil(zombiesLimit / 2.0);
+    }
+    return spawn;
+  }
+
+  /**
+   * Compiles the spawn plan of the current wave, ZOMBIES_TO_SPAWN must be already set
+   *
+   * @param arena the arena
+   * @param seed  the seed of the plan
+   * @return the compiled plan
+   */
+  public WaveSpawnPlan compileSpawnPlan(Arena arena, long seed) {
+    return WaveSpawnPlan.compile(arena, getEnemySpawners(), seed, getSpawnAmount(arena));
+  }
+
+  /**
+   * Get the enemy spawners ordered like the set, index in the array is stable
+   * until spawners are registered or removed. Do not modify the array.
+   *
+   * @return the array of enemy spawners
+   */
+  public EnemySpawner[] getEnemySpawners() {
+    //the set is mutable through getEnemySpawnerSet(), compare contents instead of tracking mutations
+    if(!isEnemySpawnersCurrent()) {
+      enemySpawners = enemySpawnerSet.toArray(new EnemySpawner[0]);
+    }
+    return enemySpawners;
+  }
+
+  private boolean isEnemySpawnersCurrent() {
+    if(enemySpawners.length != enemySpawnerSet.size()) {
+      return false;
+    }
+    int i = 0;
+    for(EnemySpawner enemySpawner : enemySpawnerSet) {
+      if(enemySpawners[i++] != enemySpawner) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -0,0 +1,163 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena.managers.maprestorer;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import plugily.projects.villagedefense.arena.managers.DoorIndex;
+
+import java.util.Arrays;
+
+/**
+ * Append only log of block changes made in an arena during the game.
+ * <p>
+ * Only the first change of a position is kept, entries hold the packed position
+ * and the material and data the block had before that change. Replaying the log
+ * newest first puts the arena back to its state before the game, the cost
+ * depends only on the amount of changed blocks.
+ */
+@SuppressWarnings("deprecation")
+public class BlockChangeJournal {
+
+  private static final Material[] MATERIALS = Material.values();
+
+  private World world;
+  private long[] positions = new long[64];
+  private short[] types = new short[64];
+  private byte[] data = new byte[64];
+  //entry index + 1 by position hash, 0 marks a free slot
+  private int[] table = new int[128];
+  private int size;
+
+  /**
+   * Records the current state of the block before it gets changed.
+   *
+   * @param block block which is about to change
+   * @return true if the block was recorded, false if its position is already in the journal
+   */
+  public boolean record(Block block) {
+    return record(block.getWorld(), block.getX(), block.getY(), block.getZ(), block.getType(), block.getData());
+  }
+
+  /**
+   * Records the state a block had before it was changed.
+   *
+   * @param state previous state of the block
+   * @return true if the block was recorded, false if its position is already in the journal
+   */
+  public boolean record(BlockState state) {
+    return record(state.getWorld(), state.getX(), state.getY(), state.getZ(), state.getType(), state.getRawData());
+  }
+
+  public boolean record(World world, int x, int y, int z, Material type, byte blockData) {
+    if(this.world == null) {
+      this.world = world;
+    } else if(this.world != world) {
+      return false;
+    }
+    long position = DoorIndex.pack(x, y, z);
+    int mask = table.length - 1;
+    int slot = hash(position) & mask;
+    while(table[slot] != 0) {
+      if(positions[table[slot] - 1] == position) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    if(size == positions.length) {
+      positions = Arrays.copyOf(positions, size * 2);
+      types = Arrays.copyOf(types, size * 2);
+      data = Arrays.copyOf(data, size * 2);
+    }
+    positions[size] = position;
+    types[size] = (short) type.ordinal();
+    data[size] = blockData;
+    size++;
+    table[slot] = size;
+    //keep load factor at most one half
+    if(size * 2 > table.length) {
+      rehash(table.length * 2);
+    }
+    return true;
+  }
+
+  /**
+   * Restores recorded blocks newest first, restored entries are removed from the journal.
+   *
+   * @param limit    maximum amount of blocks to restore
+   * @param restorer sets the block back to its recorded state
+   * @return true if the journal is empty afterwards
+   */
+  public boolean replay(int limit, Restorer restorer) {
+    for(int i = 0; i < limit && size > 0; i++) {
+      size--;
+      long position = positions[size];
+      int x = (int) (position >> 38);
+      int y = (int) (position << 26 >> 52);
+      int z = (int) (position << 38 >> 38);
+      restorer.restore(world.getBlockAt(x, y, z), MATERIALS[types[size]], data[size]);
+    }
+    if(size > 0) {
+      //drop slots of restored entries, a later change of their blocks has to be recorded again
+      rehash(table.length);
+      return false;
+    }
+    clear();
+    return true;
+  }
+
+  /**
+   * Forgets all recorded changes without restoring them.
+   */
+  public void clear() {
+    size = 0;
+    world = null;
+    Arrays.fill(table, 0);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private void rehash(int capacity) {
+    table = new int[capacity];
+    int mask = capacity - 1;
+    for(int i = 0; i < size; i++) {
+      int slot = hash(positions[i]) & mask;
+      while(table[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = i + 1;
+    }
+  }
+
+  private static int hash(long position) {
+    long hash = position * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  @FunctionalInterface
+  public interface Restorer {
+    void restore(Block block, Material type, byte data);
+  }
+
+}
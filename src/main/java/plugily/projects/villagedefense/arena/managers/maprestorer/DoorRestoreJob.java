@@ -0,0 +1,111 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena.managers.maprestorer;
+
+import org.bukkit.Location;
+import plugily.projects.villagedefense.arena.ArenaTickScheduler;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Resumable restoration of the arena doors.
+ * <p>
+ * Doors are ordered by chunk so consecutive updates hit the same chunk
+ * and at most Performance.Door-Restore-Per-Tick doors are restored per tick.
+ */
+final class DoorRestoreJob implements Runnable {
+
+  private final MapRestorerManager restorer;
+  private final Location[] locations;
+  private final byte[] data;
+  private final int perTick;
+  private ArenaTickScheduler.Job job;
+  private int cursor;
+  private int restored;
+  private int ticks;
+  private boolean done;
+
+  DoorRestoreJob(MapRestorerManager restorer, Map<Location, Byte> doors, int perTick) {
+    this.restorer = restorer;
+    this.perTick = Math.max(1, perTick);
+    Location[] unordered = doors.keySet().toArray(new Location[0]);
+    Integer[] order = new Integer[unordered.length];
+    for(int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    //stable sort, halves of a door keep their registration order
+    Arrays.sort(order, Comparator.comparingLong(i -> chunkKey(unordered[i])));
+    Byte[] unorderedData = doors.values().toArray(new Byte[0]);
+    locations = new Location[order.length];
+    data = new byte[order.length];
+    for(int i = 0; i < order.length; i++) {
+      locations[i] = unordered[order[i]];
+      data[i] = unorderedData[order[i]];
+    }
+  }
+
+  /**
+   * Continues the restoration on every tick until all doors are restored.
+   *
+   * @param scheduler scheduler to run the job in
+   */
+  void start(ArenaTickScheduler scheduler) {
+    job = scheduler.schedule("door-restore", restorer.arena, 1, this);
+  }
+
+  @Override
+  public void run() {
+    ticks++;
+    restore(perTick);
+  }
+
+  /**
+   * Restores all remaining doors immediately.
+   */
+  void finish() {
+    restore(Integer.MAX_VALUE);
+  }
+
+  private void restore(int limit) {
+    if(done) {
+      return;
+    }
+    int end = (int) Math.min((long) cursor + limit, locations.length);
+    for(; cursor < end; cursor++) {
+      if(restorer.restoreDoor(locations[cursor].getBlock(), data[cursor])) {
+        restored++;
+      }
+    }
+    if(cursor == locations.length) {
+      done = true;
+      if(job != null) {
+        job.cancel();
+      }
+      restorer.onDoorsRestored(restored, locations.length, ticks);
+    }
+  }
+
+  private static long chunkKey(Location location) {
+    return ((long) (location.getBlockX() >> 4) << 32) | ((location.getBlockZ() >> 4) & 0xFFFFFFFFL);
+  }
+
+}
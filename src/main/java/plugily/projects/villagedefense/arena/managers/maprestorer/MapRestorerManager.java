@@ -19,6 +19,7 @@
 package plugily.projects.villagedefense.arena.managers.maprestorer;
 
 import org.bukkit.Location;
+import org.bukkit.Material;
 import org.bukkit.TreeSpecies;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
@@ -28,6 +29,9 @@ import org.bukkit.material.Door;
 import plugily.projects.minigamesbox.classic.arena.managers.PluginMapRestorerManager;
 import plugily.projects.minigamesbox.classic.utils.version.xseries.XMaterial;
 import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.ArenaTickScheduler;
+import plugily.projects.villagedefense.arena.managers.DoorHealth;
+import plugily.projects.villagedefense.arena.managers.DoorIndex;
 import plugily.projects.villagedefense.utils.Utils;
 
 import java.util.LinkedHashMap;
@@ -44,6 +48,14 @@ public class MapRestorerManager extends PluginMapRestorerManager {
 
   protected final Map<Location, Byte> doorBlocks = new LinkedHashMap<>();
   public final Arena arena;
+  private DoorIndex doorIndex;
+  private DoorHealth doorHealth;
+  private DoorRestoreJob doorRestore;
+  private final BlockChangeJournal blockJournal = new BlockChangeJournal();
+  private ArenaTickScheduler.Job journalReplay;
+  private int journalReplayPerTick;
+  //bottom half door data by data byte, top half at index 16
+  private final Door[] doorDataCache = new Door[17];
 
   public MapRestorerManager(Arena arena) {
     super(arena);
@@ -52,28 +64,81 @@ public class MapRestorerManager extends PluginMapRestorerManager {
 
   public final void addDoor(Location location, byte data) {
     doorBlocks.put(location, data);
+    doorIndex = null;
+    doorHealth = null;
   }
 
   public final Map<Location, Byte> getGameDoorLocations() {
     return doorBlocks;
   }
 
+  /**
+   * Get index of the registered doors, door ids follow the order of {@link #getGameDoorLocations()}.
+   *
+   * @return door index, rebuilt after a door was added
+   */
+  public final DoorIndex getDoorIndex() {
+    if(doorIndex == null) {
+      doorIndex = new DoorIndex(doorBlocks.keySet());
+    }
+    return doorIndex;
+  }
+
+  /**
+   * Get health of the registered doors indexed by door id of {@link #getDoorIndex()}.
+   *
+   * @return door health, all doors are repaired when the arena is restored
+   */
+  public final DoorHealth getDoorHealth() {
+    if(doorHealth == null) {
+      doorHealth = new DoorHealth(getDoorIndex().size(), arena.getPlugin().getConfig().getInt("Creatures.Door-Health", 70));
+    }
+    return doorHealth;
+  }
+
+  /**
+   * Restores full health of the door at the location and of its other half.
+   *
+   * @param location location of a door block
+   */
+  public final void repairDoor(Location location) {
+    DoorIndex index = getDoorIndex();
+    for(int offset = -1; offset <= 1; offset++) {
+      int door = index.getDoor(location.getBlockX(), location.getBlockY() + offset, location.getBlockZ());
+      if(door >= 0) {
+        getDoorHealth().repair(door);
+      }
+    }
+  }
+
+  /**
+   * Get journal of blocks changed during the game, kits and listeners changing
+   * arena blocks record them before the change.
+   *
+   * @return block change journal, replayed when the arena is restored
+   */
+  public final BlockChangeJournal getBlockJournal() {
+    return blockJournal;
+  }
+
   @Override
   public void fullyRestoreArena() {
     super.fullyRestoreArena();
     arena.setWave(1);
+    replayBlockJournal();
     restoreDoors();
+    getDoorHealth().repairAll();
     clearEnemiesFromArena();
     clearGolemsFromArena();
     clearVillagersFromArena();
     clearWolvesFromArena();
     clearDroppedEntities();
+    arena.getPlugin().getEntityOwnershipRegistry().unregisterAll(arena);
   }
 
   public final void clearEnemiesFromArena() {
     arena.getEnemySpawnManager().applyIdle(0);
-    arena.getEnemies().forEach(org.bukkit.entity.Creature::remove);
-    arena.getEnemies().clear();
+    arena.removeAllEnemies();
   }
 
   public final void clearDroppedEntities() {
@@ -85,67 +150,137 @@ public class MapRestorerManager extends PluginMapRestorerManager {
   }
 
   public final void clearGolemsFromArena() {
-    arena.getIronGolems().forEach(org.bukkit.entity.IronGolem::remove);
-    arena.getIronGolems().clear();
+    arena.removeAllIronGolems();
   }
 
   public final void clearVillagersFromArena() {
-    arena.getVillagers().forEach(org.bukkit.entity.Villager::remove);
-    arena.getVillagers().clear();
+    arena.removeAllVillagers();
   }
 
   public final void clearWolvesFromArena() {
-    arena.getWolves().forEach(org.bukkit.entity.Wolf::remove);
-    arena.getWolves().clear();
+    arena.removeAllWolves();
+  }
+
+  /**
+   * Starts replaying the block journal over the next ticks, does nothing when
+   * the journal is empty or is already being replayed.
+   */
+  public final void startBlockJournalReplay() {
+    if(journalReplay == null && blockJournal.size() > 0) {
+      journalReplayPerTick = Math.max(1, arena.getPlugin().getConfig().getInt("Performance.Block-Journal-Replay-Per-Tick", 128));
+      arena.getPlugin().getDebugger().debug("[{0}] Replaying {1} changed blocks", arena.getId(), blockJournal.size());
+      journalReplay = arena.getPlugin().getArenaTickScheduler().schedule("block-journal-replay", arena, 1, this::replayBlockJournalTick);
+    }
   }
 
+  /**
+   * Restores all blocks left in the block journal before returning.
+   *
+   * @see #startBlockJournalReplay()
+   */
+  public final void replayBlockJournal() {
+    if(journalReplay != null) {
+      journalReplay.cancel();
+      journalReplay = null;
+    }
+    blockJournal.replay(Integer.MAX_VALUE, this::restoreBlock);
+  }
+
+  private void replayBlockJournalTick() {
+    if(blockJournal.replay(journalReplayPerTick, this::restoreBlock)) {
+      journalReplay.cancel();
+      journalReplay = null;
+    }
+  }
+
+  /**
+   * Sets the block back to the state recorded in the block journal.
+   *
+   * @param block block to restore
+   * @param type  recorded material
+   * @param data  recorded data
+   */
+  protected void restoreBlock(Block block, Material type, byte data) {
+    block.setType(type, false);
+    if(data != 0) {
+      BlockState state = block.getState();
+      state.setRawData(data);
+      state.update(true, false);
+    }
+  }
+
+  /**
+   * Starts restoring doors over the next ticks, does nothing when restoration
+   * was already started and not yet completed by {@link #restoreDoors()}.
+   */
+  public final void startDoorRestore() {
+    if(doorRestore == null) {
+      doorRestore = new DoorRestoreJob(this, doorBlocks, arena.getPlugin().getConfig().getInt("Performance.Door-Restore-Per-Tick", 64));
+      doorRestore.start(arena.getPlugin().getArenaTickScheduler());
+    }
+  }
+
+  /**
+   * Completes door restoration before returning, doors already restored
+   * by a started restoration are not touched again.
+   *
+   * @see #startDoorRestore()
+   */
   public void restoreDoors() {
-    int i = 0;
-    for(Map.Entry<Location, Byte> entry : doorBlocks.entrySet()) {
-      Block block = entry.getKey().getBlock();
-      Byte doorData = entry.getValue();
-      try {
-        if(block.getType() != XMaterial.AIR.parseMaterial()) {
-          i++;
-          continue;
-        }
-        if(doorData == (byte) 8) {
-          restoreTopHalfDoorPart(block);
-          i++;
-          continue;
-        }
+    if(doorRestore == null) {
+      doorRestore = new DoorRestoreJob(this, doorBlocks, Integer.MAX_VALUE);
+    }
+    doorRestore.finish();
+    doorRestore = null;
+  }
+
+  /**
+   * Restores a single door block if it was broken.
+   *
+   * @param block     door block
+   * @param doorData  registered data of the door block, 8 for top half
+   * @return true if the door is in place
+   */
+  protected boolean restoreDoor(Block block, byte doorData) {
+    try {
+      if(block.getType() != XMaterial.AIR.parseMaterial()) {
+        return true;
+      }
+      if(doorData == (byte) 8) {
+        restoreTopHalfDoorPart(block);
+      } else {
         restoreBottomHalfDoorPart(block, doorData);
-        i++;
-      } catch(Exception ex) {
-        arena.getPlugin().getDebugger().debug(Level.WARNING, "Door has failed to load for arena {0} message {1} type {2} skipping!", arena.getId(), ex.getMessage(), ex.getCause());
       }
+      return true;
+    } catch(Exception ex) {
+      arena.getPlugin().getDebugger().debug(Level.WARNING, "Door has failed to load for arena {0} message {1} type {2} skipping!", arena.getId(), ex.getMessage(), ex.getCause());
+      return false;
     }
-    if(i != doorBlocks.size()) {
-      arena.getPlugin().getDebugger().debug(Level.WARNING, "Failed to load doors for {0}! Expected {1} got {2}", arena.getId(), doorBlocks.size(), i);
+  }
+
+  //reports the outcome the same way the former synchronous restore did, nothing waits on it
+  void onDoorsRestored(int restored, int expected, int ticks) {
+    if(restored != expected) {
+      arena.getPlugin().getDebugger().debug(Level.WARNING, "Failed to load doors for {0}! Expected {1} got {2}", arena.getId(), expected, restored);
     }
+    arena.getPlugin().getDebugger().debug("[{0}] Restored {1} doors over {2} ticks", arena.getId(), restored, ticks);
   }
 
   public void restoreTopHalfDoorPart(Block block) {
-    block.setType(Utils.getCachedDoor(block));
-    BlockState doorBlockState = block.getState();
-    Door doorBlockData = new Door(TreeSpecies.GENERIC, arena.getPlugin().getBukkitHelper().getFacingByByte((byte) 8));
-
-    doorBlockData.setTopHalf(true);
-    doorBlockData.setFacingDirection(doorBlockData.getFacing());
-
-    doorBlockState.setType(doorBlockData.getItemType());
-    doorBlockState.setData(doorBlockData);
-
-    doorBlockState.update(true);
+    restoreDoorPart(block, (byte) 8, true);
   }
 
   public void restoreBottomHalfDoorPart(Block block, byte doorData) {
+    restoreDoorPart(block, doorData, false);
+  }
+
+  private void restoreDoorPart(Block block, byte doorData, boolean topHalf) {
+    Door doorBlockData = getDoorData(doorData, topHalf);
+    if(doorBlockData == null) {
+      return;
+    }
     block.setType(Utils.getCachedDoor(block));
     BlockState doorBlockState = block.getState();
-    Door doorBlockData = new Door(TreeSpecies.GENERIC, arena.getPlugin().getBukkitHelper().getFacingByByte(doorData));
-
-    doorBlockData.setTopHalf(false);
-    doorBlockData.setFacingDirection(doorBlockData.getFacing());
 
     doorBlockState.setType(doorBlockData.getItemType());
     doorBlockState.setData(doorBlockData);
@@ -153,4 +288,24 @@ public class MapRestorerManager extends PluginMapRestorerManager {
     doorBlockState.update(true);
   }
 
+  //door data is only read by block state updates, one instance per facing is shared by all doors
+  private Door getDoorData(byte doorData, boolean topHalf) {
+    int key = topHalf ? 16 : doorData & 15;
+    Door door = doorDataCache[key];
+    if(door == null) {
+      door = createDoorData(doorData);
+      if(door == null) {
+        return null;
+      }
+      door.setTopHalf(topHalf);
+      door.setFacingDirection(door.getFacing());
+      doorDataCache[key] = door;
+    }
+    return door;
+  }
+
+  protected Door createDoorData(byte doorData) {
+    return new Door(TreeSpecies.GENERIC, arena.getPlugin().getBukkitHelper().getFacingByByte(doorData));
+  }
+
 }
@@ -18,13 +18,12 @@
 
 package plugily.projects.villagedefense.arena.managers.maprestorer;
 
-import java.util.Map;
-import java.util.logging.Level;
-import org.bukkit.Location;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import org.bukkit.Material;
 import org.bukkit.TreeSpecies;
 import org.bukkit.block.Block;
-import org.bukkit.block.BlockState;
 import org.bukkit.material.Door;
 import plugily.projects.minigamesbox.classic.utils.version.ServerVersion;
 import plugily.projects.minigamesbox.classic.utils.version.xseries.XMaterial;
@@ -39,103 +38,74 @@ import plugily.projects.villagedefense.utils.Utils;
 @SuppressWarnings("deprecation")
 public class MapRestorerManagerLegacy extends MapRestorerManager {
 
+  //resolved once instead of reflective lookups for every door
+  private static final MethodHandle GET_ID;
+  private static final MethodHandle SET_TYPE_ID_AND_DATA;
+
+  static {
+    MethodHandle getId = null;
+    MethodHandle setTypeIdAndData = null;
+    if(ServerVersion.Version.isCurrentEqualOrLower(ServerVersion.Version.v1_11)) {
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        getId = lookup.findVirtual(Material.class, "getId", MethodType.methodType(int.class));
+        setTypeIdAndData = lookup.findVirtual(Block.class, "setTypeIdAndData", MethodType.methodType(boolean.class, int.class, byte.class, boolean.class));
+      } catch(ReflectiveOperationException e) {
+        e.printStackTrace();
+        getId = null;
+        setTypeIdAndData = null;
+      }
+    }
+    GET_ID = getId;
+    SET_TYPE_ID_AND_DATA = setTypeIdAndData;
+  }
+
   public MapRestorerManagerLegacy(Arena arena) {
     super(arena);
   }
 
   @Override
-  public void restoreDoors() {
-    int i = 0;
-    for(Map.Entry<Location, Byte> entry : doorBlocks.entrySet()) {
-      Block block = entry.getKey().getBlock();
-      Byte doorData = entry.getValue();
-      if(ServerVersion.Version.isCurrentEqualOrLower(ServerVersion.Version.v1_11) && block.getType() != org.bukkit.Material.AIR) {
-        Material mat = Utils.getCachedDoor(block);
-        try {
-          int id = (int) mat.getClass().getDeclaredMethod("getId").invoke(mat);
-          block.getClass().getDeclaredMethod("setTypeIdAndData", int.class, byte.class, boolean.class)
-              .invoke(block, id, doorData, false);
-        } catch(Exception e) {
-          e.printStackTrace();
-        }
-        i++;
-      } else {
-        try {
-          if(block.getType() != XMaterial.AIR.parseMaterial()) {
-            i++;
-            continue;
-          }
-          if(doorData == (byte) 8) {
-            restoreTopHalfDoorPart(block);
-            i++;
-            continue;
-          }
-          restoreBottomHalfDoorPart(block, doorData);
-          i++;
-        } catch(Exception ex) {
-          arena.getPlugin().getDebugger().debug(Level.WARNING, "Door has failed to load for arena {0} message {1} type {2} skipping!", arena.getId(), ex.getMessage(), ex.getCause());
-        }
-      }
+  protected boolean restoreDoor(Block block, byte doorData) {
+    if(SET_TYPE_ID_AND_DATA == null || block.getType() == org.bukkit.Material.AIR) {
+      return super.restoreDoor(block, doorData);
     }
-    if(i != doorBlocks.size()) {
-      arena.getPlugin().getDebugger().debug(Level.WARNING, "Failed to load doors for {0}! Expected {1} got {2}", arena.getId(), doorBlocks.size(), i);
+    Material mat = Utils.getCachedDoor(block);
+    try {
+      int id = (int) GET_ID.invokeExact(mat);
+      SET_TYPE_ID_AND_DATA.invoke(block, id, doorData, false);
+    } catch(Throwable e) {
+      e.printStackTrace();
     }
+    return true;
   }
 
   @Override
-  public void restoreTopHalfDoorPart(Block block) {
-    block.setType(Utils.getCachedDoor(block));
-
-    Door doorBlockData = null;
+  protected void restoreBlock(Block block, Material type, byte data) {
+    if(SET_TYPE_ID_AND_DATA == null) {
+      super.restoreBlock(block, type, data);
+      return;
+    }
     try {
-      doorBlockData = new Door(TreeSpecies.GENERIC, arena.getPlugin().getBukkitHelper().getFacingByByte((byte) 8));
-    } catch (NoSuchMethodError e) {
-      try {
-        doorBlockData = Door.class.getDeclaredConstructor(Material.class, byte.class)
-            .newInstance(XMaterial.OAK_DOOR, arena.getPlugin().getBukkitHelper().getFacingByByte((byte) 8));
-      } catch (Exception ex) {
-        ex.printStackTrace();
-      }
+      int id = (int) GET_ID.invokeExact(type);
+      SET_TYPE_ID_AND_DATA.invoke(block, id, data, false);
+    } catch(Throwable e) {
+      e.printStackTrace();
     }
-
-    if (doorBlockData == null)
-      return;
-
-    BlockState doorBlockState = block.getState();
-
-    doorBlockData.setTopHalf(true);
-    doorBlockData.setFacingDirection(doorBlockData.getFacing());
-    doorBlockState.setType(doorBlockData.getItemType());
-    doorBlockState.setData(doorBlockData);
-    doorBlockState.update(true);
   }
 
   @Override
-  public void restoreBottomHalfDoorPart(Block block, byte doorData) {
-    block.setType(Utils.getCachedDoor(block));
-
-    Door doorBlockData = null;
+  protected Door createDoorData(byte doorData) {
     try {
-      doorBlockData = new Door(TreeSpecies.GENERIC, arena.getPlugin().getBukkitHelper().getFacingByByte(doorData));
+      return new Door(TreeSpecies.GENERIC, arena.getPlugin().getBukkitHelper().getFacingByByte(doorData));
     } catch (NoSuchMethodError e) {
       try {
-        doorBlockData = Door.class.getDeclaredConstructor(Material.class, byte.class)
-            .newInstance(XMaterial.OAK_DOOR.parseMaterial(), arena.getPlugin().getBukkitHelper().getFacingByByte(doorData));
+        return Door.class.getDeclaredConstructor(Material.class, byte.class)
+            .newInstance(XMaterial.OAK_DOOR.parseMaterial(), doorData);
       } catch (Exception ex) {
         ex.printStackTrace();
       }
     }
-
-    if (doorBlockData == null)
-      return;
-
-    BlockState doorBlockState = block.getState();
-
-    doorBlockData.setTopHalf(false);
-    doorBlockData.setFacingDirection(doorBlockData.getFacing());
-    doorBlockState.setType(doorBlockData.getItemType());
-    doorBlockState.setData(doorBlockData);
-    doorBlockState.update(true);
+    return null;
   }
 
 }
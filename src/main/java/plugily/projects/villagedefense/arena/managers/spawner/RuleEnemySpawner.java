@@ -0,0 +1,120 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.arena.managers.spawner;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Creature;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+import plugily.projects.villagedefense.arena.Arena;
+
+/**
+ * Simple enemy spawner which decides when and how many enemies spawn by
+ * {@link SpawnRules} from creatures.yml, spawning itself is left to the wrapped spawner.
+ */
+public class RuleEnemySpawner implements SimpleEnemySpawner {
+
+  private final SimpleEnemySpawner spawner;
+  private final SpawnRules rules;
+  private final int minWave;
+  private final int maxWave;
+
+  /**
+   * @param spawner spawner creating the enemies
+   * @param rules   compiled spawn rules
+   * @param minWave minimum wave, 0 keeps the minimum wave of the spawner
+   * @param maxWave maximum wave, 0 keeps the maximum wave of the spawner
+   */
+  public RuleEnemySpawner(SimpleEnemySpawner spawner, SpawnRules rules, int minWave, int maxWave) {
+    this.spawner = spawner;
+    this.rules = rules;
+    this.minWave = minWave == 0 ? spawner.getMinWave() : minWave;
+    this.maxWave = maxWave == 0 ? spawner.getMaxWave() : maxWave;
+  }
+
+  @Override
+  public double getSpawnRate(Arena arena, int wave, int phase, int spawnAmount) {
+    return rules.getSpawnRate(wave, phase, spawnAmount);
+  }
+
+  @Override
+  public int getFinalAmount(Arena arena, int wave, int phase, int spawnAmount) {
+    return rules.getFinalAmount(wave, phase, spawnAmount);
+  }
+
+  @Override
+  public boolean checkPhase(Arena arena, int wave, int phase, int spawnAmount) {
+    return rules.checkPhase(wave, phase, spawnAmount);
+  }
+
+  @Override
+  public int getMinWave() {
+    return minWave;
+  }
+
+  @Override
+  public int getMaxWave() {
+    return maxWave;
+  }
+
+  @Override
+  public boolean canApplyHolidayEffect() {
+    return spawner.canApplyHolidayEffect();
+  }
+
+  @Override
+  public boolean canApplyAttributes() {
+    return spawner.canApplyAttributes();
+  }
+
+  @Override
+  public int getSpawnWeight(Arena arena, int wave, int phase, int spawnAmount) {
+    return spawner.getSpawnWeight(arena, wave, phase, spawnAmount);
+  }
+
+  @Nullable
+  @Override
+  public Creature spawn(Location location) {
+    return spawner.spawn(location);
+  }
+
+  @Override
+  public String getName() {
+    return spawner.getName();
+  }
+
+  @Override
+  public int getPriority() {
+    return spawner.getPriority();
+  }
+
+  @Override
+  public ItemStack getDropItem() {
+    return spawner.getDropItem();
+  }
+
+  public SimpleEnemySpawner getSpawner() {
+    return spawner;
+  }
+
+  public SpawnRules getRules() {
+    return rules;
+  }
+
+}
@@ -67,6 +67,17 @@ public interface SimpleEnemySpawner extends EnemySpawner {
     return true;
   }
 
+  /**
+   * Do the spawn decisions depend on living arena entities (enemies, golems, villagers...)?
+   * Such spawners are not compiled into the wave spawn plan and are evaluated every spawn cycle.
+   *
+   * @return true if they do
+   * @see WaveSpawnPlan
+   */
+  default boolean dependsOnArenaState() {
+    return false;
+  }
+
   /**
    * How often the enemies will be spawned? Amount between 0.0 and 1.0
    *
@@ -124,12 +135,24 @@ public interface SimpleEnemySpawner extends EnemySpawner {
   }
 
   /**
-   * Spawn the enemy at the location of the arena.
+   * Queue the enemy spawn at the location of the arena.
+   * The enemy is created later by the spawn queue drainer.
    *
    * @param location the location
    * @param arena    the arena
+   * @see plugily.projects.villagedefense.arena.managers.SpawnQueue
    */
   default void spawn(Location location, Arena arena) {
+    arena.getSpawnQueue().add(this, location);
+  }
+
+  /**
+   * Spawn the enemy at the location of the arena immediately.
+   *
+   * @param location the location
+   * @param arena    the arena
+   */
+  default void spawnNow(Location location, Arena arena) {
     Creature creature = spawn(location);
     if(creature == null) {
       return;
@@ -140,7 +163,7 @@ public interface SimpleEnemySpawner extends EnemySpawner {
     if(canApplyHolidayEffect()) {
       arena.getPlugin().getHolidayManager().applyHolidayCreatureEffects(creature);
     }
-    arena.getEnemies().add(creature);
+    arena.addEnemy(creature);
   }
 
   //TODO Simplify creature spawn reduce to one method e.g. spawn; add weight to creatures configurable!
@@ -148,26 +171,24 @@ public interface SimpleEnemySpawner extends EnemySpawner {
   default void spawn(Random random, Arena arena, int spawn) {
     int wave = arena.getWave();
     int phase = arena.getArenaOption("ZOMBIE_SPAWN_COUNTER");
-    arena.getPlugin().getDebugger().debug("Current Wave: " + wave + " Current Phase: " + phase + " Current spawn: " + spawn + " CHECK PHASE: " + checkPhase(arena, wave, phase, spawn));
-    if(!checkPhase(arena, wave, phase, spawn)) {
+    boolean phaseCheck = checkPhase(arena, wave, phase, spawn);
+    arena.getPlugin().getDebugger().debug("Current Wave: {0} Current Phase: {1} Current spawn: {2} CHECK PHASE: {3}", wave, phase, spawn, phaseCheck);
+    if(!phaseCheck) {
       return;
     }
 
-
     int maxWave = getMaxWave();
-    arena.getPlugin().getDebugger().debug("Current Wave: " + wave + " Max wave: " + maxWave + " CHECK WAVE: " + (wave < getMinWave() || (maxWave > 0 && wave > maxWave)));
-
     if(wave < getMinWave() || (maxWave > 0 && wave > maxWave)) {
+      arena.getPlugin().getDebugger().debug("Current Wave: {0} is out of wave range of {1}", wave, getName());
       return;
     }
     int spawnAmount = getFinalAmount(arena, wave, phase, spawn);
     double spawnRate = getSpawnRate(arena, wave, phase, spawn);
-    int weight = getSpawnWeight(arena, wave, phase, spawn);
-    arena.getPlugin().getDebugger().debug("Current Wave: " + wave + " Current Spawn amount: " + spawnAmount + " Current spawnRate: " + spawnRate + " Current Spawn Weight: " + weight);
+    int weight = getSpawnWeight(arena, wave, phase, spawn) * arena.getHordeFactor();
+    arena.getPlugin().getDebugger().debug("Current Wave: {0} Current Spawn amount: {1} Current spawnRate: {2} Current Spawn Weight: {3}", wave, spawnAmount, spawnRate, weight);
 
     for(int i = 0; i < spawnAmount; i++) {
       int zombiesToSpawn = arena.getArenaOption("ZOMBIES_TO_SPAWN");
-      arena.getPlugin().getDebugger().debug("Current Wave: " + wave + " Current Spawn amount: " + spawnAmount + " Current i: " + i + " CHECK SPAWN: " + (zombiesToSpawn >= weight && spawnRate != 0 && (spawnRate == 1 || random.nextDouble() < spawnRate)));
       if(zombiesToSpawn >= weight && spawnRate != 0 && (spawnRate == 1 || random.nextDouble() < spawnRate)) {
         Location location = arena.getRandomZombieSpawnLocation(random);
         spawn(location, arena);
@@ -0,0 +1,220 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.arena.managers.spawner;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Spawn rules of a creature compiled from the rates section of creatures.yml.
+ * <p>
+ * Every rate type (spawn, amount and check) is an ordered list of rules, the first rule
+ * matching phase, wave and raw spawn amount wins. Rules are compiled into a table
+ * indexed by phase and wave segment, wave segments are found by a binary search
+ * over the sorted wave thresholds, so evaluation reads only the few rules which
+ * can match instead of walking every rule of the creature.
+ * <p>
+ * Rule fields follow the creatures.yml format: phase 0 matches every phase,
+ * wave_higher, wave_lower and spawn_lower of 0 are unbounded,
+ * rate and division of 0 are 1.
+ */
+public final class SpawnRules {
+
+  /**
+   * Amount of spawn phases, phase counter of the arena cycles from 0 to PHASES - 1
+   */
+  public static final int PHASES = 20;
+
+  private final Table spawn;
+  private final Table amount;
+  private final Table check;
+
+  private SpawnRules(Table spawn, Table amount, Table check) {
+    this.spawn = spawn;
+    this.amount = amount;
+    this.check = check;
+  }
+
+  /**
+   * Compiles rules of the rates section.
+   *
+   * @param rates rates section of the creature, e.g. Creatures.Content.FAST_ZOMBIE.rates
+   * @return compiled rules or null if the section contains no rule
+   */
+  @Nullable
+  public static SpawnRules compile(@Nullable ConfigurationSection rates) {
+    if(rates == null) {
+      return null;
+    }
+    Table spawn = Table.compile(rates.getConfigurationSection("spawn"));
+    Table amount = Table.compile(rates.getConfigurationSection("amount"));
+    Table check = Table.compile(rates.getConfigurationSection("check"));
+    if(spawn.rules == 0 && amount.rules == 0 && check.rules == 0) {
+      return null;
+    }
+    return new SpawnRules(spawn, amount, check);
+  }
+
+  /**
+   * @return spawn rate of the first matching spawn rule or 0
+   */
+  public double getSpawnRate(int wave, int phase, int spawnAmount) {
+    int rule = spawn.find(wave, phase, spawnAmount);
+    return rule < 0 ? 0 : spawn.ratio[rule] - spawn.reduce[rule];
+  }
+
+  /**
+   * @return raw amount divided by the ratio of the first matching amount rule or 0
+   */
+  public int getFinalAmount(int wave, int phase, int spawnAmount) {
+    int rule = amount.find(wave, phase, spawnAmount);
+    return rule < 0 ? 0 : (int) ((spawnAmount / amount.ratio[rule]) - amount.reduce[rule]);
+  }
+
+  /**
+   * @return true if any check rule matches
+   */
+  public boolean checkPhase(int wave, int phase, int spawnAmount) {
+    return check.find(wave, phase, spawnAmount) >= 0;
+  }
+
+  private static final class Table {
+
+    private final int rules;
+    //per rule values, wave and spawn bounds are already made inclusive integers
+    private final double[] ratio;
+    private final int[] reduce;
+    private final int[] maxSpawn;
+    //sorted wave values at which the set of matching rules changes
+    private final int[] waveThresholds;
+    private final int segments;
+    //candidate rules of (phase row, wave segment) cells in rule order
+    private final int[] cellStart;
+    private final int[] candidates;
+
+    private Table(int rules, double[] ratio, int[] reduce, int[] maxSpawn, int[] waveThresholds, int[] cellStart, int[] candidates) {
+      this.rules = rules;
+      this.ratio = ratio;
+      this.reduce = reduce;
+      this.maxSpawn = maxSpawn;
+      this.waveThresholds = waveThresholds;
+      this.segments = waveThresholds.length + 1;
+      this.cellStart = cellStart;
+      this.candidates = candidates;
+    }
+
+    private static Table compile(@Nullable ConfigurationSection section) {
+      List<ConfigurationSection> sections = new ArrayList<>();
+      if(section != null) {
+        for(String key : section.getKeys(false)) {
+          ConfigurationSection rule = section.getConfigurationSection(key);
+          if(rule != null) {
+            sections.add(rule);
+          }
+        }
+      }
+      int rules = sections.size();
+      int[] phases = new int[rules];
+      int[] minWave = new int[rules];
+      int[] maxWave = new int[rules];
+      double[] ratio = new double[rules];
+      int[] reduce = new int[rules];
+      int[] maxSpawn = new int[rules];
+      TreeSet<Integer> thresholds = new TreeSet<>();
+      for(int i = 0; i < rules; i++) {
+        ConfigurationSection rule = sections.get(i);
+        phases[i] = rule.getInt("phase", 0);
+        int waveHigher = rule.getInt("wave_higher", 0);
+        int waveLower = rule.getInt("wave_lower", 0);
+        int spawnLower = rule.getInt("spawn_lower", 0);
+        int rate = rule.getInt("rate", 0);
+        int division = rule.getInt("division", 0);
+        minWave[i] = waveHigher == 0 ? Integer.MIN_VALUE : waveHigher;
+        maxWave[i] = waveLower == 0 ? Integer.MAX_VALUE : waveLower;
+        maxSpawn[i] = spawnLower == 0 ? Integer.MAX_VALUE : spawnLower;
+        ratio[i] = (double) (rate == 0 ? 1 : rate) / (division == 0 ? 1 : division);
+        reduce[i] = rule.getInt("reduce", 0);
+        if(minWave[i] != Integer.MIN_VALUE) {
+          thresholds.add(minWave[i]);
+        }
+        if(maxWave[i] != Integer.MAX_VALUE) {
+          thresholds.add(maxWave[i] + 1);
+        }
+      }
+      int[] waveThresholds = new int[thresholds.size()];
+      int index = 0;
+      for(int threshold : thresholds) {
+        waveThresholds[index++] = threshold;
+      }
+      int segments = waveThresholds.length + 1;
+      //last phase row is used for phases out of range, only phase 0 rules match there
+      int cells = (PHASES + 1) * segments;
+      int[] cellStart = new int[cells + 1];
+      int[] candidates = new int[cells * Math.max(1, rules)];
+      int size = 0;
+      for(int row = 0; row <= PHASES; row++) {
+        for(int segment = 0; segment < segments; segment++) {
+          cellStart[row * segments + segment] = size;
+          //every wave of a segment matches the same rules, check with its first wave
+          int wave = segment == 0 ? Integer.MIN_VALUE : waveThresholds[segment - 1];
+          for(int rule = 0; rule < rules; rule++) {
+            boolean phaseMatches = phases[rule] == 0 || (row < PHASES && phases[rule] == row);
+            if(phaseMatches && wave >= minWave[rule] && wave <= maxWave[rule]) {
+              candidates[size++] = rule;
+            }
+          }
+        }
+      }
+      cellStart[cells] = size;
+      return new Table(rules, ratio, reduce, maxSpawn, waveThresholds, cellStart, Arrays.copyOf(candidates, size));
+    }
+
+    private int find(int wave, int phase, int spawnAmount) {
+      int row = phase >= 0 && phase < PHASES ? phase : PHASES;
+      int cell = row * segments + segment(wave);
+      for(int i = cellStart[cell], end = cellStart[cell + 1]; i < end; i++) {
+        int rule = candidates[i];
+        if(spawnAmount <= maxSpawn[rule]) {
+          return rule;
+        }
+      }
+      return -1;
+    }
+
+    private int segment(int wave) {
+      //amount of thresholds lower or equal to the wave
+      int low = 0, high = waveThresholds.length;
+      while(low < high) {
+        int mid = (low + high) >>> 1;
+        if(waveThresholds[mid] <= wave) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+
+}
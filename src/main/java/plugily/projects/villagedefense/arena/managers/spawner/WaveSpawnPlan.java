@@ -0,0 +1,258 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.arena.managers.spawner;
+
+import org.bukkit.Location;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.managers.SpawnPointSelector;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Precompiled enemy spawn schedule of a single wave.
+ * <p>
+ * Entries are packed in one int array as (spawn cycle, spawner id, spawn point draw, weight)
+ * and evaluated from the spawner rules with a seeded random, spawning only pops due entries
+ * so the cost of a spawn cycle does not depend on the amount of registered spawners.
+ * The same seed and arena state always produce the same entries. Spawn point draws are random bits
+ * resolved by the {@link SpawnPointSelector} when the entry is spawned, so the point reflects
+ * crowding at that time. With congestion aware spawn points the picked locations are therefore
+ * not reproducible from the seed, only spawners, cycles and amounts are.
+ * <p>
+ * The opening cycle is compiled when the wave starts, the following cycles are compiled in
+ * windows of one phase period just before they are due, each window takes the amount left
+ * to spawn from the arena. Spawners which are not {@link SimpleEnemySpawner} or whose decisions
+ * depend on living arena entities ({@link SimpleEnemySpawner#dependsOnArenaState()}) are not
+ * compiled and are called every cycle.
+ */
+public class WaveSpawnPlan {
+
+  private static final int ENTRY_SIZE = 4;
+  private static final int PHASES = SpawnRules.PHASES;
+
+  private final Arena arena;
+  private final EnemySpawner[] spawners;
+  private final long seed;
+  private final Random random;
+  private final int spawnAmount;
+  private final int[] order;
+  private int[] entries = new int[64 * ENTRY_SIZE];
+  private int size;
+  private int cursor;
+  private int cycle;
+  private int compiledCycles;
+  private int budget;
+  //weight of compiled entries which were not spawned yet
+  private int pendingWeight;
+  private int phase;
+  private int runtimePhase;
+  private boolean exhausted;
+
+  private WaveSpawnPlan(Arena arena, EnemySpawner[] spawners, long seed, int spawnAmount) {
+    this.arena = arena;
+    this.spawners = spawners;
+    this.seed = seed;
+    this.random = new Random(seed);
+    this.spawnAmount = spawnAmount;
+    this.order = new int[spawners.length];
+    this.budget = arena.getArenaOption("ZOMBIES_TO_SPAWN");
+    this.phase = arena.getArenaOption("ZOMBIE_SPAWN_COUNTER");
+    this.runtimePhase = phase;
+  }
+
+  /**
+   * Compiles opening cycle of the wave plan.
+   *
+   * @param arena       arena to compile the plan for, ZOMBIES_TO_SPAWN must be already set
+   * @param spawners    registered enemy spawners, index is used as spawner id
+   * @param seed        seed of the plan random
+   * @param spawnAmount raw amount the arena suggests per spawner
+   * @return compiled plan
+   */
+  public static WaveSpawnPlan compile(Arena arena, EnemySpawner[] spawners, long seed, int spawnAmount) {
+    WaveSpawnPlan plan = new WaveSpawnPlan(arena, spawners, seed, spawnAmount);
+    plan.compileCycles(1);
+    return plan;
+  }
+
+  /**
+   * Advances the plan to the next spawn cycle and spawns all its entries.
+   */
+  public void spawnNextCycle() {
+    nextCycle();
+    spawnDue(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Advances the plan to the next spawn cycle, entries of the cycle become due.
+   * Spawners which are not part of the plan are called here.
+   */
+  public void nextCycle() {
+    if(cycle >= compiledCycles) {
+      int sizeBefore = size;
+      budget = arena.getArenaOption("ZOMBIES_TO_SPAWN") - pendingWeight;
+      compileCycles(PHASES);
+      //a whole phase period without any entry, per cycle spawning has to take over
+      exhausted = size == sizeBefore && cursor >= size;
+    }
+    runtimePhase = nextPhase(runtimePhase);
+    arena.setArenaOption("ZOMBIE_SPAWN_COUNTER", runtimePhase);
+    for(EnemySpawner spawner : spawners) {
+      if(!isCompiled(spawner) && arena.getArenaOption("ZOMBIES_TO_SPAWN") > 0) {
+        spawner.spawn(random, arena, spawnAmount);
+      }
+    }
+    cycle++;
+  }
+
+  /**
+   * Spawns due entries, entries over the limit stay due for the next call.
+   *
+   * @param maxEntries maximum amount of entries to spawn
+   * @return amount of processed entries
+   */
+  public int spawnDue(int maxEntries) {
+    List<Location> spawnPoints = arena.getZombieSpawns();
+    SpawnPointSelector selector = arena.getSpawnPointSelector();
+    int processed = 0;
+    while(processed < maxEntries && cursor < size && entries[cursor * ENTRY_SIZE] < cycle) {
+      int offset = cursor * ENTRY_SIZE;
+      cursor++;
+      processed++;
+      SimpleEnemySpawner spawner = (SimpleEnemySpawner) spawners[entries[offset + 1]];
+      int pointDraw = entries[offset + 2];
+      int weight = entries[offset + 3];
+      pendingWeight -= weight;
+      int zombiesToSpawn = arena.getArenaOption("ZOMBIES_TO_SPAWN");
+      //amount could be changed since compilation e.g. by clear command
+      if(zombiesToSpawn < weight || spawnPoints.isEmpty()) {
+        continue;
+      }
+      spawner.spawn(spawnPoints.get(selector.nextIndex(pointDraw)), arena);
+      arena.setArenaOption("ZOMBIES_TO_SPAWN", zombiesToSpawn - weight);
+    }
+    return processed;
+  }
+
+  private void compileCycles(int amount) {
+    int wave = arena.getWave();
+    for(int i = 0; i < amount; i++) {
+      //phase advances with every cycle even if nothing is left to compile
+      phase = nextPhase(phase);
+      if(budget > 0) {
+        shuffleOrder();
+        for(int spawnerId : order) {
+          EnemySpawner spawner = spawners[spawnerId];
+          if(isCompiled(spawner)) {
+            compileSpawner((SimpleEnemySpawner) spawner, spawnerId, wave);
+          }
+        }
+      }
+      compiledCycles++;
+    }
+  }
+
+  private static boolean isCompiled(EnemySpawner spawner) {
+    return spawner instanceof SimpleEnemySpawner && !((SimpleEnemySpawner) spawner).dependsOnArenaState();
+  }
+
+  private void compileSpawner(SimpleEnemySpawner spawner, int spawnerId, int wave) {
+    if(!spawner.checkPhase(arena, wave, phase, spawnAmount)) {
+      return;
+    }
+    int maxWave = spawner.getMaxWave();
+    if(wave < spawner.getMinWave() || (maxWave > 0 && wave > maxWave)) {
+      return;
+    }
+    int amount = spawner.getFinalAmount(arena, wave, phase, spawnAmount);
+    double spawnRate = spawner.getSpawnRate(arena, wave, phase, spawnAmount);
+    int weight = spawner.getSpawnWeight(arena, wave, phase, spawnAmount) * arena.getHordeFactor();
+    if(spawnRate == 0) {
+      return;
+    }
+    for(int i = 0; i < amount; i++) {
+      if(budget >= weight && (spawnRate == 1 || random.nextDouble() < spawnRate)) {
+        add(compiledCycles, spawnerId, random.nextInt(), weight);
+        budget -= weight;
+        pendingWeight += weight;
+      }
+    }
+  }
+
+  private void shuffleOrder() {
+    for(int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    for(int i = order.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = order[i];
+      order[i] = order[j];
+      order[j] = swap;
+    }
+  }
+
+  private void add(int spawnCycle, int spawnerId, int pointDraw, int weight) {
+    int offset = size * ENTRY_SIZE;
+    if(offset + ENTRY_SIZE > entries.length) {
+      entries = Arrays.copyOf(entries, entries.length * 2);
+    }
+    entries[offset] = spawnCycle;
+    entries[offset + 1] = spawnerId;
+    entries[offset + 2] = pointDraw;
+    entries[offset + 3] = weight;
+    size++;
+  }
+
+  private static int nextPhase(int phase) {
+    return phase + 1 >= PHASES ? 0 : phase + 1;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * @return amount of compiled entries
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return amount of entries not spawned yet
+   */
+  public int getRemaining() {
+    return size - cursor;
+  }
+
+  /**
+   * Plan is exhausted when a whole compiled window did not produce any entry while
+   * enemies were still left to spawn, e.g. because of low spawn rates or because the
+   * amount left is lower than every spawner weight.
+   *
+   * @return true if the plan cannot make progress and per cycle spawning should take over
+   */
+  public boolean isExhausted() {
+    return exhausted;
+  }
+
+}
@@ -40,7 +40,7 @@ public class InGameState extends PluginInGameState {
     if(pluginArena == null) {
       return;
     }
-    pluginArena.getEnemySpawnManager().spawnGlitchCheck();
+    //glitch check and enemy spawning are run by ArenaTickScheduler in arena tick phase
 
     if(pluginArena.getVillagers().isEmpty() || arena.getPlayersLeft().isEmpty() && arena.getArenaState() != IArenaState.ENDING) {
       getPlugin().getArenaManager().stopGame(false, arena);
@@ -56,7 +56,7 @@ public class InGameState extends PluginInGameState {
         pluginArena.setFighting(false);
         pluginArena.getPlugin().getArenaManager().endWave(pluginArena);
       } else if(arena.getArenaOption("ZOMBIES_TO_SPAWN") > 0) {
-        pluginArena.getEnemySpawnManager().spawnEnemies();
+        pluginArena.getEnemySpawnManager().requestSpawn();
         setArenaTimer(500);
       }
       if(ServerVersion.Version.isCurrentEqualOrHigher(ServerVersion.Version.v1_9)) {
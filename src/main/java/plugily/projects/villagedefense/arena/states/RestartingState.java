@@ -34,8 +34,13 @@ public class RestartingState extends PluginRestartingState {
 
   @Override
   public void handleCall(PluginArena arena) {
-    super.handleCall(arena);
     Arena pluginArena = (Arena) getPlugin().getArenaRegistry().getArena(arena.getId());
+    if(pluginArena != null && arena.getTimer() > 0) {
+      //spread block and door restoration over the countdown, the map restore only finishes the rest
+      pluginArena.getMapRestorerManager().startBlockJournalReplay();
+      pluginArena.getMapRestorerManager().startDoorRestore();
+    }
+    super.handleCall(arena);
     if(pluginArena == null) {
       return;
     }
@@ -118,13 +118,6 @@ public class AdditionalValueInitializer {
      * ending current wave and start another
      */
     getArenaOptionManager().registerArenaOption("ZOMBIES_TO_SPAWN", new ArenaOption("null", 0));
-    /**
-     * Value used to check all alive zombies if they weren't glitched on map
-     * i.e. still stay near spawn position but cannot move.
-     * <p>
-     * Arena itself checks this value each time it reaches 60 (so each 60 seconds).
-     */
-    getArenaOptionManager().registerArenaOption("ZOMBIE_GLITCH_CHECKER", new ArenaOption("null", 0));
     /**
      * Value that describes progress of zombies spawning in wave in arena.
      * <p>
@@ -153,6 +146,14 @@ public class AdditionalValueInitializer {
      * So each zombie will get 30 HP more, harder!
      */
     getArenaOptionManager().registerArenaOption("ZOMBIE_DIFFICULTY_MULTIPLIER", new ArenaOption("null", 1));
+    /**
+     * Amount of zombies one spawned enemy stands for in the current wave.
+     * <p>
+     * Above 1 only when compressed horde is enabled and the wave exceeds the creature limit.
+     * Such enemy has multiplied health and damage, counts as that many zombies left
+     * and is rewarded that many times when killed.
+     */
+    getArenaOptionManager().registerArenaOption("HORDE_FACTOR", new ArenaOption("null", 1));
   }
 
   private ConfigPreferences getConfigPreferences() {
@@ -22,6 +22,8 @@ import plugily.projects.minigamesbox.classic.commands.arguments.PluginArgumentsR
 import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.commands.arguments.admin.AddOrbsArgument;
 import plugily.projects.villagedefense.commands.arguments.admin.ClearEntitiesArgument;
+import plugily.projects.villagedefense.commands.arguments.admin.DebugArgument;
+import plugily.projects.villagedefense.commands.arguments.admin.PerfArgument;
 import plugily.projects.villagedefense.commands.arguments.admin.RespawnArgument;
 import plugily.projects.villagedefense.commands.arguments.admin.SetPriceArgument;
 import plugily.projects.villagedefense.commands.arguments.admin.arena.SetWaveArgument;
@@ -46,5 +48,7 @@ public class ArgumentsRegistry extends PluginArgumentsRegistry {
     new ClearEntitiesArgument(this);
     new RespawnArgument(this);
     new SetPriceArgument(this);
+    new PerfArgument(this);
+    new DebugArgument(this);
   }
 }
@@ -30,6 +30,7 @@ import plugily.projects.minigamesbox.classic.commands.arguments.data.LabeledComm
 import plugily.projects.minigamesbox.classic.commands.completion.CompletableArgument;
 import plugily.projects.minigamesbox.classic.handlers.language.MessageBuilder;
 import plugily.projects.minigamesbox.classic.utils.version.VersionUtils;
+import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.arena.Arena;
 import plugily.projects.villagedefense.arena.ArenaUtils;
 import plugily.projects.villagedefense.commands.arguments.ArgumentsRegistry;
@@ -67,10 +68,9 @@ public class ClearEntitiesArgument {
               return;
             }
             for(Villager villager : arena.getVillagers()) {
-              VersionUtils.sendParticles("LAVA", arena.getPlayers(), villager.getLocation(), 20);
-              villager.remove();
+              ((Main) registry.getPlugin()).getEffectDispatcher().particle("LAVA", arena, villager.getLocation(), 20);
             }
-            arena.getVillagers().clear();
+            arena.removeAllVillagers();
             VersionUtils.playSound(((Player) sender).getLocation(), "ENTITY_VILLAGER_DEATH");
             clearMessage = new MessageBuilder("IN_GAME_MESSAGES_ADMIN_REMOVED_VILLAGERS").asKey().build();
             break;
@@ -80,6 +80,7 @@ public class ClearEntitiesArgument {
               return;
             }
             ArenaUtils.removeSpawnedEnemies(arena);
+            arena.getSpawnQueue().clear();
             arena.setArenaOption("ZOMBIES_TO_SPAWN", 0);
             VersionUtils.playSound(((Player) sender).getLocation(), "ENTITY_ZOMBIE_DEATH");
             clearMessage = new MessageBuilder("IN_GAME_MESSAGES_ADMIN_REMOVED_ZOMBIES").asKey().build();
@@ -90,10 +91,9 @@ public class ClearEntitiesArgument {
               return;
             }
             for(IronGolem golem : arena.getIronGolems()) {
-              VersionUtils.sendParticles("LAVA", arena.getPlayers(), golem.getLocation(), 20);
-              golem.remove();
+              ((Main) registry.getPlugin()).getEffectDispatcher().particle("LAVA", arena, golem.getLocation(), 20);
             }
-            arena.getIronGolems().clear();
+            arena.removeAllIronGolems();
             VersionUtils.playSound(((Player) sender).getLocation(), "ENTITY_IRONGOLEM_DEATH");
             clearMessage = new MessageBuilder("IN_GAME_MESSAGES_ADMIN_REMOVED_GOLEMS").asKey().build();
             break;
@@ -103,10 +103,9 @@ public class ClearEntitiesArgument {
               return;
             }
             for(Wolf wolf : arena.getWolves()) {
-              VersionUtils.sendParticles("LAVA", arena.getPlayers(), wolf.getLocation(), 20);
-              wolf.remove();
+              ((Main) registry.getPlugin()).getEffectDispatcher().particle("LAVA", arena, wolf.getLocation(), 20);
             }
-            arena.getWolves().clear();
+            arena.removeAllWolves();
             VersionUtils.playSound(((Player) sender).getLocation(), "ENTITY_WOLF_DEATH");
             clearMessage = new MessageBuilder("IN_GAME_MESSAGES_ADMIN_REMOVED_WOLVES").asKey().build();
             break;
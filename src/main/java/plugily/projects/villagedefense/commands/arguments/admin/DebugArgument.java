@@ -0,0 +1,61 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.commands.arguments.admin;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import plugily.projects.minigamesbox.classic.commands.arguments.data.CommandArgument;
+import plugily.projects.minigamesbox.classic.commands.arguments.data.LabelData;
+import plugily.projects.minigamesbox.classic.commands.arguments.data.LabeledCommandArgument;
+import plugily.projects.minigamesbox.classic.commands.completion.CompletableArgument;
+import plugily.projects.minigamesbox.classic.handlers.language.MessageBuilder;
+import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.arena.EntityLifecycleBus;
+import plugily.projects.villagedefense.commands.arguments.ArgumentsRegistry;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Debug views of plugin internals, currently only sizes of per entity caches.
+ */
+public class DebugArgument {
+
+  public DebugArgument(ArgumentsRegistry registry) {
+    registry.getTabCompletion().registerCompletion(new CompletableArgument("villagedefenseadmin", "debug", Collections.singletonList("memory")));
+    registry.mapArgument("villagedefenseadmin", new LabeledCommandArgument("debug", "villagedefense.admin.debug", CommandArgument.ExecutorType.BOTH,
+        new LabelData("/vda debug &6memory", "/vda debug memory",
+            "&7Show amount of entries held by every per entity cache\n&6Permission: &7villagedefense.admin.debug")) {
+      @Override
+      public void execute(CommandSender sender, String[] args) {
+        if(args.length < 2 || !"memory".equalsIgnoreCase(args[1])) {
+          new MessageBuilder(ChatColor.RED + "Usage: /vda debug memory").prefix().send(sender);
+          return;
+        }
+        EntityLifecycleBus lifecycleBus = ((Main) registry.getPlugin()).getEntityLifecycleBus();
+        new MessageBuilder(ChatColor.GOLD + "Cache sizes (" + lifecycleBus.getSubscribersAmount() + " lifecycle subscribers):").prefix().send(sender);
+        for(Map.Entry<String, Integer> entry : lifecycleBus.getCacheSizes().entrySet()) {
+          new MessageBuilder(ChatColor.YELLOW + entry.getKey() + ChatColor.GRAY + ": " + ChatColor.WHITE + entry.getValue()).send(sender);
+        }
+      }
+    });
+  }
+
+}
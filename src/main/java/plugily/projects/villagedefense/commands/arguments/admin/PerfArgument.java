@@ -0,0 +1,107 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.commands.arguments.admin;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import plugily.projects.minigamesbox.classic.commands.arguments.data.CommandArgument;
+import plugily.projects.minigamesbox.classic.commands.arguments.data.LabelData;
+import plugily.projects.minigamesbox.classic.commands.arguments.data.LabeledCommandArgument;
+import plugily.projects.minigamesbox.classic.commands.completion.CompletableArgument;
+import plugily.projects.minigamesbox.classic.handlers.language.MessageBuilder;
+import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.commands.arguments.ArgumentsRegistry;
+import plugily.projects.villagedefense.metrics.LatencyHistogram;
+import plugily.projects.villagedefense.metrics.MetricsRegistry;
+import plugily.projects.villagedefense.metrics.Timer;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prints subsystem timings of the metrics sliding window.
+ */
+public class PerfArgument {
+
+  private static final int MAX_LINES = 20;
+
+  public PerfArgument(ArgumentsRegistry registry) {
+    List<String> arenaIds = new ArrayList<>();
+    for(Arena arena : ((Main) registry.getPlugin()).getArenaRegistry().getPluginArenas()) {
+      arenaIds.add(arena.getId());
+    }
+    registry.getTabCompletion().registerCompletion(new CompletableArgument("villagedefenseadmin", "perf", arenaIds));
+    registry.mapArgument("villagedefenseadmin", new LabeledCommandArgument("perf", "villagedefense.admin.perf", CommandArgument.ExecutorType.BOTH,
+        new LabelData("/vda perf &6[arena]", "/vda perf [arena]",
+            "&7Show p50/p99/max time per plugin subsystem\n&7Optionally only for one arena\n&6Permission: &7villagedefense.admin.perf")) {
+      @Override
+      public void execute(CommandSender sender, String[] args) {
+        Main plugin = (Main) registry.getPlugin();
+        MetricsRegistry metrics = plugin.getMetricsRegistry();
+        Map<String, Timer> timers;
+        if(args.length > 1) {
+          Arena arena = plugin.getArenaRegistry().getArena(args[1]);
+          if(arena == null) {
+            new MessageBuilder("COMMANDS_NO_ARENA_LIKE_THAT").asKey().send(sender);
+            return;
+          }
+          timers = metrics.getTimers(arena.getId());
+          new MessageBuilder(ChatColor.GOLD + "Performance of arena " + arena.getId() + ":").prefix().send(sender);
+        } else {
+          timers = metrics.getTimers();
+          new MessageBuilder(ChatColor.GOLD + "Performance of all subsystems:").prefix().send(sender);
+        }
+
+        List<Map.Entry<Timer, LatencyHistogram.Snapshot>> snapshots = new ArrayList<>();
+        for(Timer timer : timers.values()) {
+          LatencyHistogram.Snapshot snapshot = timer.snapshot();
+          if(snapshot.getCount() > 0) {
+            snapshots.add(new AbstractMap.SimpleImmutableEntry<>(timer, snapshot));
+          }
+        }
+        if(snapshots.isEmpty()) {
+          new MessageBuilder(ChatColor.GRAY + "No samples recorded in the current window.").send(sender);
+          return;
+        }
+        snapshots.sort((first, second) -> Long.compare(second.getValue().getPercentile(99), first.getValue().getPercentile(99)));
+        new MessageBuilder(ChatColor.GRAY + "subsystem: p50 / p99 / max (samples)").send(sender);
+        for(int i = 0; i < snapshots.size() && i < MAX_LINES; i++) {
+          LatencyHistogram.Snapshot snapshot = snapshots.get(i).getValue();
+          new MessageBuilder(ChatColor.YELLOW + snapshots.get(i).getKey().getName() + ChatColor.GRAY + ": "
+              + ChatColor.WHITE + formatMillis(snapshot.getPercentile(50)) + ChatColor.GRAY + " / "
+              + ChatColor.WHITE + formatMillis(snapshot.getPercentile(99)) + ChatColor.GRAY + " / "
+              + ChatColor.RED + formatMillis(snapshot.getMax()) + ChatColor.GRAY + " (" + snapshot.getCount() + ")").send(sender);
+        }
+        if(snapshots.size() > MAX_LINES) {
+          new MessageBuilder(ChatColor.GRAY + "... and " + (snapshots.size() - MAX_LINES) + " more").send(sender);
+        }
+      }
+    });
+  }
+
+  private static String formatMillis(long nanos) {
+    return String.format(Locale.ROOT, "%.3fms", nanos / 1_000_000.0);
+  }
+
+}
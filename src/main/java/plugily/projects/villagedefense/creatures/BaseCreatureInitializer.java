@@ -60,4 +60,16 @@ public interface BaseCreatureInitializer {
   default void applySpeedModifier(LivingEntity entity, double value) {
     // handled in NMS implementation
   }
+
+  /**
+   * Shows block break animation to players near the block.
+   * 1.8 fallback: best-effort no-op.
+   *
+   * @param block   location of the block
+   * @param crackId id of the animation, animations with the same id replace each other
+   * @param stage   crack stage from 0 to 9, any other value removes the animation
+   */
+  default void sendBlockCrack(Location block, int crackId, int stage) {
+    // handled in NMS implementation
+  }
 }
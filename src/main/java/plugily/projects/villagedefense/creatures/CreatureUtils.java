@@ -19,8 +19,10 @@
 package plugily.projects.villagedefense.creatures;
 
 import org.bukkit.ChatColor;
+import org.bukkit.Location;
 import org.bukkit.entity.Creature;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.IronGolem;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Villager;
@@ -30,13 +32,16 @@ import plugily.projects.minigamesbox.classic.utils.version.ServerVersion;
 import plugily.projects.minigamesbox.classic.utils.version.VersionUtils;
 import plugily.projects.minigamesbox.string.StringFormatUtils;
 import plugily.projects.villagedefense.Main;
+import org.jetbrains.annotations.Nullable;
 import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.EntityRole;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 
@@ -47,11 +52,13 @@ import java.util.logging.Level;
  */
 public class CreatureUtils {
 
+  //upper bound of the generic.maxHealth attribute, 1024 on every supported server version including 1.8
+  private static final double MAX_HEALTH = 1024;
   private static String[] villagerNames = ("Jagger,Kelsey,Kelton,Haylie,Harlow,Howard,Wulffric,Winfred,Ashley,Bailey,Beckett,Alfredo,Alfred,Adair,Edgar,ED,Eadwig,Edgaras,Buckley,Stanley,Nuffley,"
       + "Mary,Jeffry,Rosaly,Elliot,Harry,Sam,Rosaline,Tom,Ivan,Kevin,Adam,Emma,Mira,Jeff,Isac,Nico").split(",");
   private static Main plugin;
   private static BaseCreatureInitializer creatureInitializer;
-  private static final List<CachedObject> cachedObjects = new ArrayList<>();
+  private static final Map<Class<?>, Map<String, MethodHandle>> fieldGetters = new ConcurrentHashMap<>();
 
   private CreatureUtils() {
   }
@@ -70,26 +77,53 @@ public class CreatureUtils {
     return new plugily.projects.villagedefense.creatures.v1_8_R3.CreatureInitializer();
   }
 
+  /**
+   * Reads private field of the object through a cached getter.
+   *
+   * @param fieldName name of the declared field
+   * @param clazz     class declaring the field
+   * @param object    object to read the field of
+   * @return value of the field or null if it cannot be accessed
+   * @see #getFieldGetter(String, Class)
+   */
   public static Object getPrivateField(String fieldName, Class<?> clazz, Object object) {
-    for(CachedObject cachedObject : cachedObjects) {
-      if(cachedObject.getClazz().equals(clazz) && cachedObject.getFieldName().equals(fieldName)) {
-        return cachedObject.getObject();
-      }
+    MethodHandle getter = getFieldGetter(fieldName, clazz);
+    if(getter == null) {
+      return null;
     }
     try {
-      Field field = clazz.getDeclaredField(fieldName);
-
-      AccessController.doPrivileged((PrivilegedAction<Object>) () -> {
-        field.setAccessible(true);
-        return null;
-      });
-
-      Object o = field.get(object);
-      cachedObjects.add(new CachedObject(fieldName, clazz, o));
-      return o;
-    } catch(NoSuchFieldException | IllegalAccessException e) {
+      return (Object) getter.invokeExact(object);
+    } catch(Throwable throwable) {
       plugin.getLogger().log(Level.WARNING, "Failed to retrieve private field of object " + object.getClass() + "!");
-      plugin.getLogger().log(Level.WARNING, e.getMessage() + " (fieldName " + fieldName + ", class " + clazz.getName() + ")");
+      plugin.getLogger().log(Level.WARNING, throwable.getMessage() + " (fieldName " + fieldName + ", class " + clazz.getName() + ")");
+    }
+    return null;
+  }
+
+  /**
+   * Get getter of a private field, resolved only once per class and field name.
+   * Getter has (Object)Object type so it can be called with invokeExact,
+   * keep it in a static final field for the JIT to inline it.
+   *
+   * @param fieldName name of the declared field
+   * @param clazz     class declaring the field
+   * @return getter of the field or null if the field cannot be accessed
+   */
+  public static MethodHandle getFieldGetter(String fieldName, Class<?> clazz) {
+    Map<String, MethodHandle> getters = fieldGetters.computeIfAbsent(clazz, key -> new ConcurrentHashMap<>());
+    MethodHandle getter = getters.get(fieldName);
+    if(getter != null) {
+      return getter;
+    }
+    try {
+      Field field = clazz.getDeclaredField(fieldName);
+      field.setAccessible(true);
+      getter = MethodHandles.lookup().unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+      MethodHandle previous = getters.putIfAbsent(fieldName, getter);
+      return previous == null ? getter : previous;
+    } catch(NoSuchFieldException | IllegalAccessException | SecurityException e) {
+      plugin.getLogger().log(Level.WARNING, "Failed to access private field " + fieldName + " of " + clazz.getName() + "!");
+      plugin.getLogger().log(Level.WARNING, e.getMessage());
     }
     return null;
   }
@@ -108,13 +142,15 @@ public class CreatureUtils {
   /**
    * Applies attributes (i.e. health bar (if enabled),
    * health multiplier and follow range) to target zombie.
+   * Health is multiplied by the horde factor of the arena.
    *
    * @param zombie zombie to apply attributes for
    * @param arena  arena to get health multiplier from
    */
   public static void applyAttributes(Creature zombie, Arena arena) {
     creatureInitializer.applyFollowRange(zombie);
-    VersionUtils.setMaxHealth(zombie, VersionUtils.getMaxHealth(zombie) + arena.getArenaOption("ZOMBIE_DIFFICULTY_MULTIPLIER"));
+    double maxHealth = VersionUtils.getMaxHealth(zombie) * arena.getHordeFactor() + arena.getArenaOption("ZOMBIE_DIFFICULTY_MULTIPLIER");
+    VersionUtils.setMaxHealth(zombie, Math.min(MAX_HEALTH, maxHealth));
     zombie.setHealth(VersionUtils.getMaxHealth(zombie));
     if(plugin.getConfigPreferences().getOption("ZOMBIE_HEALTHBAR")) {
       zombie.setCustomNameVisible(true);
@@ -123,6 +159,20 @@ public class CreatureUtils {
     }
   }
 
+  /**
+   * Spawns primed TNT of a buster, the TNT is owned by the arena of the buster
+   * so blocks of its explosion are journaled for that arena.
+   *
+   * @param arena    arena of the buster, looked up before the buster dies, or null
+   * @param location location of the TNT
+   */
+  public static void spawnBusterTnt(@Nullable Arena arena, Location location) {
+    Entity tnt = location.getWorld().spawnEntity(location, EntityType.PRIMED_TNT);
+    if(arena != null) {
+      plugin.getEntityOwnershipRegistry().register(tnt, arena, EntityRole.EXPLOSIVE);
+    }
+  }
+
   public static float getZombieSpeed() {
     return 1.3f;
   }
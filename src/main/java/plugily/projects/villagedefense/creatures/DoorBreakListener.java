@@ -18,69 +18,128 @@
 
 package plugily.projects.villagedefense.creatures;
 
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.List;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
+import org.bukkit.entity.Creature;
 import org.bukkit.entity.EntityType;
-import org.bukkit.entity.LivingEntity;
-import org.bukkit.scheduler.BukkitRunnable;
-import plugily.projects.minigamesbox.classic.utils.version.VersionUtils;
 import plugily.projects.villagedefense.Main;
-import plugily.projects.villagedefense.arena.ArenaRegistry;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.managers.DoorHealth;
+import plugily.projects.villagedefense.arena.managers.DoorIndex;
+import plugily.projects.villagedefense.arena.managers.maprestorer.BlockChangeJournal;
+import plugily.projects.villagedefense.arena.managers.maprestorer.MapRestorerManager;
+import plugily.projects.villagedefense.handlers.effect.EffectDispatcher;
 import plugily.projects.villagedefense.utils.Utils;
 
 /**
  * Created by Tom on 14/08/2014.
+ * <p>
+ * Every tick zombies next to a door are counted per door and the door loses
+ * health for each of them, blocks are only touched when the door breaks and
+ * crack animation is only sent when the crack stage changes.
+ *
+ * @see DoorHealth
  */
-public class DoorBreakListener extends BukkitRunnable {
+public class DoorBreakListener {
+
+  //at most 3x3x3 blocks around a zombie can be doors
+  private static final int MAX_NEARBY_DOORS = 27;
 
   private final Main plugin;
+  private final int damage;
+  private final int[] nearbyDoors = new int[MAX_NEARBY_DOORS];
+  private final Location scratch = new Location(null, 0, 0, 0);
 
   public DoorBreakListener(Main plugin) {
     this.plugin = plugin;
-    runTaskTimer(plugin, 1, 20);
+    this.damage = Math.max(1, plugin.getConfig().getInt("Creatures.Door-Damage", 1));
+    plugin.getArenaTickScheduler().scheduleForInGameArenas("door-break", 1, this::damageDoors);
   }
 
-  @Override
-  public void run() {
-    for(World world : plugin.getArenaRegistry().getArenaIngameWorlds()) {
-      for(LivingEntity entity : world.getLivingEntities()) {
-        if(entity.getType() != EntityType.ZOMBIE) {
-          continue;
+  private void damageDoors(Arena arena) {
+    MapRestorerManager mapRestorerManager = arena.getMapRestorerManager();
+    DoorIndex doorIndex = mapRestorerManager.getDoorIndex();
+    if(doorIndex.size() == 0 || arena.getStartLocation() == null) {
+      return;
+    }
+    DoorHealth doorHealth = mapRestorerManager.getDoorHealth();
+    World world = arena.getStartLocation().getWorld();
+    List<Creature> enemies = arena.getEnemies();
+    for(int i = 0; i < enemies.size(); i++) {
+      Creature entity = enemies.get(i);
+      if(entity.getType() != EntityType.ZOMBIE || entity.isDead()) {
+        continue;
+      }
+      Location location = entity.getLocation(scratch);
+      if(location.getWorld() != world) {
+        continue;
+      }
+      int found = doorIndex.getDoorsAround(location.getBlockX(), location.getBlockY(), location.getBlockZ(), 1, nearbyDoors);
+      for(int j = 0; j < found; j++) {
+        if(!doorHealth.isBroken(nearbyDoors[j])) {
+          doorHealth.addAttacker(nearbyDoors[j]);
         }
+      }
+    }
+    if(doorHealth.getAttackedCount() == 0) {
+      return;
+    }
+    EffectDispatcher effectDispatcher = plugin.getEffectDispatcher();
+    int crackBase = getCrackBase(arena);
+    for(int i = 0; i < doorHealth.getAttackedCount(); i++) {
+      int door = doorHealth.getAttacked(i);
+      Location blockLoc = new Location(world, doorIndex.getX(door), doorIndex.getY(door), doorIndex.getZ(door));
+      if(doorHealth.damage(door, doorHealth.getAttackers(door) * damage)) {
+        breakDoor(arena, doorIndex, doorHealth, door, blockLoc, crackBase);
+      } else if(doorHealth.updateStage(door)) {
+        CreatureUtils.getCreatureInitializer().sendBlockCrack(blockLoc, crackBase - door, doorHealth.getStage(door));
+        effectDispatcher.particle("SMOKE_LARGE", arena, blockLoc, 5, 0.1, 0.1, 0.1);
+        effectDispatcher.sound(arena, blockLoc, "ENTITY_ZOMBIE_ATTACK_WOODEN_DOOR");
+      }
+    }
+    doorHealth.clearAttackers();
+  }
 
-        for(Block block : plugin.getBukkitHelper().getNearbyBlocks(entity, 1)) {
-          Material door = Utils.getCachedDoor(block);
-
-          if(block.getType() != door) {
-            continue;
-          }
-
-          org.bukkit.Location blockLoc = block.getLocation();
-
-          VersionUtils.sendParticles("SMOKE_LARGE", null, blockLoc, 5, 0.1,0.1,0.1);
-          VersionUtils.playSound(blockLoc, "ENTITY_ZOMBIE_ATTACK_WOODEN_DOOR");
-
-          if(ThreadLocalRandom.current().nextInt(20) == 5) {
-            VersionUtils.sendParticles("SMOKE_LARGE", null, blockLoc, 15, 0.1,0.1,0.1);
-            VersionUtils.sendParticles("EXPLOSION_HUGE", null, blockLoc, 1, 0.1,0.1,0.1);
-
-            Block b = block.getRelative(BlockFace.UP);
+  private void breakDoor(Arena arena, DoorIndex doorIndex, DoorHealth doorHealth, int door, Location blockLoc, int crackBase) {
+    CreatureUtils.getCreatureInitializer().sendBlockCrack(blockLoc, crackBase - door, -1);
+    Block block = blockLoc.getBlock();
+    Material doorType = Utils.getCachedDoor(block);
+    //door could be already removed by something else
+    if(doorType == Material.AIR) {
+      return;
+    }
+    EffectDispatcher effectDispatcher = plugin.getEffectDispatcher();
+    effectDispatcher.particle("SMOKE_LARGE", arena, blockLoc, 15, 0.1, 0.1, 0.1);
+    effectDispatcher.particle("EXPLOSION_HUGE", arena, blockLoc, 1, 0.1, 0.1, 0.1);
 
-            if(b.getType() == door) {
-              b.setType(Material.AIR);
-            } else if((b = block.getRelative(BlockFace.DOWN)).getType() == door) {
-              b.setType(Material.AIR);
-            }
+    Block b = block.getRelative(BlockFace.UP);
 
-            block.setType(Material.AIR);
-            VersionUtils.playSound(blockLoc, "ENTITY_ZOMBIE_BREAK_WOODEN_DOOR");
-          }
-        }
+    if(b.getType() != doorType) {
+      b = block.getRelative(BlockFace.DOWN);
+    }
+    BlockChangeJournal blockJournal = arena.getMapRestorerManager().getBlockJournal();
+    if(b.getType() == doorType) {
+      blockJournal.record(b);
+      b.setType(Material.AIR);
+      int otherHalf = doorIndex.getDoor(b.getX(), b.getY(), b.getZ());
+      if(otherHalf >= 0) {
+        doorHealth.breakDoor(otherHalf);
+        CreatureUtils.getCreatureInitializer().sendBlockCrack(b.getLocation(), crackBase - otherHalf, -1);
       }
     }
+
+    blockJournal.record(block);
+    block.setType(Material.AIR);
+    effectDispatcher.sound(arena, blockLoc, "ENTITY_ZOMBIE_BREAK_WOODEN_DOOR");
+  }
+
+  //negative ids never collide with the entity ids used by vanilla block breaking
+  private int getCrackBase(Arena arena) {
+    return -1 - Math.max(0, plugin.getArenaRegistry().getArenaIndex(arena)) * DoorIndex.MAX_DOORS;
   }
 
 }
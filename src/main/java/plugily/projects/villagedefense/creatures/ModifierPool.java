@@ -0,0 +1,53 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.creatures;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleFunction;
+
+/**
+ * Pool of immutable attribute modifiers keyed by their amount.
+ * Upgrade tiers use only a handful of amounts so every entity
+ * shares the same modifier instance instead of creating its own.
+ *
+ * @param <M> modifier type
+ */
+public final class ModifierPool<M> {
+
+  private final Map<Double, M> modifiers = new ConcurrentHashMap<>();
+  private final DoubleFunction<M> factory;
+
+  public ModifierPool(DoubleFunction<M> factory) {
+    this.factory = factory;
+  }
+
+  public M get(double amount) {
+    M modifier = modifiers.get(amount);
+    if(modifier == null) {
+      modifier = modifiers.computeIfAbsent(amount, factory::apply);
+    }
+    return modifier;
+  }
+
+  public int size() {
+    return modifiers.size();
+  }
+
+}
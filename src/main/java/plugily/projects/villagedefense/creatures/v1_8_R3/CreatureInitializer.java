@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.UUID;
 import net.minecraft.server.v1_8_R3.AttributeInstance;
 import net.minecraft.server.v1_8_R3.AttributeModifier;
+import net.minecraft.server.v1_8_R3.BlockPosition;
 import net.minecraft.server.v1_8_R3.EntityInsentient;
 import net.minecraft.server.v1_8_R3.EntityTypes;
 import net.minecraft.server.v1_8_R3.GenericAttributes;
@@ -43,6 +44,7 @@ import org.bukkit.entity.Zombie;
 import org.bukkit.event.entity.CreatureSpawnEvent;
 import plugily.projects.minigamesbox.classic.utils.misc.MessageUtils;
 import plugily.projects.villagedefense.creatures.BaseCreatureInitializer;
+import plugily.projects.villagedefense.creatures.ModifierPool;
 
 public class CreatureInitializer implements BaseCreatureInitializer {
 
@@ -50,6 +52,13 @@ public class CreatureInitializer implements BaseCreatureInitializer {
     private static final UUID movementSpeedUuId = UUID.fromString("206a89dc-ae78-4c4d-b42c-3b31db3f5a7c");
     private static final UUID attackDamageUuId = UUID.fromString("206a89dc-ae78-4c4d-b42c-3b31db3f5a7d");
 
+    // modifiers are immutable, every creature shares the same instances instead of allocating its own
+    private static final AttributeModifier followRangeModifier = new AttributeModifier(uId, "follow range multiplier", 200.0D, 1);
+    private static final ModifierPool<AttributeModifier> attackDamageModifiers =
+            new ModifierPool<>(value -> new AttributeModifier(attackDamageUuId, "attack damage multiplier", value, 1));
+    private static final ModifierPool<AttributeModifier> movementSpeedModifiers =
+            new ModifierPool<>(value -> new AttributeModifier(movementSpeedUuId, "movement speed multiplier", value, 1));
+
     public CreatureInitializer() {
         registerEntity("VillageZombie", 54, FastZombie.class);
         registerEntity("VillageZombie", 54, BabyZombie.class);
@@ -207,7 +216,7 @@ public class CreatureInitializer implements BaseCreatureInitializer {
         EntityInsentient nmsEntity = (EntityInsentient) ((CraftLivingEntity) zombie).getHandle();
         AttributeInstance attributes = nmsEntity.getAttributeInstance(GenericAttributes.FOLLOW_RANGE);
         if (attributes.a(uId) == null) { // Check if the attribute is not set
-            attributes.b(new AttributeModifier(uId, "follow range multiplier", 200.0D, 1));
+            attributes.b(followRangeModifier);
         }
     }
 
@@ -216,7 +225,7 @@ public class CreatureInitializer implements BaseCreatureInitializer {
         EntityInsentient nmsEntity = (EntityInsentient) ((CraftLivingEntity) entity).getHandle();
         AttributeInstance attributes = nmsEntity.getAttributeInstance(GenericAttributes.ATTACK_DAMAGE);
         if (attributes.a(attackDamageUuId) == null) {
-            attributes.b(new AttributeModifier(attackDamageUuId, "attack damage multiplier", value, 1));
+            attributes.b(attackDamageModifiers.get(value));
         }
     }
 
@@ -225,7 +234,12 @@ public class CreatureInitializer implements BaseCreatureInitializer {
         EntityInsentient nmsEntity = (EntityInsentient) ((CraftLivingEntity) entity).getHandle();
         AttributeInstance attributes = nmsEntity.getAttributeInstance(GenericAttributes.MOVEMENT_SPEED);
         if (attributes.a(movementSpeedUuId) == null) {
-            attributes.b(new AttributeModifier(movementSpeedUuId, "movement speed multiplier", value, 1));
+            attributes.b(movementSpeedModifiers.get(value));
         }
     }
+
+    @Override
+    public void sendBlockCrack(Location block, int crackId, int stage) {
+        getWorld(block).c(crackId, new BlockPosition(block.getBlockX(), block.getBlockY(), block.getBlockZ()), stage);
+    }
 }
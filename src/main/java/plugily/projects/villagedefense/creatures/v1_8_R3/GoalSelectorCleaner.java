@@ -20,26 +20,35 @@ package plugily.projects.villagedefense.creatures.v1_8_R3;
 
 import net.minecraft.server.v1_8_R3.EntityCreature;
 import net.minecraft.server.v1_8_R3.PathfinderGoalSelector;
-import org.bukkit.craftbukkit.v1_8_R3.util.UnsafeList;
 import plugily.projects.villagedefense.creatures.CreatureUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+
 /**
  * Internal helper class
  */
 class GoalSelectorCleaner {
 
+  //goal items and running goals of the selector
+  private static final MethodHandle GOAL_ITEMS = CreatureUtils.getFieldGetter("b", PathfinderGoalSelector.class);
+  private static final MethodHandle RUNNING_GOALS = CreatureUtils.getFieldGetter("c", PathfinderGoalSelector.class);
+
   private GoalSelectorCleaner() {
   }
 
   static void clearSelectors(EntityCreature creature) {
-    UnsafeList goalB = (UnsafeList) CreatureUtils.getPrivateField("b", PathfinderGoalSelector.class, creature.goalSelector);
-    goalB.clear();
-    UnsafeList goalC = (UnsafeList) CreatureUtils.getPrivateField("c", PathfinderGoalSelector.class, creature.goalSelector);
-    goalC.clear();
-    UnsafeList targetB = (UnsafeList) CreatureUtils.getPrivateField("b", PathfinderGoalSelector.class, creature.targetSelector);
-    targetB.clear();
-    UnsafeList targetC = (UnsafeList) CreatureUtils.getPrivateField("c", PathfinderGoalSelector.class, creature.targetSelector);
-    targetC.clear();
+    clear(creature.goalSelector);
+    clear(creature.targetSelector);
+  }
+
+  private static void clear(PathfinderGoalSelector selector) {
+    try {
+      ((List<?>) (Object) GOAL_ITEMS.invokeExact((Object) selector)).clear();
+      ((List<?>) (Object) RUNNING_GOALS.invokeExact((Object) selector)).clear();
+    } catch(Throwable throwable) {
+      throw new IllegalStateException("Failed to clear goal selector", throwable);
+    }
   }
 
 }
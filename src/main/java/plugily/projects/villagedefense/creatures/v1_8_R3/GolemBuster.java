@@ -42,6 +42,7 @@ import org.bukkit.entity.EntityType;
 import org.bukkit.entity.IronGolem;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.event.entity.EntityDeathEvent;
+import plugily.projects.villagedefense.arena.Arena;
 import plugily.projects.villagedefense.creatures.CreatureUtils;
 
 /**
@@ -84,11 +85,12 @@ public class GolemBuster extends EntityZombie {
   @Override
   public boolean damageEntity(DamageSource damagesource, float f) {
     if(damagesource != null && damagesource.getEntity() != null && damagesource.getEntity().getBukkitEntity().getType() == EntityType.IRON_GOLEM) {
+      Arena arena = CreatureUtils.getPlugin().getEntityOwnershipRegistry().getArena(getBukkitEntity());
       this.die();
       org.bukkit.inventory.ItemStack[] itemStack = new org.bukkit.inventory.ItemStack[]{new org.bukkit.inventory.ItemStack(org.bukkit.Material.ROTTEN_FLESH)};
       Bukkit.getServer().getPluginManager().callEvent(new EntityDeathEvent((LivingEntity) getBukkitEntity(), new ArrayList<>(Arrays.asList(itemStack)), expToDrop));
       IronGolem golem = (IronGolem) damagesource.getEntity().getBukkitEntity();
-      golem.getWorld().spawnEntity(golem.getLocation(), EntityType.PRIMED_TNT);
+      CreatureUtils.spawnBusterTnt(arena, golem.getLocation());
       return true;
     }
     super.damageEntity(damagesource, f);
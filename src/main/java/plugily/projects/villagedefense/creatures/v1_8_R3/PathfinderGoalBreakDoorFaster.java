@@ -18,39 +18,31 @@
 
 package plugily.projects.villagedefense.creatures.v1_8_R3;
 
-import net.minecraft.server.v1_8_R3.Block;
+import net.minecraft.server.v1_8_R3.BlockDoor;
 import net.minecraft.server.v1_8_R3.EntityInsentient;
 import net.minecraft.server.v1_8_R3.PathfinderGoalBreakDoor;
 
-
+/**
+ * Keeps the zombie at a closed door it runs into.
+ * <p>
+ * The door is not broken by the goal itself, door health is taken by
+ * {@link plugily.projects.villagedefense.creatures.DoorBreakListener}
+ * which also sends the crack animation and break effects.
+ */
 public class PathfinderGoalBreakDoorFaster extends PathfinderGoalBreakDoor {
 
-  private int i = 0;
-  private int j = -1;
-
   public PathfinderGoalBreakDoorFaster(EntityInsentient entityinsentient) {
     super(entityinsentient);
   }
 
   @Override
-  public void e() {
-    super.e();
-    a.world.triggerEffect(1010, b, 0);
-
-    ++i;
-    int i = (int) (this.i / 240.0F * 10.0F);
-
-    if(i != j) {
-      a.world.c(a.getId(), b, i);
-      j = i;
-    }
+  public boolean b() {
+    return a.world.getType(b).getBlock() == c && !BlockDoor.f(a.world, b) && a.b(b) < 4.0D;
+  }
 
-    if(this.i == 70) {
-      a.world.setAir(b);
-      a.world.triggerEffect(1012, b, 0);
-      a.world.triggerEffect(2001, b, Block.getId(c));
-    }
+  @Override
+  public void e() {
+    //no super call, vanilla goal would break the door and send its own crack animation every tick
   }
 
 }
-
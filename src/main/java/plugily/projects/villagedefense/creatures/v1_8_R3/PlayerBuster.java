@@ -45,6 +45,7 @@ import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.inventory.ItemStack;
+import plugily.projects.villagedefense.arena.Arena;
 import plugily.projects.villagedefense.creatures.CreatureUtils;
 
 /**
@@ -91,9 +92,10 @@ public class PlayerBuster extends EntityZombie {
       if(CreatureUtils.getPlugin().getUserManager().getUser((Player) damagesource.getEntity().getBukkitEntity()).isSpectator()) {
         return true;
       }
+      Arena arena = CreatureUtils.getPlugin().getEntityOwnershipRegistry().getArena(getBukkitEntity());
       ItemStack[] itemStack = new ItemStack[]{new ItemStack(Material.ROTTEN_FLESH)};
       Bukkit.getServer().getPluginManager().callEvent(new EntityDeathEvent((LivingEntity) getBukkitEntity(), new ArrayList<>(Arrays.asList(itemStack)), expToDrop));
-      getBukkitEntity().getWorld().spawnEntity(getBukkitEntity().getLocation(), EntityType.PRIMED_TNT);
+      CreatureUtils.spawnBusterTnt(arena, getBukkitEntity().getLocation());
       this.die();
       return true;
     }
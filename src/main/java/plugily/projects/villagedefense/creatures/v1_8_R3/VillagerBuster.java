@@ -43,6 +43,7 @@ import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.inventory.ItemStack;
+import plugily.projects.villagedefense.arena.Arena;
 import plugily.projects.villagedefense.creatures.CreatureUtils;
 
 /**
@@ -89,10 +90,11 @@ public class VillagerBuster extends EntityZombie {
   @Override
   public boolean r(Entity entity) {
     if(entity.getBukkitEntity().getType() == EntityType.VILLAGER) {
+      Arena arena = CreatureUtils.getPlugin().getEntityOwnershipRegistry().getArena(getBukkitEntity());
       this.die();
       Bukkit.getServer().getPluginManager().callEvent(new EntityDeathEvent((LivingEntity) getBukkitEntity(), new ArrayList<>(Collections.singletonList(new ItemStack(Material.ROTTEN_FLESH))), 6));
       org.bukkit.entity.Entity bukkitEntity = entity.getBukkitEntity();
-      bukkitEntity.getWorld().spawnEntity(bukkitEntity.getLocation(), EntityType.PRIMED_TNT);
+      CreatureUtils.spawnBusterTnt(arena, bukkitEntity.getLocation());
       return false;
     }
     return super.r(entity);
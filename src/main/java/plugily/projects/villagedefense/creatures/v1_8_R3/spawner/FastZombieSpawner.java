@@ -32,6 +32,11 @@ public class FastZombieSpawner implements SimpleEnemySpawner {
     return true;
   }
 
+  @Override
+  public boolean dependsOnArenaState() {
+    return true;
+  }
+
   @Override
   public double getSpawnRate(Arena arena, int wave, int phase, int spawnAmount) {
     if(spawnAmount < 5 || arena.getEnemies().isEmpty()) {
@@ -30,6 +30,11 @@ import plugily.projects.villagedefense.arena.managers.spawner.SimpleEnemySpawner
 import plugily.projects.villagedefense.creatures.CreatureUtils;
 
 public class GolemBusterSpawner implements SimpleEnemySpawner {
+  @Override
+  public boolean dependsOnArenaState() {
+    return true;
+  }
+
   @Override
   public double getSpawnRate(Arena arena, int wave, int phase, int spawnAmount) {
     if(phase == 5) {
@@ -18,7 +18,6 @@
 
 package plugily.projects.villagedefense.creeperattack;
 
-import org.bukkit.Bukkit;
 import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.creeperattack.arena.CAArenaManager;
 import plugily.projects.villagedefense.creeperattack.command.CACommandExecutor;
@@ -69,10 +68,10 @@ public class CreeperAttackMode {
   }
 
   private void registerListeners() {
-    Bukkit.getPluginManager().registerEvents(new CreeperProximityListener(plugin, arenaManager, configService), plugin);
-    Bukkit.getPluginManager().registerEvents(new MobDeathListener(plugin, arenaManager), plugin);
-    Bukkit.getPluginManager().registerEvents(new PlayerDeathListener(plugin, arenaManager, configService), plugin);
-    Bukkit.getPluginManager().registerEvents(new TraderDamageBlockListener(plugin, arenaManager), plugin);
+    plugin.getMetricsRegistry().registerEvents(new CreeperProximityListener(plugin, arenaManager, configService));
+    plugin.getMetricsRegistry().registerEvents(new MobDeathListener(plugin, arenaManager));
+    plugin.getMetricsRegistry().registerEvents(new PlayerDeathListener(plugin, arenaManager, configService));
+    plugin.getMetricsRegistry().registerEvents(new TraderDamageBlockListener(plugin, arenaManager));
   }
 
   private void registerCommands() {
@@ -69,7 +69,7 @@ public class ArenaContext {
   private final List<Creeper> creepers = new ArrayList<>();
   private final Map<UUID, NPC> creeperNpcs = new HashMap<>();
   
-  // Task IDs for cleanup
+  // Arena tick scheduler job IDs for cleanup
   private int mainTaskId = -1;
   private int scoreboardTaskId = -1;
 
@@ -328,6 +328,10 @@ public class ArenaContext {
     creeperNpcs.remove(creeperId);
   }
 
+  public int getCreeperNpcCount() {
+    return creeperNpcs.size();
+  }
+
   public int getCreepersAlive() {
     // Clean up dead creepers
     creepers.removeIf(c -> c == null || c.isDead());
@@ -18,15 +18,16 @@
 
 package plugily.projects.villagedefense.creeperattack.arena;
 
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.entity.Creeper;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 import plugily.projects.minigamesbox.api.arena.IArenaState;
 import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.ArenaTickScheduler;
+import plugily.projects.villagedefense.arena.EntityLifecycleBus;
+import plugily.projects.villagedefense.arena.EntityRole;
 import plugily.projects.villagedefense.creeperattack.config.ConfigService;
 import plugily.projects.villagedefense.creeperattack.npc.CitizensHook;
 import plugily.projects.villagedefense.creeperattack.economy.EconomyService;
@@ -41,6 +42,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.ToIntFunction;
 
 /**
  * Manages Creeper Attack arenas: context lifecycle, game loop, win/lose conditions.
@@ -59,8 +61,8 @@ public class CAArenaManager {
   private ShopController shopController;
   
   private final Map<String, ArenaContext> contexts = new HashMap<>();
-  private final Map<String, BukkitTask> gameTasks = new HashMap<>();
-  private final Map<String, BukkitTask> scoreboardTasks = new HashMap<>();
+  private final Map<String, ArenaTickScheduler.Job> gameTasks = new HashMap<>();
+  private final Map<String, ArenaTickScheduler.Job> scoreboardTasks = new HashMap<>();
   
   // Track warned HP thresholds to avoid spam
   private final Map<String, Set<Integer>> warnedThresholds = new HashMap<>();
@@ -81,6 +83,22 @@ public class CAArenaManager {
     
     // Shop controller needs this manager, so initialize after
     this.shopController = new ShopController(plugin, configService, this, economyService, effectRegistry);
+    
+    // Report per arena state sizes to /vda debug memory
+    EntityLifecycleBus lifecycleBus = plugin.getEntityLifecycleBus();
+    lifecycleBus.registerCache("ca.contexts", contexts::size);
+    lifecycleBus.registerCache("ca.creepers", () -> sumContexts(context -> context.getCreepers().size()));
+    lifecycleBus.registerCache("ca.creeper-npcs", () -> sumContexts(ArenaContext::getCreeperNpcCount));
+    lifecycleBus.registerCache("ca.creeper-countdowns", () -> sumContexts(context -> context.getCreeperCountdownEnd().size()));
+    lifecycleBus.registerCache("ca.coins", () -> sumContexts(context -> context.getCoins().size()));
+  }
+
+  private int sumContexts(ToIntFunction<ArenaContext> size) {
+    int sum = 0;
+    for (ArenaContext context : contexts.values()) {
+      sum += size.applyAsInt(context);
+    }
+    return sum;
   }
 
   /**
@@ -139,6 +157,9 @@ public class CAArenaManager {
       }
       return false;
     }
+    if (context.getTraderEntity() != null) {
+      plugin.getEntityOwnershipRegistry().register(context.getTraderEntity(), arena, EntityRole.TRADER);
+    }
     
     // Initialize player economy
     for (Player player : arena.getPlayers()) {
@@ -174,17 +195,16 @@ public class CAArenaManager {
     String arenaId = arena.getId();
     
     // Cancel existing task
-    BukkitTask existingTask = gameTasks.get(arenaId);
+    ArenaTickScheduler.Job existingTask = gameTasks.get(arenaId);
     if (existingTask != null) {
       existingTask.cancel();
     }
     
-    BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-      gameLoopTick(arena, context);
-    }, 0L, configService.getBatchSpawnPeriodTicks());
+    ArenaTickScheduler.Job task = plugin.getArenaTickScheduler().schedule("ca-game-loop", arena,
+        configService.getBatchSpawnPeriodTicks(), () -> gameLoopTick(arena, context));
     
     gameTasks.put(arenaId, task);
-    context.setMainTaskId(task.getTaskId());
+    context.setMainTaskId(task.getId());
   }
 
   /**
@@ -194,18 +214,17 @@ public class CAArenaManager {
     String arenaId = arena.getId();
     
     // Cancel existing task
-    BukkitTask existingTask = scoreboardTasks.get(arenaId);
+    ArenaTickScheduler.Job existingTask = scoreboardTasks.get(arenaId);
     if (existingTask != null) {
       existingTask.cancel();
     }
     
     int refreshTicks = configService.getScoreboardRefreshSeconds() * 20;
-    BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-      uiController.updateScoreboards(arena, context);
-    }, 0L, refreshTicks);
+    ArenaTickScheduler.Job task = plugin.getArenaTickScheduler().schedule("ca-scoreboard", arena,
+        refreshTicks, () -> uiController.updateScoreboards(arena, context));
     
     scoreboardTasks.put(arenaId, task);
-    context.setScoreboardTaskId(task.getTaskId());
+    context.setScoreboardTaskId(task.getId());
   }
 
   /**
@@ -328,18 +347,21 @@ public class CAArenaManager {
     String arenaId = arena.getId();
     
     // Cancel tasks
-    BukkitTask gameTask = gameTasks.remove(arenaId);
+    ArenaTickScheduler.Job gameTask = gameTasks.remove(arenaId);
     if (gameTask != null) {
       gameTask.cancel();
     }
     
-    BukkitTask scoreboardTask = scoreboardTasks.remove(arenaId);
+    ArenaTickScheduler.Job scoreboardTask = scoreboardTasks.remove(arenaId);
     if (scoreboardTask != null) {
       scoreboardTask.cancel();
     }
     
     // Remove all creepers
     for (Creeper creeper : context.getCreepers()) {
+      if (creeper != null) {
+        plugin.getEntityOwnershipRegistry().unregister(creeper);
+      }
       if (creeper != null && !creeper.isDead()) {
         if(context.getCreeperNpc(creeper.getUniqueId()) != null) {
           citizensHook.safeDestroy(context.getCreeperNpc(creeper.getUniqueId()));
@@ -351,6 +373,9 @@ public class CAArenaManager {
     context.getCreepers().clear();
     
     // Remove trader
+    if (context.getTraderEntity() != null) {
+      plugin.getEntityOwnershipRegistry().unregister(context.getTraderEntity());
+    }
     traderController.removeTrader(context);
     
     // Reset player scoreboards
@@ -397,6 +422,7 @@ public class CAArenaManager {
     
     // Remove creeper
     context.removeCreeper(creeper);
+    plugin.getEntityOwnershipRegistry().unregister(creeper);
     if(context.getCreeperNpc(creeper.getUniqueId()) != null) {
       citizensHook.safeDestroy(context.getCreeperNpc(creeper.getUniqueId()));
       context.removeCreeperNpc(creeper.getUniqueId());
@@ -420,6 +446,7 @@ public class CAArenaManager {
     
     // Remove from tracking
     context.removeCreeper(creeper);
+    plugin.getEntityOwnershipRegistry().unregister(creeper);
     if(context.getCreeperNpc(creeper.getUniqueId()) != null) {
       citizensHook.safeDestroy(context.getCreeperNpc(creeper.getUniqueId()));
       context.removeCreeperNpc(creeper.getUniqueId());
@@ -440,6 +467,14 @@ public class CAArenaManager {
     }
   }
 
+  /**
+   * Handle player leaving an arena (called by the arena manager).
+   * Players leaving mid game never reach resetScoreboard.
+   */
+  public void handlePlayerLeave(Player player) {
+    uiController.clearPlayer(player.getUniqueId());
+  }
+
   /**
    * Open shop for player.
    */
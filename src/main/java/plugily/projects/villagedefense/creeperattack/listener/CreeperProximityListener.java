@@ -29,12 +29,11 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityTargetEvent;
 import org.bukkit.metadata.MetadataValue;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
-import plugily.projects.minigamesbox.api.arena.IArenaState;
 import plugily.projects.minigamesbox.classic.utils.version.ServerVersion;
 import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.EntityLifecycleBus;
 import plugily.projects.villagedefense.creeperattack.arena.ArenaContext;
 import plugily.projects.villagedefense.creeperattack.arena.CAArenaManager;
 import plugily.projects.villagedefense.creeperattack.config.ConfigService;
@@ -69,6 +68,16 @@ public class CreeperProximityListener implements Listener {
     this.configService = configService;
     this.citizensHook = new CitizensHook(plugin);
     
+    // Free knockback tracking as soon as a creeper dies or leaves the arena
+    EntityLifecycleBus lifecycleBus = plugin.getEntityLifecycleBus();
+    lifecycleBus.subscribe("ca-knockback", (entity, arena, phase) -> {
+      if (phase != EntityLifecycleBus.Phase.SPAWN && entity instanceof Creeper) {
+        cleanupCreeper(entity.getUniqueId());
+      }
+    });
+    lifecycleBus.registerCache("ca.creeper-positions", creeperLastPositions::size);
+    lifecycleBus.registerCache("ca.creeper-damage-times", creeperLastDamageTime::size);
+    
     // Start proximity check task
     startProximityCheckTask();
     
@@ -83,69 +92,54 @@ public class CreeperProximityListener implements Listener {
    * Start the proximity check task (runs every 5 ticks).
    */
   private void startProximityCheckTask() {
-    new BukkitRunnable() {
-      @Override
-      public void run() {
-        for (Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-          if (arena.getArenaState() != IArenaState.IN_GAME) continue;
-          
-          ArenaContext context = arenaManager.getContext(arena.getId());
-          if (context == null || !context.isFighting()) continue;
-          
-          checkProximity(arena, context);
-          processCountdowns(arena, context);
-        }
-      }
-    }.runTaskTimer(plugin, 0L, 5L);
+    plugin.getArenaTickScheduler().scheduleForInGameArenas("ca-proximity", 5L, arena -> {
+      ArenaContext context = arenaManager.getContext(arena.getId());
+      if (context == null || !context.isFighting()) return;
+
+      checkProximity(arena, context);
+      processCountdowns(arena, context);
+    });
   }
 
   /**
    * Start knockback compensation task.
    */
   private void startKnockbackCompensationTask() {
-    new BukkitRunnable() {
-      @Override
-      public void run() {
-        long now = System.currentTimeMillis();
+    plugin.getArenaTickScheduler().scheduleForInGameArenas("ca-knockback", 2L, arena -> {
+      ArenaContext context = arenaManager.getContext(arena.getId());
+      if (context == null) return;
+
+      long now = System.currentTimeMillis();
+      for (Creeper creeper : context.getCreepers()) {
+        if (creeper == null || creeper.isDead()) continue;
         
-        for (Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-          if (arena.getArenaState() != IArenaState.IN_GAME) continue;
-          
-          ArenaContext context = arenaManager.getContext(arena.getId());
-          if (context == null) continue;
-          
-          for (Creeper creeper : context.getCreepers()) {
-            if (creeper == null || creeper.isDead()) continue;
-            
-            UUID id = creeper.getUniqueId();
-            Long lastDamage = creeperLastDamageTime.get(id);
+        UUID id = creeper.getUniqueId();
+        Long lastDamage = creeperLastDamageTime.get(id);
+        
+        // If recently damaged, restore position
+        if (lastDamage != null && now - lastDamage < KNOCKBACK_COMPENSATION_WINDOW) {
+          Location lastPos = creeperLastPositions.get(id);
+          if (lastPos != null && lastPos.getWorld().equals(creeper.getWorld())) {
+            // Restore position but allow forward movement toward trader
+            Location current = creeper.getLocation();
+            Location traderLoc = context.getTraderLocation();
             
-            // If recently damaged, restore position
-            if (lastDamage != null && now - lastDamage < KNOCKBACK_COMPENSATION_WINDOW) {
-              Location lastPos = creeperLastPositions.get(id);
-              if (lastPos != null && lastPos.getWorld().equals(creeper.getWorld())) {
-                // Restore position but allow forward movement toward trader
-                Location current = creeper.getLocation();
-                Location traderLoc = context.getTraderLocation();
-                
-                if (traderLoc != null) {
-                  double lastDist = lastPos.distanceSquared(traderLoc);
-                  double currentDist = current.distanceSquared(traderLoc);
-                  
-                  // Only restore if creeper was pushed away from trader
-                  if (currentDist > lastDist) {
-                    creeper.teleport(lastPos);
-                  }
-                }
+            if (traderLoc != null) {
+              double lastDist = lastPos.distanceSquared(traderLoc);
+              double currentDist = current.distanceSquared(traderLoc);
+              
+              // Only restore if creeper was pushed away from trader
+              if (currentDist > lastDist) {
+                creeper.teleport(lastPos);
               }
-            } else {
-              // Update last known position
-              creeperLastPositions.put(id, creeper.getLocation().clone());
             }
           }
+        } else {
+          // Update last known position
+          creeperLastPositions.put(id, creeper.getLocation().clone());
         }
       }
-    }.runTaskTimer(plugin, 0L, 2L);
+    });
   }
 
   /**
@@ -153,77 +147,71 @@ public class CreeperProximityListener implements Listener {
    * This is necessary because Creepers don't naturally target Villagers.
    */
   private void startCreeperMovementTask() {
-    new BukkitRunnable() {
-      @Override
-      public void run() {
-        for (Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-          if (arena.getArenaState() != IArenaState.IN_GAME) continue;
+    // Run every 4 ticks (5 times per second)
+    plugin.getArenaTickScheduler().scheduleForInGameArenas("ca-movement", 4L, arena -> {
+      ArenaContext context = arenaManager.getContext(arena.getId());
+      if (context == null || !context.isFighting()) return;
+
+      Location traderLoc = context.getTraderLocation();
+      if (traderLoc == null) return;
+
+      for (Creeper creeper : context.getCreepers()) {
+        if (creeper == null || creeper.isDead()) continue;
+        if (!creeper.getWorld().equals(traderLoc.getWorld())) continue;
+        
+        // Skip if frozen (has high slowness)
+        if (creeper.hasPotionEffect(org.bukkit.potion.PotionEffectType.SLOW)) {
+          org.bukkit.potion.PotionEffect effect = null;
+          for(org.bukkit.potion.PotionEffect active : creeper.getActivePotionEffects()) {
+            if(active.getType().equals(org.bukkit.potion.PotionEffectType.SLOW)) {
+              effect = active;
+              break;
+            }
+          }
+          if (effect != null && effect.getAmplifier() > 200) {
+            continue; // Frozen creeper, skip movement
+          }
+        }
+        
+        // Citizens NPC pathfinding if available
+        if(citizensHook.isAvailable()) {
+          NPC npc = context.getCreeperNpc(creeper.getUniqueId());
+          Villager trader = context.getTraderEntity();
+          if(npc != null && trader != null && !trader.isDead()) {
+            npc.getNavigator().setTarget(trader, true);
+            continue;
+          }
+        }
+
+        // Fallback manual movement toward trader
+        Location creeperLoc = creeper.getLocation();
+        double dx = traderLoc.getX() - creeperLoc.getX();
+        double dz = traderLoc.getZ() - creeperLoc.getZ();
+        double dist = Math.sqrt(dx * dx + dz * dz);
+        
+        if (dist > 0.5) { // Only move if not already very close
+          // Normalize direction and apply speed
+          double speed = CREEPER_SPEED;
+          double vx = (dx / dist) * speed;
+          double vz = (dz / dist) * speed;
           
-          ArenaContext context = arenaManager.getContext(arena.getId());
-          if (context == null || !context.isFighting()) continue;
+          // Get current velocity and modify horizontal components
+          Vector velocity = creeper.getVelocity();
+          velocity.setX(vx);
+          velocity.setZ(vz);
           
-          Location traderLoc = context.getTraderLocation();
-          if (traderLoc == null) continue;
+          creeper.setVelocity(velocity);
           
-          for (Creeper creeper : context.getCreepers()) {
-            if (creeper == null || creeper.isDead()) continue;
-            if (!creeper.getWorld().equals(traderLoc.getWorld())) continue;
-            
-            // Skip if frozen (has high slowness)
-            if (creeper.hasPotionEffect(org.bukkit.potion.PotionEffectType.SLOW)) {
-              org.bukkit.potion.PotionEffect effect = null;
-              for(org.bukkit.potion.PotionEffect active : creeper.getActivePotionEffects()) {
-                if(active.getType().equals(org.bukkit.potion.PotionEffectType.SLOW)) {
-                  effect = active;
-                  break;
-                }
-              }
-              if (effect != null && effect.getAmplifier() > 200) {
-                continue; // Frozen creeper, skip movement
-              }
-            }
-            
-            // Citizens NPC pathfinding if available
-            if(citizensHook.isAvailable()) {
-              NPC npc = context.getCreeperNpc(creeper.getUniqueId());
-              Villager trader = context.getTraderEntity();
-              if(npc != null && trader != null && !trader.isDead()) {
-                npc.getNavigator().setTarget(trader, true);
-                continue;
-              }
-            }
-
-            // Fallback manual movement toward trader
-            Location creeperLoc = creeper.getLocation();
-            double dx = traderLoc.getX() - creeperLoc.getX();
-            double dz = traderLoc.getZ() - creeperLoc.getZ();
-            double dist = Math.sqrt(dx * dx + dz * dz);
-            
-            if (dist > 0.5) { // Only move if not already very close
-              // Normalize direction and apply speed
-              double speed = CREEPER_SPEED;
-              double vx = (dx / dist) * speed;
-              double vz = (dz / dist) * speed;
-              
-              // Get current velocity and modify horizontal components
-              Vector velocity = creeper.getVelocity();
-              velocity.setX(vx);
-              velocity.setZ(vz);
-              
-              creeper.setVelocity(velocity);
-              
-              // Make creeper look toward trader (1.9+ only - setRotation doesn't exist in 1.8)
-              if (ServerVersion.Version.isCurrentHigher(ServerVersion.Version.v1_8_8)) {
-                Location lookAt = creeperLoc.clone();
-                lookAt.setDirection(new Vector(dx, 0, dz).normalize());
-            // TODO(1.8.8): no setRotation API; if needed, use NMS yaw/pitch update.
-              }
-              // On 1.8, we skip rotation update to avoid NoSuchMethodError
-            }
+          // Make creeper look toward trader (1.9+ only - setRotation doesn't exist in 1.8)
+          if (ServerVersion.Version.isCurrentHigher(ServerVersion.Version.v1_8_8)) {
+            Location lookAt = creeperLoc.clone();
+            lookAt.setDirection(new Vector(dx, 0, dz).normalize());
+        // TODO(1.8.8): no setRotation API; if needed, use NMS yaw/pitch update.
           }
+          // On 1.8, we skip rotation update to avoid NoSuchMethodError
         }
       }
-    }.runTaskTimer(plugin, 0L, 4L); // Run every 4 ticks (5 times per second)
+    });
   }
 
   /**
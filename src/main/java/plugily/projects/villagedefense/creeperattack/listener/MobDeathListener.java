@@ -29,6 +29,7 @@ import org.bukkit.metadata.MetadataValue;
 import plugily.projects.minigamesbox.api.arena.IArenaState;
 import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.EntityRole;
 import plugily.projects.villagedefense.creeperattack.arena.ArenaContext;
 import plugily.projects.villagedefense.creeperattack.arena.CAArenaManager;
 import plugily.projects.villagedefense.creeperattack.npc.CitizensHook;
@@ -66,13 +67,10 @@ public class MobDeathListener implements Listener {
     } else if(citizensHook.isAvailable()) {
       NPC npc = citizensHook.getNpc(creeper);
       if(npc != null) {
-        // fallback: resolve arena from loaded contexts by entity list
-        for (Arena a : plugin.getArenaRegistry().getPluginArenas()) {
-          ArenaContext ctx = arenaManager.getContext(a.getId());
-          if(ctx != null && ctx.getCreepers().contains(creeper)) {
-            arenaId = a.getId();
-            break;
-          }
+        // fallback: resolve arena from the entity ownership registry
+        Arena owner = plugin.getEntityOwnershipRegistry().getArena(creeper, EntityRole.CA_CREEPER);
+        if(owner != null) {
+          arenaId = owner.getId();
         }
       }
     }
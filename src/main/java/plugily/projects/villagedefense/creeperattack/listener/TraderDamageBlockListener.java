@@ -31,6 +31,7 @@ import org.bukkit.event.player.PlayerInteractEntityEvent;
 import plugily.projects.minigamesbox.api.arena.IArenaState;
 import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.EntityRole;
 import plugily.projects.villagedefense.creeperattack.arena.ArenaContext;
 import plugily.projects.villagedefense.creeperattack.arena.CAArenaManager;
 import plugily.projects.villagedefense.creeperattack.npc.CitizensHook;
@@ -68,19 +69,11 @@ public class TraderDamageBlockListener implements Listener {
     
     Villager villager = (Villager) event.getEntity();
     
-    // Check if this is a Trader in any arena
-    for (Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-      if (arena.getArenaState() != IArenaState.IN_GAME) continue;
-      
-      ArenaContext context = arenaManager.getContext(arena.getId());
-      if (context == null) continue;
-      
-      Villager trader = context.getTraderEntity();
-      if (trader != null && trader.equals(villager)) {
-        // Cancel all damage - Trader HP is managed separately
-        event.setCancelled(true);
-        return;
-      }
+    // Check if this is a Trader of an arena in game
+    Arena arena = plugin.getEntityOwnershipRegistry().getArena(villager, EntityRole.TRADER);
+    if (arena != null && arena.getArenaState() == IArenaState.IN_GAME) {
+      // Cancel all damage - Trader HP is managed separately
+      event.setCancelled(true);
     }
   }
 
@@ -101,18 +94,10 @@ public class TraderDamageBlockListener implements Listener {
     
     Villager villager = (Villager) event.getEntity();
     
-    // Check if this is a Trader in any arena
-    for (Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-      if (arena.getArenaState() != IArenaState.IN_GAME) continue;
-      
-      ArenaContext context = arenaManager.getContext(arena.getId());
-      if (context == null) continue;
-      
-      Villager trader = context.getTraderEntity();
-      if (trader != null && trader.equals(villager)) {
-        event.setCancelled(true);
-        return;
-      }
+    // Check if this is a Trader of an arena in game
+    Arena arena = plugin.getEntityOwnershipRegistry().getArena(villager, EntityRole.TRADER);
+    if (arena != null && arena.getArenaState() == IArenaState.IN_GAME) {
+      event.setCancelled(true);
     }
   }
 
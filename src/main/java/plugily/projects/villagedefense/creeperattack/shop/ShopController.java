@@ -66,7 +66,7 @@ public class ShopController implements Listener {
     this.economyService = economyService;
     this.effectRegistry = effectRegistry;
     
-    Bukkit.getPluginManager().registerEvents(this, plugin);
+    plugin.getMetricsRegistry().registerEvents(this);
   }
 
   /**
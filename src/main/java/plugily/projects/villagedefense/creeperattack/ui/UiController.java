@@ -28,6 +28,7 @@ import org.bukkit.scoreboard.ScoreboardManager;
 import plugily.projects.minigamesbox.classic.utils.version.VersionUtils;
 import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.EntityLifecycleBus;
 import plugily.projects.villagedefense.creeperattack.arena.ArenaContext;
 import plugily.projects.villagedefense.creeperattack.config.ConfigService;
 
@@ -49,6 +50,11 @@ public class UiController {
   public UiController(Main plugin, ConfigService configService) {
     this.plugin = plugin;
     this.configService = configService;
+    
+    // Players leaving mid game are cleared by CAArenaManager#handlePlayerLeave
+    EntityLifecycleBus lifecycleBus = plugin.getEntityLifecycleBus();
+    lifecycleBus.registerCache("ca.scoreboards", playerScoreboards::size);
+    lifecycleBus.registerCache("ca.player-kills", playerKills::size);
   }
 
   /**
@@ -103,7 +109,7 @@ public class UiController {
   /**
    * Format a scoreboard line with placeholders.
    */
-  private String formatLine(String line, Player player, Arena arena, ArenaContext context) {
+  String formatLine(String line, Player player, Arena arena, ArenaContext context) {
     line = line.replace("%wave%", String.valueOf(context.getWaveIndex()));
     line = line.replace("%maxwave%", String.valueOf(context.getWaveMax()));
     line = line.replace("%trader_hp%", String.valueOf(context.getTraderCurrentHp()));
@@ -29,6 +29,7 @@ import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.EntityRole;
 import plugily.projects.villagedefense.creeperattack.arena.ArenaContext;
 import plugily.projects.villagedefense.creeperattack.arena.Lane;
 import plugily.projects.villagedefense.creeperattack.config.ConfigService;
@@ -115,6 +116,7 @@ public class WaveController {
       configureCreeper(creeper, context, arena, lane);
       
       context.addCreeper(creeper);
+      plugin.getEntityOwnershipRegistry().register(creeper, arena, EntityRole.CA_CREEPER);
       context.decrementCreepersToSpawn();
       context.incrementCreepersSpawned();
       spawned++;
@@ -19,11 +19,9 @@
 package plugily.projects.villagedefense.events;
 
 import org.bukkit.entity.Creature;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.IronGolem;
 import org.bukkit.entity.LivingEntity;
-import org.bukkit.entity.Wolf;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
@@ -34,7 +32,7 @@ import plugily.projects.minigamesbox.classic.utils.version.VersionUtils;
 import plugily.projects.minigamesbox.classic.utils.version.events.api.PlugilyPlayerInteractEntityEvent;
 import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.arena.Arena;
-import plugily.projects.villagedefense.creatures.CreatureUtils;
+import plugily.projects.villagedefense.arena.EntityRole;
 import plugily.projects.villagedefense.handlers.upgrade.EntityUpgradeMenu;
 
 import java.util.ArrayList;
@@ -53,7 +51,7 @@ public class EntityUpgradeListener implements Listener {
   public EntityUpgradeListener(EntityUpgradeMenu upgradeMenu) {
     this.upgradeMenu = upgradeMenu;
     this.plugin = upgradeMenu.getPlugin();
-    upgradeMenu.getPlugin().getServer().getPluginManager().registerEvents(this, upgradeMenu.getPlugin());
+    upgradeMenu.getPlugin().getMetricsRegistry().registerEvents(this);
   }
 
   @EventHandler
@@ -63,30 +61,22 @@ public class EntityUpgradeListener implements Listener {
     }
     switch(event.getDamager().getType()) {
       case IRON_GOLEM:
-        for(Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-          if(!arena.getIronGolems().contains(event.getDamager())) {
-            continue;
-          }
-          event.setDamage(event.getDamage() + upgradeMenu.getTier(event.getDamager(), upgradeMenu.getUpgrade("Damage")) * 2);
+        if(plugin.getEntityOwnershipRegistry().getRole(event.getDamager()) != EntityRole.GOLEM) {
+          return;
         }
+        event.setDamage(event.getDamage() + upgradeMenu.getTier(event.getDamager(), upgradeMenu.getUpgrade("Damage")) * 2);
         break;
       case WOLF:
-        for(Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-          if(!arena.getWolves().contains(event.getDamager())) {
-            continue;
-          }
-          int tier = upgradeMenu.getTier(event.getDamager(), upgradeMenu.getUpgrade("Swarm-Awareness"));
-          if(tier == 0) {
-            return;
-          }
-          double multiplier = 1;
-          for(Entity entity : plugin.getBukkitHelper().getNearbyEntities(event.getDamager().getLocation(), 3)) {
-            if(entity instanceof Wolf) {
-              multiplier += tier * 0.2;
-            }
-          }
-          event.setDamage(event.getDamage() * multiplier);
+        Arena arena = plugin.getEntityOwnershipRegistry().getArena(event.getDamager(), EntityRole.WOLF);
+        if(arena == null) {
+          return;
         }
+        int tier = upgradeMenu.getTier(event.getDamager(), upgradeMenu.getUpgrade("Swarm-Awareness"));
+        if(tier == 0) {
+          return;
+        }
+        int wolves = arena.getSpatialIndex().getNearby(event.getDamager().getLocation(), 3, EntityRole.WOLF).size();
+        event.setDamage(event.getDamage() * (1 + wolves * tier * 0.2));
         break;
       default:
         break;
@@ -101,24 +91,21 @@ public class EntityUpgradeListener implements Listener {
 
     LivingEntity livingEntity = event.getEntity();
 
-    for(Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-      if(!arena.getIronGolems().contains(livingEntity)) {
-        continue;
-      }
-      int tier = upgradeMenu.getTier(livingEntity, upgradeMenu.getUpgrade("Final-Defense"));
-      if(tier == 0) {
-        return;
-      }
-      VersionUtils.sendParticles("EXPLOSION_HUGE", arena.getPlayers(), livingEntity.getLocation(), 5);
-      for(Entity en : plugin.getBukkitHelper().getNearbyEntities(livingEntity.getLocation(), tier * 5)) {
-        if(CreatureUtils.isEnemy(en)) {
-          ((Creature) en).damage(10000.0, livingEntity);
-        }
-      }
-      for(Creature zombie : new ArrayList<>(arena.getEnemies())) {
-        zombie.addPotionEffect(new PotionEffect(PotionEffectType.SLOW, 5, 0));
-        zombie.damage(0.5, livingEntity);
-      }
+    Arena arena = plugin.getEntityOwnershipRegistry().getArena(livingEntity, EntityRole.GOLEM);
+    if(arena == null) {
+      return;
+    }
+    int tier = upgradeMenu.getTier(livingEntity, upgradeMenu.getUpgrade("Final-Defense"));
+    if(tier == 0) {
+      return;
+    }
+    plugin.getEffectDispatcher().particle("EXPLOSION_HUGE", arena, livingEntity.getLocation(), 5);
+    for(LivingEntity en : arena.getSpatialIndex().getNearby(livingEntity.getLocation(), tier * 5, EntityRole.ENEMY)) {
+      en.damage(10000.0, livingEntity);
+    }
+    for(Creature zombie : new ArrayList<>(arena.getEnemies())) {
+      zombie.addPotionEffect(new PotionEffect(PotionEffectType.SLOW, 5, 0));
+      zombie.damage(0.5, livingEntity);
     }
   }
 
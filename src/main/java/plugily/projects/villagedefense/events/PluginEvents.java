@@ -60,6 +60,7 @@ import plugily.projects.minigamesbox.string.StringFormatUtils;
 import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.api.event.game.VillageGameSecretWellEvent;
 import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.EntityRole;
 import plugily.projects.villagedefense.utils.Utils;
 
 /**
@@ -71,7 +72,7 @@ public class PluginEvents implements Listener {
 
   public PluginEvents(Main plugin) {
     this.plugin = plugin;
-    plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    plugin.getMetricsRegistry().registerEvents(this);
   }
 
 
@@ -200,11 +201,9 @@ public class PluginEvents implements Listener {
         event.setCancelled(true);
       }
     } else if(event.getEntity() instanceof IronGolem || event.getEntity() instanceof Villager || event.getEntity() instanceof Wolf) {
-      for(Arena a : plugin.getArenaRegistry().getPluginArenas()) {
-        if(a.getWolves().contains(event.getEntity()) || a.getVillagers().contains(event.getEntity()) || a.getIronGolems().contains(event.getEntity())) {
-          event.setCancelled(true);
-          return;
-        }
+      EntityRole role = plugin.getEntityOwnershipRegistry().getRole(event.getEntity());
+      if(role == EntityRole.WOLF || role == EntityRole.VILLAGER || role == EntityRole.GOLEM) {
+        event.setCancelled(true);
       }
     }
   }
@@ -229,14 +228,12 @@ public class PluginEvents implements Listener {
     if(!(event.getEntity() instanceof Creature) || !plugin.getConfigPreferences().getOption("ZOMBIE_HEALTHBAR")) {
       return;
     }
-    for(Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-      if(!arena.getEnemies().contains(event.getEntity())) {
-        continue;
-      }
-      Creature creature = (Creature) event.getEntity();
-      creature.setCustomName(StringFormatUtils.getProgressBar((int) creature.getHealth(), (int) VersionUtils.getMaxHealth(creature),
-          50, "|", ChatColor.YELLOW + "", ChatColor.GRAY + ""));
+    if(plugin.getEntityOwnershipRegistry().getRole(event.getEntity()) != EntityRole.ENEMY) {
+      return;
     }
+    Creature creature = (Creature) event.getEntity();
+    creature.setCustomName(StringFormatUtils.getProgressBar((int) creature.getHealth(), (int) VersionUtils.getMaxHealth(creature),
+        50, "|", ChatColor.YELLOW + "", ChatColor.GRAY + ""));
   }
 
   @EventHandler(priority = EventPriority.HIGHEST)
@@ -320,7 +317,7 @@ public class PluginEvents implements Listener {
           continue;
         }
         arena.changeArenaOptionBy("ROTTEN_FLESH_AMOUNT", itemStack.getAmount());
-        VersionUtils.sendParticles("CLOUD", arena.getPlayers(), location, 50, 2, 2, 2);
+        plugin.getEffectDispatcher().particle("CLOUD", arena, location, 50, 2, 2, 2);
         if(!arena.checkLevelUpRottenFlesh() || arena.getArenaOption("ROTTEN_FLESH_LEVEL") >= 30) {
           return;
         }
@@ -345,11 +342,8 @@ public class PluginEvents implements Listener {
       return;
     }
 
-    for(Arena arena : plugin.getArenaRegistry().getPluginArenas()) {
-      if(arena.getEnemies().contains(event.getEntity())) {
-        event.setCancelled(true);
-        break;
-      }
+    if(plugin.getEntityOwnershipRegistry().getRole(event.getEntity()) == EntityRole.ENEMY) {
+      event.setCancelled(true);
     }
   }
 
@@ -0,0 +1,320 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.handlers.effect;
+
+import org.bukkit.Location;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.Nullable;
+import plugily.projects.minigamesbox.classic.utils.version.VersionUtils;
+import plugily.projects.minigamesbox.classic.utils.version.xseries.XSound;
+import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.arena.Arena;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Queues particle and sound effects and sends them once per tick.
+ * <p>
+ * Requests of the same effect for the same viewers in the same block are coalesced
+ * into one packet, particle counts are summed and offsets widened to cover all merged
+ * positions. Every flush is limited by a packet budget per arena and per player,
+ * effects which do not fit are dropped so mass kills cannot flood clients.
+ * Particles and sounds are sent only to the players they were charged to.
+ */
+public class EffectDispatcher extends BukkitRunnable {
+
+  //particle packets are sent by the server to players in 32 blocks range
+  private static final double NEARBY_RANGE_SQUARED = 32 * 32;
+
+  private final Main plugin;
+  private final int arenaBudget;
+  private final int playerBudget;
+  private final int maxParticleCount;
+  private final Map<EffectKey, Effect> pending = new LinkedHashMap<>();
+  private final Map<Arena, int[]> arenaPackets = new IdentityHashMap<>();
+  private final Map<Player, int[]> playerPackets = new IdentityHashMap<>();
+  //resolved sounds by name, null value for names unknown on this server version
+  private final Map<String, Sound> sounds = new HashMap<>();
+  private final Location scratch = new Location(null, 0, 0, 0);
+  private int droppedRecipients;
+
+  public EffectDispatcher(Main plugin) {
+    this.plugin = plugin;
+    this.arenaBudget = Math.max(1, plugin.getConfig().getInt("Performance.Effects.Arena-Packets-Per-Tick", 200));
+    this.playerBudget = Math.max(1, plugin.getConfig().getInt("Performance.Effects.Player-Packets-Per-Tick", 40));
+    this.maxParticleCount = Math.max(1, plugin.getConfig().getInt("Performance.Effects.Max-Particle-Count", 50));
+    runTaskTimer(plugin, 1, 1);
+  }
+
+  /**
+   * Queues particles for players near the location.
+   *
+   * @param particle name of the particle
+   * @param arena    arena to charge and send the particles to its players or null for nearby players
+   * @param location location of the particles, copied
+   * @param count    amount of particles
+   */
+  public void particle(String particle, @Nullable Arena arena, Location location, int count) {
+    particle(particle, arena, location, count, 0, 0, 0);
+  }
+
+  /**
+   * Queues particles for players near the location.
+   *
+   * @param particle name of the particle
+   * @param arena    arena to charge and send the particles to its players or null for nearby players
+   * @param location location of the particles, copied
+   * @param count    amount of particles
+   * @param offsetX  random offset on x axis
+   * @param offsetY  random offset on y axis
+   * @param offsetZ  random offset on z axis
+   */
+  public void particle(String particle, @Nullable Arena arena, Location location, int count, double offsetX, double offsetY, double offsetZ) {
+    queue(new Effect(false, particle, arena, null, location, count, offsetX, offsetY, offsetZ));
+  }
+
+  /**
+   * Queues particles visible only for a single player.
+   *
+   * @param particle name of the particle
+   * @param viewer   player to send the particles to
+   * @param location location of the particles, copied
+   * @param count    amount of particles
+   */
+  public void particle(String particle, Player viewer, Location location, int count) {
+    queue(new Effect(false, particle, null, viewer, location, count, 0, 0, 0));
+  }
+
+  /**
+   * Queues a sound played at the location, the same sound is played only once per block and tick.
+   *
+   * @param arena    arena to charge or null
+   * @param location location of the sound, copied
+   * @param sound    name of the sound
+   */
+  public void sound(@Nullable Arena arena, Location location, String sound) {
+    queue(new Effect(true, sound, arena, null, location, 1, 0, 0, 0));
+  }
+
+  private void queue(Effect effect) {
+    if(effect.world == null) {
+      return;
+    }
+    Effect queued = pending.get(effect.key);
+    if(queued == null) {
+      pending.put(effect.key, effect);
+    } else if(!effect.sound) {
+      queued.merge(effect, maxParticleCount);
+    }
+  }
+
+  /**
+   * @return amount of effects waiting for the next flush
+   */
+  public int getPendingAmount() {
+    return pending.size();
+  }
+
+  @Override
+  public void run() {
+    if(pending.isEmpty()) {
+      return;
+    }
+    int dropped = 0;
+    for(Effect effect : pending.values()) {
+      int[] arenaUsed = effect.arena == null ? null : arenaPackets.computeIfAbsent(effect.arena, arena -> new int[1]);
+      Set<Player> recipients = chargeRecipients(effect, arenaUsed);
+      if(recipients.isEmpty()) {
+        dropped++;
+        continue;
+      }
+      Location location = new Location(effect.world, effect.x, effect.y, effect.z);
+      if(effect.sound) {
+        playSound(recipients, location, effect.name);
+      } else {
+        VersionUtils.sendParticles(effect.name, recipients, location, effect.count, effect.offsetX, effect.offsetY, effect.offsetZ);
+      }
+    }
+    pending.clear();
+    arenaPackets.clear();
+    playerPackets.clear();
+    if(dropped > 0) {
+      plugin.getMetricsRegistry().counter("effects.dropped").add(dropped);
+    }
+    if(droppedRecipients > 0) {
+      plugin.getMetricsRegistry().counter("effects.dropped-recipients").add(droppedRecipients);
+      droppedRecipients = 0;
+    }
+  }
+
+  private void playSound(Set<Player> recipients, Location location, String name) {
+    Sound sound = sounds.get(name);
+    if(sound == null && !sounds.containsKey(name)) {
+      sound = XSound.matchXSound(name).map(XSound::parseSound).orElse(null);
+      sounds.put(name, sound);
+    }
+    if(sound == null) {
+      return;
+    }
+    for(Player player : recipients) {
+      player.playSound(location, sound, 1, 1);
+    }
+  }
+
+  /**
+   * Charges one packet per recipient to the player and arena budget, recipients
+   * over either budget are dropped.
+   *
+   * @param effect    effect to send
+   * @param arenaUsed packets charged to the arena of the effect this tick or null
+   * @return players to send the effect to
+   */
+  private Set<Player> chargeRecipients(Effect effect, @Nullable int[] arenaUsed) {
+    Collection<Player> candidates;
+    if(effect.viewer != null) {
+      candidates = Collections.singleton(effect.viewer);
+    } else if(effect.arena != null) {
+      candidates = effect.arena.getPlayers();
+    } else {
+      candidates = effect.world.getPlayers();
+    }
+    Set<Player> recipients = new HashSet<>();
+    for(Player player : candidates) {
+      if(!player.isOnline()) {
+        continue;
+      }
+      Location location = player.getLocation(scratch);
+      if(location.getWorld() != effect.world || distanceSquared(location, effect) > NEARBY_RANGE_SQUARED) {
+        continue;
+      }
+      if(arenaUsed != null && arenaUsed[0] >= arenaBudget) {
+        droppedRecipients++;
+        continue;
+      }
+      int[] used = playerPackets.computeIfAbsent(player, key -> new int[1]);
+      if(used[0] >= playerBudget) {
+        droppedRecipients++;
+        continue;
+      }
+      used[0]++;
+      if(arenaUsed != null) {
+        arenaUsed[0]++;
+      }
+      recipients.add(player);
+    }
+    return recipients;
+  }
+
+  private static double distanceSquared(Location location, Effect effect) {
+    double x = location.getX() - effect.x, y = location.getY() - effect.y, z = location.getZ() - effect.z;
+    return x * x + y * y + z * z;
+  }
+
+  private static final class Effect {
+
+    private final boolean sound;
+    private final String name;
+    private final Arena arena;
+    private final Player viewer;
+    private final World world;
+    private final double x;
+    private final double y;
+    private final double z;
+    private final EffectKey key;
+    private int count;
+    private double offsetX;
+    private double offsetY;
+    private double offsetZ;
+
+    private Effect(boolean sound, String name, Arena arena, Player viewer, Location location, int count, double offsetX, double offsetY, double offsetZ) {
+      this.sound = sound;
+      this.name = name;
+      this.arena = arena;
+      this.viewer = viewer;
+      this.world = location.getWorld();
+      this.x = location.getX();
+      this.y = location.getY();
+      this.z = location.getZ();
+      this.count = count;
+      this.offsetX = offsetX;
+      this.offsetY = offsetY;
+      this.offsetZ = offsetZ;
+      this.key = new EffectKey(sound, name, viewer != null ? viewer : arena, world, location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    private void merge(Effect other, int maxCount) {
+      count = Math.min(maxCount, count + other.count);
+      offsetX = Math.max(offsetX, Math.abs(other.x - x) + other.offsetX);
+      offsetY = Math.max(offsetY, Math.abs(other.y - y) + other.offsetY);
+      offsetZ = Math.max(offsetZ, Math.abs(other.z - z) + other.offsetZ);
+    }
+  }
+
+  private static final class EffectKey {
+
+    private final boolean sound;
+    private final String name;
+    private final Object target;
+    private final World world;
+    private final int blockX;
+    private final int blockY;
+    private final int blockZ;
+
+    private EffectKey(boolean sound, String name, Object target, World world, int blockX, int blockY, int blockZ) {
+      this.sound = sound;
+      this.name = name;
+      this.target = target;
+      this.world = world;
+      this.blockX = blockX;
+      this.blockY = blockY;
+      this.blockZ = blockZ;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if(this == o) return true;
+      if(!(o instanceof EffectKey)) return false;
+      EffectKey other = (EffectKey) o;
+      return sound == other.sound && blockX == other.blockX && blockY == other.blockY && blockZ == other.blockZ
+          && target == other.target && world == other.world && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = name.hashCode();
+      result = 31 * result + blockX;
+      result = 31 * result + blockY;
+      result = 31 * result + blockZ;
+      result = 31 * result + System.identityHashCode(target);
+      return 31 * result + (sound ? 1 : 0);
+    }
+  }
+
+}
@@ -38,7 +38,7 @@ public class PowerupHandler implements Listener {
 
   public PowerupHandler(Main plugin) {
     this.plugin = plugin;
-    plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    plugin.getMetricsRegistry().registerEvents(this);
   }
 
   @EventHandler
@@ -18,7 +18,6 @@
 
 package plugily.projects.villagedefense.kits.level;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Color;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -26,12 +25,12 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.plugin.Plugin;
 import plugily.projects.minigamesbox.classic.handlers.language.MessageBuilder;
 import plugily.projects.minigamesbox.classic.kits.basekits.LevelKit;
 import plugily.projects.minigamesbox.classic.utils.helper.ArmorHelper;
 import plugily.projects.minigamesbox.classic.utils.helper.WeaponHelper;
 import plugily.projects.minigamesbox.classic.utils.version.xseries.XMaterial;
+import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.creatures.CreatureUtils;
 
 import java.util.List;
@@ -50,7 +49,7 @@ public class LooterKit extends LevelKit implements Listener {
     );
     setLevel(getKitsConfig().getInt("Required-Level.Looter"));
     getPlugin().getKitRegistry().registerKit(this);
-    Bukkit.getPluginManager().registerEvents(this, (Plugin) getPlugin());
+    ((Main) getPlugin()).getMetricsRegistry().registerEvents(this);
   }
 
   @Override
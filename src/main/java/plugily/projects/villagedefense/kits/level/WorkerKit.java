@@ -18,9 +18,9 @@
 
 package plugily.projects.villagedefense.kits.level;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Color;
 import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -28,14 +28,15 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.plugin.Plugin;
 import plugily.projects.minigamesbox.classic.handlers.language.MessageBuilder;
 import plugily.projects.minigamesbox.classic.kits.basekits.LevelKit;
 import plugily.projects.minigamesbox.classic.utils.helper.ArmorHelper;
 import plugily.projects.minigamesbox.classic.utils.helper.WeaponHelper;
 import plugily.projects.minigamesbox.classic.utils.version.VersionUtils;
 import plugily.projects.minigamesbox.classic.utils.version.xseries.XMaterial;
+import plugily.projects.villagedefense.Main;
 import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.managers.maprestorer.BlockChangeJournal;
 import plugily.projects.villagedefense.utils.Utils;
 
 import java.util.List;
@@ -54,7 +55,7 @@ public class WorkerKit extends LevelKit implements Listener {
     );
     setLevel(getKitsConfig().getInt("Required-Level.Worker"));
     getPlugin().getKitRegistry().registerKit(this);
-    Bukkit.getPluginManager().registerEvents(this, (Plugin) getPlugin());
+    ((Main) getPlugin()).getMetricsRegistry().registerEvents(this);
   }
 
   @Override
@@ -94,6 +95,12 @@ public class WorkerKit extends LevelKit implements Listener {
     }
     //to override world guard protection
     event.setCancelled(false);
+    Block block = event.getBlock();
+    BlockChangeJournal blockJournal = arena.getMapRestorerManager().getBlockJournal();
+    blockJournal.record(event.getBlockReplacedState());
+    //upper half is placed together with the door, it can only replace air
+    blockJournal.record(block.getWorld(), block.getX(), block.getY() + 1, block.getZ(), Material.AIR, (byte) 0);
+    arena.getMapRestorerManager().repairDoor(block.getLocation());
     new MessageBuilder("KIT_CONTENT_WORKER_GAME_ITEM_CHAT").asKey().player(event.getPlayer()).sendPlayer();
   }
 
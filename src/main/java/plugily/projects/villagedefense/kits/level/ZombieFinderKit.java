@@ -18,7 +18,6 @@
 
 package plugily.projects.villagedefense.kits.level;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Creature;
@@ -26,7 +25,6 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.plugin.Plugin;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import plugily.projects.minigamesbox.classic.handlers.language.MessageBuilder;
@@ -59,7 +57,7 @@ public class ZombieFinderKit extends LevelKit implements Listener {
     );
     setLevel(getKitsConfig().getInt("Required-Level.ZombieFinder"));
     getPlugin().getKitRegistry().registerKit(this);
-    Bukkit.getPluginManager().registerEvents(this, (Plugin) getPlugin());
+    ((Main) getPlugin()).getMetricsRegistry().registerEvents(this);
   }
 
   @Override
@@ -18,7 +18,6 @@
 
 package plugily.projects.villagedefense.kits.premium;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Color;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -62,7 +61,7 @@ public class BlockerKit extends PremiumKit implements Listener {
         new ItemStack(Material.BARRIER)
     );
     getPlugin().getKitRegistry().registerKit(this);
-    Bukkit.getPluginManager().registerEvents(this, (Plugin) getPlugin());
+    ((Main) getPlugin()).getMetricsRegistry().registerEvents(this);
   }
 
   @Override
@@ -130,6 +129,7 @@ public class BlockerKit extends PremiumKit implements Listener {
 
     VersionUtils.sendParticles("FIREWORKS_SPARK", arena.getPlayers(), zombieBarrier.location, 20);
     removeBarrierLater(zombieBarrier, arena);
+    arena.getMapRestorerManager().getBlockJournal().record(block);
     block.setType(XMaterial.OAK_FENCE.parseMaterial());
   }
 
@@ -18,14 +18,12 @@
 
 package plugily.projects.villagedefense.kits.premium;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Color;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.plugin.Plugin;
 import plugily.projects.minigamesbox.classic.handlers.language.MessageBuilder;
 import plugily.projects.minigamesbox.classic.kits.basekits.PremiumKit;
 import plugily.projects.minigamesbox.api.user.IUser;
@@ -56,7 +54,7 @@ public class CleanerKit extends PremiumKit implements Listener {
         new ItemStack(Material.BLAZE_POWDER)
     );
     getPlugin().getKitRegistry().registerKit(this);
-    Bukkit.getPluginManager().registerEvents(this, (Plugin) getPlugin());
+    ((Main) getPlugin()).getMetricsRegistry().registerEvents(this);
   }
 
   @Override
@@ -18,8 +18,8 @@
 
 package plugily.projects.villagedefense.kits.premium;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Color;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Creature;
 import org.bukkit.entity.Entity;
@@ -28,7 +28,6 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.plugin.Plugin;
 import org.bukkit.potion.PotionType;
 import plugily.projects.minigamesbox.classic.handlers.language.MessageBuilder;
 import plugily.projects.minigamesbox.classic.kits.basekits.PremiumKit;
@@ -39,6 +38,7 @@ import plugily.projects.minigamesbox.classic.utils.version.VersionUtils;
 import plugily.projects.minigamesbox.api.user.IUser;
 import plugily.projects.minigamesbox.classic.utils.version.xseries.XMaterial;
 import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.arena.Arena;
 
 import java.util.List;
 
@@ -55,7 +55,7 @@ public class MedicKit extends PremiumKit implements Listener {
         new ItemStack(Material.GHAST_TEAR)
     );
     getPlugin().getKitRegistry().registerKit(this);
-    Bukkit.getPluginManager().registerEvents(this, (Plugin) getPlugin());
+    ((Main) getPlugin()).getMetricsRegistry().registerEvents(this);
   }
 
   @Override
@@ -85,16 +85,21 @@ public class MedicKit extends PremiumKit implements Listener {
     if(!(user.getKit() instanceof MedicKit) || Math.random() > 0.1) {
       return;
     }
-    healNearbyPlayers(e.getDamager());
+    Arena arena = ((Main) getPlugin()).getArenaRegistry().getArena((Player) e.getDamager());
+    if(arena != null) {
+      healNearbyPlayers(e.getDamager(), arena);
+    }
   }
 
-  private void healNearbyPlayers(Entity en) {
-    for(Entity entity : en.getNearbyEntities(5, 5, 5)) {
-      if(!(entity instanceof Player)) {
+  private void healNearbyPlayers(Entity en, Arena arena) {
+    //players are not part of the arena creature grid, arena player list is small enough
+    Location center = en.getLocation();
+    for(Player player : arena.getPlayers()) {
+      Location location = player.getLocation();
+      if(player.equals(en) || location.getWorld() != center.getWorld() || Math.abs(location.getX() - center.getX()) > 5
+          || Math.abs(location.getY() - center.getY()) > 5 || Math.abs(location.getZ() - center.getZ()) > 5) {
         continue;
       }
-
-      Player player = (Player) entity;
       double newHealth = player.getHealth() + 1;
       double maxHealth = VersionUtils.getMaxHealth(player);
 
@@ -104,7 +109,7 @@ public class MedicKit extends PremiumKit implements Listener {
         player.setHealth(maxHealth);
       }
 
-      VersionUtils.sendParticles("HEART", player, player.getLocation(), 20);
+      ((Main) getPlugin()).getEffectDispatcher().particle("HEART", player, player.getLocation(), 20);
     }
   }
 
@@ -56,7 +56,7 @@ public class ShotBowKit extends PremiumKit implements Listener {
         new ItemStack(Material.ARROW)
     );
     getPlugin().getKitRegistry().registerKit(this);
-    Bukkit.getPluginManager().registerEvents(this, (Plugin) getPlugin());
+    ((Main) getPlugin()).getMetricsRegistry().registerEvents(this);
   }
 
   @Override
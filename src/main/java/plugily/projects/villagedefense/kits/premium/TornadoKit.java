@@ -18,7 +18,6 @@
 
 package plugily.projects.villagedefense.kits.premium;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Entity;
@@ -42,7 +41,8 @@ import plugily.projects.minigamesbox.classic.utils.version.events.api.PlugilyPla
 import org.bukkit.plugin.Plugin;
 import plugily.projects.minigamesbox.classic.utils.version.xseries.XMaterial;
 import plugily.projects.villagedefense.Main;
-import plugily.projects.villagedefense.creatures.CreatureUtils;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.EntityRole;
 
 import java.util.List;
 
@@ -64,7 +64,7 @@ public class TornadoKit extends PremiumKit implements Listener {
         new ItemStack(XMaterial.COBWEB.parseMaterial())
     );
     getPlugin().getKitRegistry().registerKit(this);
-    Bukkit.getPluginManager().registerEvents(this, (Plugin) getPlugin());
+    ((Main) getPlugin()).getMetricsRegistry().registerEvents(this);
   }
 
   @Override
@@ -116,11 +116,11 @@ public class TornadoKit extends PremiumKit implements Listener {
     }
     ((Main) getPlugin()).getBukkitHelper().takeOneItem(player, stack);
     e.setCancelled(true);
-    prepareTornado(player.getLocation());
+    prepareTornado(player.getLocation(), ((Main) getPlugin()).getArenaRegistry().getArena(player));
   }
 
-  private void prepareTornado(Location location) {
-    Tornado tornado = new Tornado(location);
+  private void prepareTornado(Location location, Arena arena) {
+    Tornado tornado = new Tornado(location, arena);
     active++;
     new BukkitRunnable() {
       @Override
@@ -136,13 +136,15 @@ public class TornadoKit extends PremiumKit implements Listener {
 
   private class Tornado {
     private Location location;
+    private final Arena arena;
     private final Vector vector;
     private int angle;
     private int times = 0;
     private int entities = 0;
 
-    Tornado(Location location) {
+    Tornado(Location location, Arena arena) {
       this.location = location;
+      this.arena = arena;
       vector = location.getDirection();
     }
 
@@ -159,7 +161,7 @@ public class TornadoKit extends PremiumKit implements Listener {
               radians = Math.toRadians(360.0 / lines * l + y * 25 - angle),
               x = Math.cos(radians) * radius,
               z = Math.sin(radians) * radius;
-          VersionUtils.sendParticles("CLOUD", null, location.clone().add(x, y, z), 1, 0, 0, 0);
+          ((Main) getPlugin()).getEffectDispatcher().particle("CLOUD", arena, location.clone().add(x, y, z), 1);
         }
       }
       pushNearbyEnemies();
@@ -169,17 +171,18 @@ public class TornadoKit extends PremiumKit implements Listener {
     }
 
     private void pushNearbyEnemies() {
-      for(Entity entity : location.getWorld().getNearbyEntities(location, 2, 2, 2)) {
-        if(CreatureUtils.isEnemy(entity)) {
-          entities++;
-
-          Vector velocityVec = vector.multiply(2).setY(0).add(new Vector(0, 1, 0));
-          if(VersionUtils.isPaper() && (vector.getX() > 4.0 || vector.getZ() > 4.0)) {
-            velocityVec = vector.setX(2.0).setZ(1.0); // Paper's sh*t
-          }
+      if(arena == null) {
+        return;
+      }
+      for(Entity entity : arena.getSpatialIndex().getWithin(location, 2, 2, 2, EntityRole.ENEMY)) {
+        entities++;
 
-          entity.setVelocity(velocityVec);
+        Vector velocityVec = vector.multiply(2).setY(0).add(new Vector(0, 1, 0));
+        if(VersionUtils.isPaper() && (vector.getX() > 4.0 || vector.getZ() > 4.0)) {
+          velocityVec = vector.setX(2.0).setZ(1.0); // Paper's sh*t
         }
+
+        entity.setVelocity(velocityVec);
       }
     }
   }
@@ -23,7 +23,6 @@ import org.bukkit.Color;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Creature;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -46,7 +45,8 @@ import plugily.projects.minigamesbox.classic.utils.version.events.api.PlugilyPla
 import org.bukkit.plugin.Plugin;
 import plugily.projects.minigamesbox.classic.utils.version.xseries.XMaterial;
 import plugily.projects.villagedefense.Main;
-import plugily.projects.villagedefense.creatures.CreatureUtils;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.EntityRole;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -68,7 +68,7 @@ public class WizardKit extends PremiumKit implements Listener {
         new ItemStack(Material.BLAZE_ROD)
     );
     getPlugin().getKitRegistry().registerKit(this);
-    Bukkit.getPluginManager().registerEvents(this, (Plugin) getPlugin());
+    ((Main) getPlugin()).getMetricsRegistry().registerEvents(this);
   }
 
   @Override
@@ -145,10 +145,9 @@ public class WizardKit extends PremiumKit implements Listener {
       ((Main) getPlugin()).getBukkitHelper().takeOneItem(player, stack);
       VersionUtils.setGlowing(player, true);
       applyRageParticles(player);
-      for(Entity entity : player.getNearbyEntities(2, 2, 2)) {
-        if(CreatureUtils.isEnemy(entity)) {
-        ((Creature) entity).damage(9.0, player);
-        }
+      Arena arena = ((Main) getPlugin()).getArenaRegistry().getArena(player);
+      for(LivingEntity entity : arena.getSpatialIndex().getWithin(player.getLocation(), 2, 2, 2, EntityRole.ENEMY)) {
+        entity.damage(9.0, player);
       }
       Bukkit.getScheduler().runTaskLater((Plugin) getPlugin(), () -> {
         VersionUtils.setGlowing(player, false);
@@ -159,7 +158,7 @@ public class WizardKit extends PremiumKit implements Listener {
       if(!user.checkCanCastCooldownAndMessage("wizard_staff")) {
         return;
       }
-      applyMagicAttack(player);
+      applyMagicAttack(player, ((Main) getPlugin()).getArenaRegistry().getArena(player));
       user.setCooldown("wizard_staff", getKitsConfig().getInt("Kit-Cooldown.Wizard.Staff", 1));
     }
   }
@@ -170,7 +169,7 @@ public class WizardKit extends PremiumKit implements Listener {
       public void run() {
         Location loc = player.getLocation();
         loc.add(0, 0.8, 0);
-        VersionUtils.sendParticles("VILLAGER_ANGRY", null, loc, 5, 0, 0, 0);
+        ((Main) getPlugin()).getEffectDispatcher().particle("VILLAGER_ANGRY", ((Main) getPlugin()).getArenaRegistry().getArena(player), loc, 5);
         if(!wizardsOnDuty.contains(player) || !getPlugin().getArenaRegistry().isInArena(player)) {
           cancel();
         }
@@ -178,7 +177,7 @@ public class WizardKit extends PremiumKit implements Listener {
     }.runTaskTimer((Plugin) getPlugin(), 0, 2);
   }
 
-  private void applyMagicAttack(Player player) {
+  private void applyMagicAttack(Player player, Arena arena) {
     new BukkitRunnable() {
       double positionModifier = 0;
       final Location loc = player.getLocation();
@@ -191,13 +190,10 @@ public class WizardKit extends PremiumKit implements Listener {
             y = direction.getY() * positionModifier + 1.5,
             z = direction.getZ() * positionModifier;
         loc.add(x, y, z);
-        VersionUtils.sendParticles("TOWN_AURA", null, loc, 5, 0, 0, 0);
-        for(Entity en : loc.getChunk().getEntities()) {
-          if(!(CreatureUtils.isEnemy(en)) || en.getLocation().distance(loc) >= 1.5 || en.equals(player)) {
-            continue;
-          }
-          ((LivingEntity) en).damage(6.0, player);
-          VersionUtils.sendParticles("FIREWORKS_SPARK", null, en.getLocation(), 2, 0.5, 0.5, 0.5);
+        ((Main) getPlugin()).getEffectDispatcher().particle("TOWN_AURA", arena, loc, 5);
+        for(LivingEntity en : arena.getSpatialIndex().getNearby(loc, 1.5, EntityRole.ENEMY)) {
+          en.damage(6.0, player);
+          ((Main) getPlugin()).getEffectDispatcher().particle("FIREWORKS_SPARK", arena, en.getLocation(), 2, 0.5, 0.5, 0.5);
         }
         loc.subtract(x, y, z);
         if(positionModifier > 40) {
@@ -16,34 +16,37 @@
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package plugily.projects.villagedefense.creatures;
+
+package plugily.projects.villagedefense.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * @author Plajer
- * <p>
- * Created at 06.01.2019
+ * Monotonic event counter.
  */
-public class CachedObject {
+public class Counter {
 
-  private final String fieldName;
-  private final Class<?> clazz;
-  private final Object object;
+  private final String name;
+  private final LongAdder value = new LongAdder();
 
-  public CachedObject(String fieldName, Class<?> clazz, Object object) {
-    this.fieldName = fieldName;
-    this.clazz = clazz;
-    this.object = object;
+  Counter(String name) {
+    this.name = name;
   }
 
-  public String getFieldName() {
-    return fieldName;
+  public void increment() {
+    value.increment();
   }
 
-  public Class<?> getClazz() {
-    return clazz;
+  public void add(long amount) {
+    value.add(amount);
   }
 
-  public Object getObject() {
-    return object;
+  public String getName() {
+    return name;
   }
+
+  public long get() {
+    return value.sum();
+  }
+
 }
@@ -0,0 +1,171 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram over a sliding time window.
+ * <p>
+ * Values are stored in HDR-style log-linear buckets, every power of two range is split
+ * into {@value #SUB_BUCKETS} linear sub buckets so the relative error stays below 13%.
+ * The window is split into slices, a slice is cleared when the window moves over it.
+ * Records racing with a slice reset may be lost which is acceptable for statistics.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAGNITUDES = 36;
+  private static final int BUCKETS = (MAGNITUDES + 1) * SUB_BUCKETS;
+  private static final long MAX_VALUE = (1L << (MAGNITUDES + SUB_BUCKET_BITS)) - 1;
+
+  private final int slices;
+  private final long sliceNanos;
+  private final long origin = System.nanoTime();
+  private final AtomicLongArray counts;
+  private final AtomicLongArray maxima;
+  private final AtomicLongArray epochs;
+
+  /**
+   * @param windowNanos length of the sliding window
+   * @param slices      amount of slices the window is split into
+   */
+  public LatencyHistogram(long windowNanos, int slices) {
+    this.slices = Math.max(1, slices);
+    this.sliceNanos = Math.max(1, windowNanos / this.slices);
+    this.counts = new AtomicLongArray(this.slices * BUCKETS);
+    this.maxima = new AtomicLongArray(this.slices);
+    this.epochs = new AtomicLongArray(this.slices);
+  }
+
+  public void record(long nanos) {
+    long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+    long epoch = currentEpoch();
+    int slice = (int) (epoch % slices);
+    long sliceEpoch = epochs.get(slice);
+    if(sliceEpoch != epoch && epochs.compareAndSet(slice, sliceEpoch, epoch)) {
+      clear(slice);
+    }
+    counts.incrementAndGet(slice * BUCKETS + bucket(value));
+    long max;
+    while(value > (max = maxima.get(slice))) {
+      if(maxima.compareAndSet(slice, max, value)) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Merges slices of the current window.
+   *
+   * @return snapshot of the window
+   */
+  public Snapshot snapshot() {
+    long epoch = currentEpoch();
+    long[] merged = new long[BUCKETS];
+    long total = 0;
+    long max = 0;
+    for(int slice = 0; slice < slices; slice++) {
+      if(epoch - epochs.get(slice) >= slices) {
+        continue;
+      }
+      int offset = slice * BUCKETS;
+      for(int bucket = 0; bucket < BUCKETS; bucket++) {
+        long count = counts.get(offset + bucket);
+        merged[bucket] += count;
+        total += count;
+      }
+      max = Math.max(max, maxima.get(slice));
+    }
+    return new Snapshot(merged, total, max);
+  }
+
+  private long currentEpoch() {
+    //epoch 0 would equal the initial value of unused slices
+    return (System.nanoTime() - origin) / sliceNanos + slices;
+  }
+
+  private void clear(int slice) {
+    int offset = slice * BUCKETS;
+    for(int bucket = 0; bucket < BUCKETS; bucket++) {
+      counts.set(offset + bucket, 0);
+    }
+    maxima.set(slice, 0);
+  }
+
+  static int bucket(long value) {
+    if(value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  static long bucketMidpoint(int bucket) {
+    if(bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+    long lowerBound = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+    return lowerBound + ((1L << shift) >>> 1);
+  }
+
+  public static final class Snapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long max;
+
+    private Snapshot(long[] counts, long count, long max) {
+      this.counts = counts;
+      this.count = count;
+      this.max = max;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getMax() {
+      return max;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return approximated value at given percentile in nanoseconds
+     */
+    public long getPercentile(double percentile) {
+      if(count == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+      long seen = 0;
+      for(int bucket = 0; bucket < counts.length; bucket++) {
+        seen += counts[bucket];
+        if(seen >= rank) {
+          return Math.min(bucketMidpoint(bucket), max);
+        }
+      }
+      return max;
+    }
+  }
+
+}
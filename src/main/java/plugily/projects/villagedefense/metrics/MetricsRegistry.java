@@ -0,0 +1,187 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.metrics;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.arena.Arena;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of subsystem timers and counters.
+ * <p>
+ * Timers are kept globally and per arena, recording with an arena updates both.
+ * Listeners registered through {@link #registerEvents(Listener)} are timed per handler method.
+ */
+public class MetricsRegistry {
+
+  private static final int WINDOW_SLICES = 4;
+
+  private final Main plugin;
+  private final long windowNanos;
+  private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+  private final Map<String, Map<String, Timer>> arenaTimers = new ConcurrentHashMap<>();
+  private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+  private final Map<String, Map<String, Counter>> arenaCounters = new ConcurrentHashMap<>();
+
+  public MetricsRegistry(Main plugin) {
+    this.plugin = plugin;
+    this.windowNanos = TimeUnit.SECONDS.toNanos(Math.max(1, plugin.getConfig().getInt("Performance.Metrics-Window-Seconds", 60)));
+  }
+
+  @NotNull
+  public Timer timer(String subsystem) {
+    return timers.computeIfAbsent(subsystem, this::newTimer);
+  }
+
+  @NotNull
+  public Timer timer(String subsystem, Arena arena) {
+    return arenaTimers.computeIfAbsent(arena.getId(), id -> new ConcurrentHashMap<>()).computeIfAbsent(subsystem, this::newTimer);
+  }
+
+  @NotNull
+  public Counter counter(String name) {
+    return counters.computeIfAbsent(name, Counter::new);
+  }
+
+  @NotNull
+  public Counter counter(String name, Arena arena) {
+    return arenaCounters.computeIfAbsent(arena.getId(), id -> new ConcurrentHashMap<>()).computeIfAbsent(name, Counter::new);
+  }
+
+  /**
+   * Counts events of subsystem, counting with an arena updates both global and arena counter.
+   *
+   * @param name   name of the counter
+   * @param arena  arena the events happened in or null if not arena bound
+   * @param amount amount of events
+   */
+  public void count(String name, @Nullable Arena arena, long amount) {
+    if(amount <= 0) {
+      return;
+    }
+    counter(name).add(amount);
+    if(arena != null) {
+      counter(name, arena).add(amount);
+    }
+  }
+
+  /**
+   * Records time spent in subsystem.
+   *
+   * @param subsystem name of the subsystem
+   * @param arena     arena the work was done for or null if not arena bound
+   * @param nanos     time spent in nanoseconds
+   */
+  public void record(String subsystem, @Nullable Arena arena, long nanos) {
+    timer(subsystem).record(nanos);
+    if(arena != null) {
+      timer(subsystem, arena).record(nanos);
+    }
+  }
+
+  /**
+   * Registers all event handlers of the listener like
+   * {@link org.bukkit.plugin.PluginManager#registerEvents(Listener, org.bukkit.plugin.Plugin)}
+   * but every handler call is timed as listener.&lt;class&gt;.&lt;method&gt;.
+   *
+   * @param listener listener to register
+   */
+  public void registerEvents(Listener listener) {
+    String prefix = "listener." + listener.getClass().getSimpleName() + ".";
+    for(Method method : listener.getClass().getDeclaredMethods()) {
+      EventHandler handler = method.getAnnotation(EventHandler.class);
+      if(handler == null || method.isBridge() || method.isSynthetic() || method.getParameterTypes().length != 1
+          || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+        continue;
+      }
+      Class<? extends Event> eventClass = method.getParameterTypes()[0].asSubclass(Event.class);
+      method.setAccessible(true);
+      Timer timer = timer(prefix + method.getName());
+      EventExecutor executor = (registered, event) -> {
+        //executor is also called for subclasses of registered event handler list owner
+        if(!eventClass.isInstance(event)) {
+          return;
+        }
+        long start = System.nanoTime();
+        try {
+          method.invoke(registered, event);
+        } catch(InvocationTargetException exception) {
+          throw new EventException(exception.getCause());
+        } catch(IllegalAccessException exception) {
+          throw new EventException(exception);
+        } finally {
+          timer.record(System.nanoTime() - start);
+        }
+      };
+      plugin.getServer().getPluginManager().registerEvent(eventClass, listener, handler.priority(), executor, plugin, handler.ignoreCancelled());
+    }
+  }
+
+  /**
+   * @return sorted view of global timers
+   */
+  public Map<String, Timer> getTimers() {
+    return Collections.unmodifiableMap(new TreeMap<>(timers));
+  }
+
+  /**
+   * @param arenaId id of the arena
+   * @return sorted view of timers of given arena
+   */
+  public Map<String, Timer> getTimers(String arenaId) {
+    Map<String, Timer> arena = arenaTimers.get(arenaId);
+    return arena == null ? Collections.emptyMap() : Collections.unmodifiableMap(new TreeMap<>(arena));
+  }
+
+  /**
+   * @return sorted view of counters
+   */
+  public Map<String, Counter> getCounters() {
+    return Collections.unmodifiableMap(new TreeMap<>(counters));
+  }
+
+  /**
+   * @param arenaId id of the arena
+   * @return sorted view of counters of given arena
+   */
+  public Map<String, Counter> getCounters(String arenaId) {
+    Map<String, Counter> arena = arenaCounters.get(arenaId);
+    return arena == null ? Collections.emptyMap() : Collections.unmodifiableMap(new TreeMap<>(arena));
+  }
+
+  private Timer newTimer(String name) {
+    return new Timer(name, windowNanos, WINDOW_SLICES);
+  }
+
+}
@@ -0,0 +1,219 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.metrics;
+
+import org.bukkit.scheduler.BukkitRunnable;
+import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.creeperattack.arena.ArenaContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Periodically writes arena gauges and subsystem timings to a file in
+ * Prometheus text exposition format so a node exporter textfile collector can scrape it.
+ * <p>
+ * Arena values are sampled on the main thread, rendering and writing is done asynchronously.
+ * The file is replaced atomically so the collector never reads a partially written file.
+ */
+public class PrometheusExporter extends BukkitRunnable {
+
+  private static final String PREFIX = "villagedefense_";
+  private static final double[] QUANTILES = {0.5, 0.99};
+
+  private final Main plugin;
+  private final File file;
+  private final AtomicBoolean writing = new AtomicBoolean();
+  private final Map<String, long[]> lastEntityCounts = new HashMap<>();
+  private long lastSample;
+
+  public PrometheusExporter(Main plugin) {
+    this.plugin = plugin;
+    this.file = new File(plugin.getDataFolder(), plugin.getConfig().getString("Performance.Metrics-Export.File", "metrics/villagedefense.prom"));
+    long period = Math.max(1, plugin.getConfig().getInt("Performance.Metrics-Export.Interval-Seconds", 15)) * 20L;
+    runTaskTimer(plugin, period, period);
+  }
+
+  @Override
+  public void run() {
+    //previous write is still in progress, skip this sample instead of piling up writers
+    if(writing.get()) {
+      return;
+    }
+    List<ArenaSample> samples = sampleArenas();
+    writing.set(true);
+    plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+      try {
+        write(render(samples));
+      } catch(IOException exception) {
+        plugin.getDebugger().debug(Level.WARNING, "Cannot write metrics file {0}: {1}", file.getPath(), exception.getMessage());
+      } finally {
+        writing.set(false);
+      }
+    });
+  }
+
+  private List<ArenaSample> sampleArenas() {
+    long now = System.nanoTime();
+    double elapsedSeconds = lastSample == 0 ? 0 : (now - lastSample) / 1_000_000_000.0;
+    lastSample = now;
+    MetricsRegistry metrics = plugin.getMetricsRegistry();
+    List<Arena> arenas = plugin.getArenaRegistry().getPluginArenas();
+    List<ArenaSample> samples = new ArrayList<>(arenas.size());
+    for(Arena arena : arenas) {
+      ArenaSample sample = new ArenaSample(arena.getId());
+      sample.enemiesAlive = arena.getEnemies().size();
+      sample.zombiesToSpawn = arena.getArenaOption("ZOMBIES_TO_SPAWN");
+      sample.wave = arena.getWave();
+      ArenaContext context = plugin.getCreeperAttackMode() == null ? null : plugin.getCreeperAttackMode().getArenaManager().getContext(arena.getId());
+      sample.creepersAlive = context == null ? 0 : context.getCreepers().size();
+
+      long spawned = metrics.counter("entities.spawned", arena).get();
+      long removed = metrics.counter("entities.removed", arena).get();
+      long[] last = lastEntityCounts.put(arena.getId(), new long[]{spawned, removed});
+      if(last != null && elapsedSeconds > 0) {
+        sample.spawnedPerSecond = (spawned - last[0]) / elapsedSeconds;
+        sample.removedPerSecond = (removed - last[1]) / elapsedSeconds;
+      }
+      samples.add(sample);
+    }
+    return samples;
+  }
+
+  private String render(List<ArenaSample> samples) {
+    StringBuilder builder = new StringBuilder(4096);
+    header(builder, "arena_enemies_alive", "gauge", "Enemies currently alive in the arena");
+    for(ArenaSample sample : samples) {
+      line(builder, "arena_enemies_alive", sample.labels, sample.enemiesAlive);
+    }
+    header(builder, "arena_zombies_to_spawn", "gauge", "Enemies left to spawn in the current wave");
+    for(ArenaSample sample : samples) {
+      line(builder, "arena_zombies_to_spawn", sample.labels, sample.zombiesToSpawn);
+    }
+    header(builder, "arena_wave", "gauge", "Current wave of the arena");
+    for(ArenaSample sample : samples) {
+      line(builder, "arena_wave", sample.labels, sample.wave);
+    }
+    header(builder, "arena_creepers_alive", "gauge", "Creeper Attack creepers currently alive in the arena");
+    for(ArenaSample sample : samples) {
+      line(builder, "arena_creepers_alive", sample.labels, sample.creepersAlive);
+    }
+    header(builder, "arena_entities_spawned_per_second", "gauge", "Enemies spawned per second since the previous export");
+    for(ArenaSample sample : samples) {
+      line(builder, "arena_entities_spawned_per_second", sample.labels, sample.spawnedPerSecond);
+    }
+    header(builder, "arena_entities_removed_per_second", "gauge", "Enemies removed per second since the previous export");
+    for(ArenaSample sample : samples) {
+      line(builder, "arena_entities_removed_per_second", sample.labels, sample.removedPerSecond);
+    }
+
+    MetricsRegistry metrics = plugin.getMetricsRegistry();
+    header(builder, "tick_cost_seconds", "summary", "Time spent per subsystem, quantiles over the metrics window");
+    for(Timer timer : metrics.getTimers().values()) {
+      summary(builder, "tick_cost_seconds", "subsystem=\"" + escape(timer.getName()) + "\"", timer);
+    }
+    header(builder, "arena_tick_cost_seconds", "summary", "Time spent per subsystem and arena, quantiles over the metrics window");
+    for(ArenaSample sample : samples) {
+      for(Timer timer : metrics.getTimers(sample.id).values()) {
+        summary(builder, "arena_tick_cost_seconds", sample.labels + ",subsystem=\"" + escape(timer.getName()) + "\"", timer);
+      }
+    }
+    return builder.toString();
+  }
+
+  private static void summary(StringBuilder builder, String name, String labels, Timer timer) {
+    LatencyHistogram.Snapshot snapshot = timer.snapshot();
+    for(double quantile : QUANTILES) {
+      line(builder, name, labels + ",quantile=\"" + quantile + "\"", snapshot.getPercentile(quantile * 100) / 1_000_000_000.0);
+    }
+    line(builder, name + "_sum", labels, timer.getTotalNanos() / 1_000_000_000.0);
+    line(builder, name + "_count", labels, timer.getCount());
+  }
+
+  private void write(String content) throws IOException {
+    File parent = file.getAbsoluteFile().getParentFile();
+    if(parent != null && !parent.exists() && !parent.mkdirs()) {
+      throw new IOException("Cannot create directory " + parent.getPath());
+    }
+    File temp = new File(parent, file.getName() + ".tmp");
+    try(Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+      writer.write(content);
+    }
+    try {
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch(AtomicMoveNotSupportedException exception) {
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static void header(StringBuilder builder, String name, String type, String help) {
+    builder.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+    builder.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void line(StringBuilder builder, String name, String labels, double value) {
+    builder.append(PREFIX).append(name);
+    if(!labels.isEmpty()) {
+      builder.append('{').append(labels).append('}');
+    }
+    builder.append(' ').append(format(value)).append('\n');
+  }
+
+  private static String format(double value) {
+    if(value == Math.rint(value) && !Double.isInfinite(value)) {
+      return Long.toString((long) value);
+    }
+    return Double.toString(value);
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  private static final class ArenaSample {
+
+    private final String id;
+    private final String labels;
+    private int enemiesAlive;
+    private int zombiesToSpawn;
+    private int wave;
+    private int creepersAlive;
+    private double spawnedPerSecond;
+    private double removedPerSecond;
+
+    private ArenaSample(String id) {
+      this.id = id;
+      this.labels = "arena=\"" + escape(id) + "\"";
+    }
+  }
+
+}
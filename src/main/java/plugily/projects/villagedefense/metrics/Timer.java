@@ -0,0 +1,62 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nano time timer of a single subsystem.
+ * Keeps all time totals and a sliding window histogram for percentiles.
+ */
+public class Timer {
+
+  private final String name;
+  private final LatencyHistogram histogram;
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+
+  Timer(String name, long windowNanos, int slices) {
+    this.name = name;
+    this.histogram = new LatencyHistogram(windowNanos, slices);
+  }
+
+  public void record(long nanos) {
+    histogram.record(nanos);
+    count.increment();
+    totalNanos.add(nanos);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  public LatencyHistogram.Snapshot snapshot() {
+    return histogram.snapshot();
+  }
+
+}
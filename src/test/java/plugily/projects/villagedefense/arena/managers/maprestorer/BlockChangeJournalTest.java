@@ -0,0 +1,62 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.arena.managers.maprestorer;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.junit.jupiter.api.Test;
+import plugily.projects.villagedefense.stub.BukkitStubs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockChangeJournalTest {
+
+  private final World world = BukkitStubs.world("journal");
+
+  @Test
+  void recordsBlockAgainAfterPartialReplay() {
+    BlockChangeJournal journal = new BlockChangeJournal();
+    for(int i = 0; i < 10; i++) {
+      assertTrue(journal.record(world, i, 64, 0, Material.STONE, (byte) 0));
+    }
+    assertFalse(journal.record(world, 9, 64, 0, Material.DIRT, (byte) 0), "first change of a position is kept");
+
+    List<Material> restored = new ArrayList<>();
+    assertFalse(journal.replay(3, (block, type, data) -> restored.add(type)));
+    assertEquals(3, restored.size());
+    assertEquals(7, journal.size());
+
+    //blocks 7..9 were restored, their next change is a new entry
+    assertTrue(journal.record(world, 9, 64, 0, Material.DIRT, (byte) 0), "restored position should be recorded again");
+    assertFalse(journal.record(world, 0, 64, 0, Material.DIRT, (byte) 0), "position still in the journal keeps its first state");
+    assertEquals(8, journal.size());
+
+    restored.clear();
+    assertTrue(journal.replay(Integer.MAX_VALUE, (block, type, data) -> restored.add(type)));
+    assertEquals(Material.DIRT, restored.get(0), "newest change is restored first");
+    assertEquals(8, restored.size());
+    assertEquals(0, journal.size());
+  }
+
+}
@@ -0,0 +1,221 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.simulation;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Creature;
+import org.mockito.Mockito;
+import plugily.projects.minigamesbox.api.arena.IArenaState;
+import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.ArenaManager;
+import plugily.projects.villagedefense.arena.ArenaRegistry;
+import plugily.projects.villagedefense.arena.ArenaTickScheduler;
+import plugily.projects.villagedefense.arena.managers.SpawnQueueDrainer;
+import plugily.projects.villagedefense.arena.managers.enemy.spawner.EnemySpawnerRegistryLegacy;
+import plugily.projects.villagedefense.arena.managers.spawner.EnemySpawner;
+import plugily.projects.villagedefense.arena.states.InGameState;
+import plugily.projects.villagedefense.stub.BukkitStubs;
+import plugily.projects.villagedefense.stub.PluginFixtures;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless replay of a Village Defense game.
+ * <p>
+ * Drives the real {@link InGameState}, {@link ArenaManager} wave handling, enemy spawner
+ * registry and {@link ArenaTickScheduler} against stub entities. Every arena second
+ * the in game state handler is called once followed by 20 scheduler ticks, players
+ * are modelled as a fixed amount of kills per second. All randomness comes from
+ * the seed so equal settings replay the same game.
+ */
+public class ArenaSimulation {
+
+  private static final int TICKS_PER_SECOND = 20;
+  private static final int ZOMBIE_SPAWNS = 8;
+  private static final int VILLAGERS = 10;
+
+  private final int players;
+  private final int waves;
+  private final long seed;
+  private int killsPerPlayerPerSecond = 2;
+  private int maxSeconds = 100_000;
+  private EnemySpawner[] spawners;
+
+  public ArenaSimulation(int players, int waves, long seed) {
+    this.players = players;
+    this.waves = waves;
+    this.seed = seed;
+  }
+
+  public ArenaSimulation setKillsPerPlayerPerSecond(int killsPerPlayerPerSecond) {
+    this.killsPerPlayerPerSecond = killsPerPlayerPerSecond;
+    return this;
+  }
+
+  /**
+   * @param maxSeconds simulated seconds after which the replay is aborted
+   * @return this simulation
+   */
+  public ArenaSimulation setMaxSeconds(int maxSeconds) {
+    this.maxSeconds = maxSeconds;
+    return this;
+  }
+
+  /**
+   * @param spawners spawners replacing the registered enemy spawners
+   * @return this simulation
+   */
+  public ArenaSimulation setSpawners(EnemySpawner... spawners) {
+    this.spawners = spawners;
+    return this;
+  }
+
+  public SimulationReport run() {
+    Random random = new Random(seed);
+    AtomicInteger spawned = new AtomicInteger();
+    Main plugin = PluginFixtures.newPlugin(random, BukkitStubs.creatureInitializer(spawned));
+    Arena arena = PluginFixtures.newArena(ZOMBIE_SPAWNS);
+    ArenaTickScheduler scheduler = wire(plugin, arena);
+    SpawnQueueDrainer spawnQueueDrainer = new SpawnQueueDrainer(plugin);
+    populate(arena);
+
+    InGameState inGameState = new InGameState();
+    arena.setArenaState(IArenaState.IN_GAME);
+    arena.setWave(1);
+    arena.setFighting(false);
+    arena.setTimer(0);
+
+    AllocationCounter allocations = new AllocationCounter();
+    List<WaveStats> stats = new ArrayList<>(waves);
+    WaveStats current = new WaveStats(1);
+    for(int second = 0; second < maxSeconds && arena.getArenaState() == IArenaState.IN_GAME; second++) {
+      int wave = arena.getWave();
+      if(wave > waves) {
+        break;
+      }
+      if(wave != current.getWave()) {
+        stats.add(current);
+        current = new WaveStats(wave);
+      }
+      int spawnedBefore = spawned.get();
+      int timer = arena.getTimer();
+      long allocatedBefore = allocations.get();
+      long entityCallsBefore = BukkitStubs.getEntityCalls();
+      long start = System.nanoTime();
+
+      inGameState.handleCall(arena);
+      //the framework counts the timer down in its own arena runnable
+      if(arena.getTimer() == timer && timer > 0) {
+        arena.setTimer(timer - 1);
+      }
+      for(int tick = 0; tick < TICKS_PER_SECOND; tick++) {
+        scheduler.run();
+        spawnQueueDrainer.run();
+      }
+
+      long nanos = System.nanoTime() - start;
+      long allocated = allocations.get() - allocatedBefore;
+      long entityCalls = BukkitStubs.getEntityCalls() - entityCallsBefore;
+      current.recordSecond(spawned.get() - spawnedBefore, arena.getEnemies().size(), nanos, allocations.isSupported() ? allocated : -1, entityCalls);
+      current.recordKills(killEnemies(arena, random));
+    }
+    stats.add(current);
+    return new SimulationReport(seed, players, stats);
+  }
+
+  private ArenaTickScheduler wire(Main plugin, Arena arena) {
+    ArenaRegistry registry = plugin.getArenaRegistry();
+    Mockito.when(registry.inGameArenas()).thenReturn(Collections.singletonList(arena));
+    Mockito.when(registry.getArenaIndex(arena)).thenReturn(0);
+    ArenaManager arenaManager = new ArenaManager(plugin);
+    Mockito.when(plugin.getArenaManager()).thenReturn(arenaManager);
+    EnemySpawnerRegistryLegacy spawnerRegistry = new EnemySpawnerRegistryLegacy(plugin, PluginFixtures.creatures());
+    if(spawners != null) {
+      spawnerRegistry.getEnemySpawnerSet().clear();
+      spawnerRegistry.getEnemySpawnerSet().addAll(Arrays.asList(spawners));
+    }
+    Mockito.when(plugin.getEnemySpawnerRegistry()).thenReturn(spawnerRegistry);
+    ArenaTickScheduler scheduler = new ArenaTickScheduler(plugin);
+    Mockito.when(plugin.getArenaTickScheduler()).thenReturn(scheduler);
+    arenaManager.registerTickJobs(scheduler);
+    return scheduler;
+  }
+
+  private void populate(Arena arena) {
+    Location start = new Location(PluginFixtures.world(), 0, 64, 0);
+    arena.addVillagerSpawn(start);
+    arena.getPlugin().getConfig().set("Limit.Spawn.Villagers", VILLAGERS);
+    arena.spawnVillagers();
+    for(int i = 0; i < players; i++) {
+      arena.addPlayer(BukkitStubs.player("Player" + i, start));
+    }
+  }
+
+  /**
+   * Kills random enemies the same way the entity death listener removes them.
+   */
+  private int killEnemies(Arena arena, Random random) {
+    int kills = Math.min(arena.getEnemies().size(), players * killsPerPlayerPerSecond);
+    for(int i = 0; i < kills; i++) {
+      List<Creature> enemies = arena.getEnemies();
+      Creature creature = enemies.get(random.nextInt(enemies.size()));
+      creature.remove();
+      arena.removeEnemy(creature);
+      arena.changeArenaOptionBy("TOTAL_KILLED_ZOMBIES", 1);
+    }
+    return kills;
+  }
+
+  /**
+   * Bytes allocated by the current thread, available on HotSpot based JVMs.
+   */
+  private static final class AllocationCounter {
+
+    private final com.sun.management.ThreadMXBean bean;
+    private final long threadId = Thread.currentThread().getId();
+
+    private AllocationCounter() {
+      ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+      if(threadBean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+        bean = (com.sun.management.ThreadMXBean) threadBean;
+        bean.setThreadAllocatedMemoryEnabled(true);
+      } else {
+        bean = null;
+      }
+    }
+
+    private boolean isSupported() {
+      return bean != null;
+    }
+
+    private long get() {
+      return bean == null ? 0 : bean.getThreadAllocatedBytes(threadId);
+    }
+  }
+
+}
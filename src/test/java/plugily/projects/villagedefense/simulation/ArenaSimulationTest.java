@@ -0,0 +1,128 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.simulation;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Creature;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.managers.spawner.SimpleEnemySpawner;
+import plugily.projects.villagedefense.creatures.CreatureUtils;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regression baseline for spawn and AI changes, replays a full game without a server.
+ * Player count can be changed with -Dsimulation.players=N.
+ */
+class ArenaSimulationTest {
+
+  private static final long SEED = 20_140_727L;
+  private static final int WAVES = 50;
+  private static final int PLAYERS = Integer.getInteger("simulation.players", 4);
+
+  @Test
+  void replaysFiftyWavesDeterministically() throws IOException {
+    SimulationReport first = new ArenaSimulation(PLAYERS, WAVES, SEED).run();
+    SimulationReport second = new ArenaSimulation(PLAYERS, WAVES, SEED).run();
+
+    assertEquals(WAVES, first.getWaves().size(), "every wave should be played");
+    assertArrayEquals(first.getSpawnCounts(), second.getSpawnCounts(), "same seed should spawn same enemies");
+    assertTrue(first.getTotalSpawned() > 0, "enemies should be spawned");
+    first.writeCsv(Paths.get("build", "reports", "simulation", "wave-replay-" + PLAYERS + "p.csv"));
+  }
+
+  @Test
+  void spawnsWholeWaveWithSparseSpawner() {
+    //a whole phase period without any spawn is likely with this spawner, the rest of the wave still has to spawn
+    int players = 1;
+    int waves = 6;
+    List<WaveStats> stats = new ArenaSimulation(players, waves, SEED).setSpawners(new SparseSpawner()).setMaxSeconds(20_000).run().getWaves();
+
+    assertEquals(waves, stats.size(), "every wave should be played");
+    for(WaveStats wave : stats) {
+      int expected = (int) Math.ceil((players * 0.5) * (wave.getWave() * wave.getWave()) / 2);
+      assertEquals(expected, wave.getSpawned(), "wave " + wave.getWave() + " should spawn all its enemies");
+    }
+  }
+
+  @Test
+  void tickWorkScalesLinearlyWithEnemies() {
+    List<WaveStats> waves = new ArenaSimulation(PLAYERS, WAVES, SEED).run().getWaves();
+    //work is counted in calls on stub entities, same seed always gives the same numbers
+    double early = averageEntityCallsPerEnemySecond(waves.subList(5, 15));
+    double late = averageEntityCallsPerEnemySecond(waves.subList(WAVES - 10, WAVES));
+    assertTrue(early > 0, "early waves should have alive enemies");
+    //quadratic work per enemy shows up as late waves being many times more expensive per enemy
+    assertTrue(late < early * 4, "per enemy tick work grew from " + early + " to " + late + " entity calls");
+  }
+
+  private static double averageEntityCallsPerEnemySecond(List<WaveStats> waves) {
+    long calls = 0;
+    long enemySeconds = 0;
+    for(WaveStats wave : waves) {
+      calls += wave.getEntityCalls();
+      enemySeconds += wave.getEnemySeconds();
+    }
+    return enemySeconds == 0 ? 0 : (double) calls / enemySeconds;
+  }
+
+  //one spawn per phase period on average, about a third of the periods spawn nothing
+  private static final class SparseSpawner implements SimpleEnemySpawner {
+
+    @Override
+    public double getSpawnRate(Arena arena, int wave, int phase, int spawnAmount) {
+      return 1D / 8;
+    }
+
+    @Override
+    public int getFinalAmount(Arena arena, int wave, int phase, int spawnAmount) {
+      return 8;
+    }
+
+    @Override
+    public boolean checkPhase(Arena arena, int wave, int phase, int spawnAmount) {
+      return phase == 5;
+    }
+
+    @Override
+    public Creature spawn(Location location) {
+      return CreatureUtils.getCreatureInitializer().spawnFastZombie(location);
+    }
+
+    @Override
+    public String getName() {
+      return "SparseZombie";
+    }
+
+    @Override
+    public ItemStack getDropItem() {
+      return null;
+    }
+  }
+
+}
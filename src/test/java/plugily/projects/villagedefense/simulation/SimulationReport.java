@@ -0,0 +1,104 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.simulation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per wave results of an {@link ArenaSimulation} run.
+ */
+public class SimulationReport {
+
+  private static final String CSV_HEADER = "wave,spawned,killed,seconds,peak_enemies,tick_nanos,max_second_nanos,allocated_bytes,entity_calls";
+
+  private final long seed;
+  private final int players;
+  private final List<WaveStats> waves;
+
+  SimulationReport(long seed, int players, List<WaveStats> waves) {
+    this.seed = seed;
+    this.players = players;
+    this.waves = Collections.unmodifiableList(new ArrayList<>(waves));
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public int getPlayers() {
+    return players;
+  }
+
+  public List<WaveStats> getWaves() {
+    return waves;
+  }
+
+  /**
+   * @return spawned enemies per wave, equal for equal seeds and player counts
+   */
+  public int[] getSpawnCounts() {
+    int[] counts = new int[waves.size()];
+    for(int i = 0; i < counts.length; i++) {
+      counts[i] = waves.get(i).getSpawned();
+    }
+    return counts;
+  }
+
+  public int getTotalSpawned() {
+    int total = 0;
+    for(WaveStats wave : waves) {
+      total += wave.getSpawned();
+    }
+    return total;
+  }
+
+  public long getTotalTickNanos() {
+    long total = 0;
+    for(WaveStats wave : waves) {
+      total += wave.getTickNanos();
+    }
+    return total;
+  }
+
+  public void writeCsv(Path path) throws IOException {
+    List<String> lines = new ArrayList<>(waves.size() + 1);
+    lines.add(CSV_HEADER);
+    for(WaveStats wave : waves) {
+      lines.add(wave.toCsvLine());
+    }
+    if(path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    Files.write(path, lines, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public String toString() {
+    return "SimulationReport{seed=" + seed + ", players=" + players + ", waves=" + waves.size()
+        + ", spawned=" + getTotalSpawned() + ", tickMs=" + getTotalTickNanos() / 1_000_000 + "}";
+  }
+
+}
@@ -0,0 +1,123 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package plugily.projects.villagedefense.simulation;
+
+/**
+ * Measurements of a single simulated wave.
+ */
+public class WaveStats {
+
+  private final int wave;
+  private int spawned;
+  private int killed;
+  private int seconds;
+  private int peakEnemies;
+  private long enemySeconds;
+  private long tickNanos;
+  private long maxSecondNanos;
+  private long allocatedBytes;
+  private long entityCalls;
+
+  public WaveStats(int wave) {
+    this.wave = wave;
+  }
+
+  void recordSecond(int spawned, int aliveEnemies, long nanos, long allocatedBytes, long entityCalls) {
+    this.spawned += spawned;
+    this.seconds++;
+    this.peakEnemies = Math.max(peakEnemies, aliveEnemies);
+    this.enemySeconds += aliveEnemies;
+    this.tickNanos += nanos;
+    this.maxSecondNanos = Math.max(maxSecondNanos, nanos);
+    this.allocatedBytes += allocatedBytes;
+    this.entityCalls += entityCalls;
+  }
+
+  void recordKills(int killed) {
+    this.killed += killed;
+  }
+
+  public int getWave() {
+    return wave;
+  }
+
+  public int getSpawned() {
+    return spawned;
+  }
+
+  public int getKilled() {
+    return killed;
+  }
+
+  /**
+   * @return simulated arena seconds spent in this wave including cooldown
+   */
+  public int getSeconds() {
+    return seconds;
+  }
+
+  public int getPeakEnemies() {
+    return peakEnemies;
+  }
+
+  /**
+   * @return sum of alive enemies over every simulated second
+   */
+  public long getEnemySeconds() {
+    return enemySeconds;
+  }
+
+  /**
+   * @return wall time spent in plugin code for this wave
+   */
+  public long getTickNanos() {
+    return tickNanos;
+  }
+
+  public long getMaxSecondNanos() {
+    return maxSecondNanos;
+  }
+
+  /**
+   * @return bytes allocated by plugin code for this wave, -1 if the JVM cannot measure it
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * @return calls made by plugin code on stub entities for this wave
+   */
+  public long getEntityCalls() {
+    return entityCalls;
+  }
+
+  /**
+   * @return average tick cost per alive enemy in nanoseconds
+   */
+  public double getNanosPerEnemySecond() {
+    return enemySeconds == 0 ? 0 : (double) tickNanos / enemySeconds;
+  }
+
+  String toCsvLine() {
+    return wave + "," + spawned + "," + killed + "," + seconds + "," + peakEnemies + "," + tickNanos + "," + maxSecondNanos + "," + allocatedBytes + "," + entityCalls;
+  }
+
+}
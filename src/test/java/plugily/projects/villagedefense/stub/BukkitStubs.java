@@ -0,0 +1,321 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.stub;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Creature;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.IronGolem;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Villager;
+import org.bukkit.entity.Wolf;
+import plugily.projects.villagedefense.creatures.BaseCreatureInitializer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Lightweight proxy based stubs of Bukkit types so benchmarks run without a server.
+ * <p>
+ * Entities keep only the state the benchmarked code reads: location, health,
+ * custom name and dead flag. Every other method returns a zero value.
+ */
+public final class BukkitStubs {
+
+  private static final AtomicInteger ENTITY_IDS = new AtomicInteger();
+  private static final Map<Class<?>, Object> NOOP_PROXIES = new ConcurrentHashMap<>();
+  private static final AtomicLong ENTITY_CALLS = new AtomicLong();
+
+  private BukkitStubs() {
+  }
+
+  /**
+   * Installs a stub server once, required by code asking Bukkit for server version,
+   * plugin manager or scheduler. Bukkit services are no-op proxies.
+   */
+  public static synchronized void installServer() {
+    if(Bukkit.getServer() != null) {
+      return;
+    }
+    Logger logger = Logger.getLogger("VillageDefense-Benchmark");
+    Bukkit.setServer(proxy(Server.class, (proxy, method, args) -> {
+      switch(method.getName()) {
+        case "getName":
+          return "VillageDefense-Benchmark";
+        case "getVersion":
+          return "git-Spigot-benchmark (MC: 1.8.8)";
+        case "getBukkitVersion":
+          return "1.8.8-R0.1-SNAPSHOT";
+        case "getLogger":
+          return logger;
+        default:
+          return noopValue(proxy, method, args);
+      }
+    }));
+  }
+
+  public static World world(String name) {
+    UUID uuid = UUID.nameUUIDFromBytes(name.getBytes());
+    return proxy(World.class, (proxy, method, args) -> {
+      switch(method.getName()) {
+        case "getName":
+          return name;
+        case "getUID":
+          return uuid;
+        default:
+          return defaultValue(proxy, method, args);
+      }
+    });
+  }
+
+  public static Creature creature(Location location) {
+    return entity(Creature.class, EntityType.ZOMBIE, location);
+  }
+
+  public static Wolf wolf(Location location) {
+    return entity(Wolf.class, EntityType.WOLF, location);
+  }
+
+  public static IronGolem ironGolem(Location location) {
+    return entity(IronGolem.class, EntityType.IRON_GOLEM, location);
+  }
+
+  public static Villager villager(Location location) {
+    return entity(Villager.class, EntityType.VILLAGER, location);
+  }
+
+  public static Player player(String name, Location location) {
+    return entity(Player.class, EntityType.PLAYER, location, name);
+  }
+
+  public static <T> T entity(Class<T> type, EntityType entityType, Location location) {
+    return entity(type, entityType, location, null);
+  }
+
+  private static <T> T entity(Class<T> type, EntityType entityType, Location location, String name) {
+    return proxy(type, new EntityState(entityType, location, name));
+  }
+
+  /**
+   * Creature initializer returning stub zombies, installed in place of the NMS one.
+   *
+   * @return stub initializer
+   */
+  public static BaseCreatureInitializer creatureInitializer() {
+    return creatureInitializer(new AtomicInteger());
+  }
+
+  /**
+   * Creature initializer returning stub zombies which counts every spawned enemy.
+   *
+   * @param spawned counter incremented on every enemy spawn
+   * @return stub initializer
+   */
+  public static BaseCreatureInitializer creatureInitializer(AtomicInteger spawned) {
+    return proxy(BaseCreatureInitializer.class, (proxy, method, args) -> {
+      if(method.getName().startsWith("spawn") && args != null && args.length == 1 && args[0] instanceof Location) {
+        Location location = (Location) args[0];
+        Class<?> returnType = method.getReturnType();
+        if(returnType == Villager.class) {
+          return villager(location);
+        }
+        if(returnType == Wolf.class) {
+          return wolf(location);
+        }
+        if(returnType == IronGolem.class) {
+          return ironGolem(location);
+        }
+        spawned.incrementAndGet();
+        return creature(location);
+      }
+      return defaultValue(proxy, method, args);
+    });
+  }
+
+  /**
+   * Deterministic measure of plugin work, unlike wall time it does not depend on JIT or machine load.
+   *
+   * @return amount of method calls made on stub entities so far
+   */
+  public static long getEntityCalls() {
+    return ENTITY_CALLS.get();
+  }
+
+  /**
+   * Moves the stub entity without going through teleport.
+   *
+   * @param entity stub entity
+   * @param x      x offset
+   * @param z      z offset
+   */
+  public static void move(Object entity, double x, double z) {
+    EntityState state = (EntityState) Proxy.getInvocationHandler(entity);
+    state.location.add(x, 0, z);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(BukkitStubs.class.getClassLoader(), new Class<?>[]{type}, handler);
+  }
+
+  /**
+   * Same as {@link #defaultValue(Object, Method, Object[])} but Bukkit interfaces
+   * are answered with no-op proxies instead of null, e.g. plugin manager or scheduled tasks.
+   */
+  private static Object noopValue(Object proxy, Method method, Object[] args) {
+    Class<?> returnType = method.getReturnType();
+    if(returnType.isInterface() && returnType.getName().startsWith("org.bukkit.")) {
+      return NOOP_PROXIES.computeIfAbsent(returnType, type -> proxy(type, BukkitStubs::noopValue));
+    }
+    return defaultValue(proxy, method, args);
+  }
+
+  private static Object defaultValue(Object proxy, Method method, Object[] args) {
+    switch(method.getName()) {
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      case "equals":
+        return proxy == args[0];
+      case "toString":
+        return "Stub" + method.getDeclaringClass().getSimpleName();
+      default:
+        break;
+    }
+    Class<?> returnType = method.getReturnType();
+    if(!returnType.isPrimitive() || returnType == void.class) {
+      return null;
+    }
+    if(returnType == boolean.class) {
+      return false;
+    }
+    if(returnType == char.class) {
+      return '\0';
+    }
+    if(returnType == long.class) {
+      return 0L;
+    }
+    if(returnType == float.class) {
+      return 0f;
+    }
+    if(returnType == double.class) {
+      return 0d;
+    }
+    if(returnType == byte.class) {
+      return (byte) 0;
+    }
+    if(returnType == short.class) {
+      return (short) 0;
+    }
+    return 0;
+  }
+
+  private static final class EntityState implements InvocationHandler {
+
+    private final int entityId = ENTITY_IDS.incrementAndGet();
+    private final UUID uuid = UUID.randomUUID();
+    private final EntityType type;
+    private final Location location;
+    private final String name;
+    private String customName;
+    private double health = 20;
+    private double maxHealth = 20;
+    private boolean dead;
+
+    private EntityState(EntityType type, Location location, String name) {
+      this.type = type;
+      this.location = location.clone();
+      this.name = name;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+      ENTITY_CALLS.incrementAndGet();
+      switch(method.getName()) {
+        case "getEntityId":
+          return entityId;
+        case "getUniqueId":
+          return uuid;
+        case "getType":
+          return type;
+        case "getName":
+          return name;
+        case "getWorld":
+          return location.getWorld();
+        case "getLocation":
+          if(args != null && args.length == 1) {
+            Location target = (Location) args[0];
+            if(target != null) {
+              target.setWorld(location.getWorld());
+              target.setX(location.getX());
+              target.setY(location.getY());
+              target.setZ(location.getZ());
+              target.setYaw(location.getYaw());
+              target.setPitch(location.getPitch());
+            }
+            return target;
+          }
+          return location.clone();
+        case "teleport":
+          if(args[0] instanceof Location) {
+            Location to = (Location) args[0];
+            location.setWorld(to.getWorld());
+            location.setX(to.getX());
+            location.setY(to.getY());
+            location.setZ(to.getZ());
+          }
+          return true;
+        case "getHealth":
+          return health;
+        case "setHealth":
+          health = ((Number) args[0]).doubleValue();
+          return null;
+        case "getMaxHealth":
+          return maxHealth;
+        case "setMaxHealth":
+          maxHealth = ((Number) args[0]).doubleValue();
+          return null;
+        case "getCustomName":
+          return customName;
+        case "setCustomName":
+          customName = (String) args[0];
+          return null;
+        case "isDead":
+          return dead;
+        case "isValid":
+          return !dead;
+        case "remove":
+          dead = true;
+          return null;
+        default:
+          return defaultValue(proxy, method, args);
+      }
+    }
+  }
+
+}
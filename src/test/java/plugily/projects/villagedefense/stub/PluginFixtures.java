@@ -0,0 +1,171 @@
+/*
+ *  Village Defense - Protect villagers from hordes of zombies
+ *  Copyright (c) 2023 Plugily Projects - maintained by Tigerpanzer_02 and contributors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package plugily.projects.villagedefense.stub;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.mockito.Mockito;
+import plugily.projects.villagedefense.Main;
+import plugily.projects.villagedefense.arena.Arena;
+import plugily.projects.villagedefense.arena.ArenaUtils;
+import plugily.projects.villagedefense.arena.EntityOwnershipRegistry;
+import plugily.projects.villagedefense.arena.managers.SpawnThrottle;
+import plugily.projects.villagedefense.creatures.BaseCreatureInitializer;
+import plugily.projects.villagedefense.creatures.CreatureUtils;
+import plugily.projects.villagedefense.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Shared setup of benchmarks and headless simulations: a mocked plugin
+ * instance and arenas filled with stub entities.
+ */
+public final class PluginFixtures {
+
+  public static final long SEED = 42L;
+  private static Main plugin;
+  private static World world;
+
+  private PluginFixtures() {
+  }
+
+  public static synchronized Main plugin() {
+    if(plugin == null) {
+      plugin = createPlugin();
+    }
+    return plugin;
+  }
+
+  public static synchronized World world() {
+    if(world == null) {
+      world = BukkitStubs.world("benchmark");
+    }
+    return world;
+  }
+
+  private static Main createPlugin() {
+    return newPlugin(new Random(SEED), BukkitStubs.creatureInitializer());
+  }
+
+  /**
+   * Creates a new mocked plugin and installs it as the static plugin instance
+   * of arenas and creature utilities, replacing the previous one.
+   *
+   * @param random              random returned by the plugin
+   * @param creatureInitializer initializer used by enemy spawners
+   * @return mocked plugin
+   */
+  public static Main newPlugin(Random random, BaseCreatureInitializer creatureInitializer) {
+    BukkitStubs.installServer();
+    Main main = Mockito.mock(Main.class, Mockito.RETURNS_DEEP_STUBS);
+    YamlConfiguration config = new YamlConfiguration();
+    //spawn throttle follows live server load, keep spawning deterministic
+    config.set("Performance.Spawn-Throttle.Enabled", false);
+    Mockito.when(main.getConfig()).thenReturn(config);
+    EntityOwnershipRegistry ownershipRegistry = new EntityOwnershipRegistry();
+    Mockito.when(main.getEntityOwnershipRegistry()).thenReturn(ownershipRegistry);
+    Mockito.when(main.getEntityLifecycleBus()).thenReturn(ownershipRegistry.getLifecycleBus());
+    Mockito.when(main.getRandom()).thenReturn(random);
+    Mockito.when(main.getMetricsRegistry()).thenReturn(new MetricsRegistry(main));
+    Mockito.when(main.getSpawnThrottle()).thenReturn(new SpawnThrottle(main));
+    Arena.init(main);
+    ArenaUtils.init(main);
+    setStaticField(CreatureUtils.class, "plugin", main);
+    setStaticField(CreatureUtils.class, "creatureInitializer", creatureInitializer);
+    return main;
+  }
+
+  /**
+   * Loads the Creatures.Content section of the bundled creatures.yml.
+   *
+   * @return creature definitions used by the legacy spawner registry
+   */
+  public static ConfigurationSection creatures() {
+    InputStream stream = PluginFixtures.class.getResourceAsStream("/creatures.yml");
+    if(stream == null) {
+      throw new IllegalStateException("creatures.yml is not on the classpath");
+    }
+    try(Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+      return YamlConfiguration.loadConfiguration(reader).getConfigurationSection("Creatures.Content");
+    } catch(IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  /**
+   * Creates a new arena with zombie spawns laid out on a line.
+   *
+   * @param zombieSpawns amount of zombie spawns
+   * @return arena ready for benchmarks
+   */
+  public static Arena arena(int zombieSpawns) {
+    plugin();
+    return newArena(zombieSpawns);
+  }
+
+  /**
+   * Creates a new arena bound to the currently installed plugin.
+   *
+   * @param zombieSpawns amount of zombie spawns
+   * @return new arena
+   */
+  public static Arena newArena(int zombieSpawns) {
+    Arena arena = new Arena("benchmark");
+    for(int i = 0; i < zombieSpawns; i++) {
+      arena.addZombieSpawn(new Location(world(), i * 8, 64, 0));
+    }
+    arena.setArenaOption("ZOMBIE_SPAWN_COUNTER", 0);
+    arena.setArenaOption("ZOMBIE_IDLE_PROCESS", 0);
+    arena.setArenaOption("HORDE_FACTOR", 1);
+    return arena;
+  }
+
+  /**
+   * Spreads given amount of stub enemies around the arena.
+   *
+   * @param arena  arena to fill
+   * @param amount amount of enemies
+   * @param random seeded random
+   */
+  public static void fillEnemies(Arena arena, int amount, Random random) {
+    for(int i = 0; i < amount; i++) {
+      arena.addEnemy(BukkitStubs.creature(new Location(world(), random.nextDouble() * 64, 64, random.nextDouble() * 64)));
+    }
+  }
+
+  private static void setStaticField(Class<?> clazz, String name, Object value) {
+    try {
+      Field field = clazz.getDeclaredField(name);
+      field.setAccessible(true);
+      field.set(null, value);
+    } catch(ReflectiveOperationException exception) {
+      throw new IllegalStateException("Cannot set " + clazz.getSimpleName() + "#" + name, exception);
+    }
+  }
+
+}